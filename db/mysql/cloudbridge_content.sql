@@ -0,0 +1,23 @@
+USE cloudbridge;
+
+-- This file can be applied to an existing cloudbridge database, an existing table is
+-- kept so running it again loses no data.   It is used by the content addressed bucket
+-- adapter to count how many objects refer to each stored blob of content.
+
+-- One row per distinct content on a storage root, Digest is the hex encoded SHA-256
+-- of the content and names the blob file.   A blob is deleted with its last reference.
+--
+CREATE TABLE IF NOT EXISTS content_blob (
+	ID BIGINT NOT NULL AUTO_INCREMENT,
+	
+	StorageRoot VARCHAR(128) NOT NULL,		-- mount point of the storage host holding the blob
+	Digest VARCHAR(64) NOT NULL,
+	MD5 VARCHAR(128),
+	StoredSize BIGINT NOT NULL DEFAULT 0,
+	RefCount INT NOT NULL DEFAULT 0,
+	
+	CreateTime DATETIME,
+	
+	PRIMARY KEY(ID),
+	UNIQUE content_root_digest(StorageRoot, Digest)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
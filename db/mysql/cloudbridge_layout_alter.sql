@@ -0,0 +1,7 @@
+USE cloudbridge;
+
+-- This file can be applied to an existing cloudbridge database.   Layout tells how the object files
+-- of a storage host are stored, 0 : flat, 1 : sharded into two levels of 256 folders.   Only
+-- StorageLayoutMigrationTool changes it once the storage host exists.
+--
+ALTER TABLE shost ADD COLUMN Layout INT NOT NULL DEFAULT 0 AFTER HostType;
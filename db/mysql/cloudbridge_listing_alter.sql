@@ -0,0 +1,15 @@
+USE cloudbridge;
+
+-- This file can be applied to an existing cloudbridge database.   LatestItemID points each object
+-- at the item that is listed when versions are not requested, so that ListBucket can page through
+-- sobject in key order without joining in (and loading) every version of every object.
+--
+ALTER TABLE sobject ADD COLUMN LatestItemID BIGINT;
+ALTER TABLE sobject ADD INDEX sobject_idx_list(SBucketID, NameKey, DeletionMark, LatestItemID);
+
+-- Highest numbered version first, the null version is only picked when there is nothing else
+--
+UPDATE sobject o SET LatestItemID = (
+	SELECT i.ID FROM sobject_item i WHERE i.SObjectID = o.ID 
+	ORDER BY i.Version IS NULL, CAST(i.Version AS UNSIGNED) DESC, i.ID DESC LIMIT 1
+);
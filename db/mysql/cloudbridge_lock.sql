@@ -0,0 +1,18 @@
+USE cloudbridge;
+
+-- This file can be applied to an existing cloudbridge database, an existing table is
+-- kept so running it again loses no data.   It is only used when lock.service=lease is
+-- configured, so that several bridge instances sharing the database can hold named locks
+-- (e.g., on the creation of a bucket).
+
+-- One row per lock name, Token is the fencing token and is incremented every time the
+-- lease is granted.   A lease that is past its ExpireTime can be granted again.
+--
+CREATE TABLE IF NOT EXISTS named_lease (
+	Name VARCHAR(255) NOT NULL,
+	Owner VARCHAR(64) NOT NULL,
+	Token BIGINT NOT NULL DEFAULT 0,
+	ExpireTime DATETIME NOT NULL,
+	
+	PRIMARY KEY(Name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
@@ -0,0 +1,8 @@
+USE cloudbridge;
+
+-- This file can be applied to an existing cloudbridge database.   Each write of a bucket policy
+-- increments its Version, a bridge instance compares it with the version of the policy it has cached
+-- to notice that another instance has replaced or deleted the policy.   A deleted policy keeps its
+-- row with an empty Policy so its Version is never reused.
+--
+ALTER TABLE bucket_policies ADD COLUMN Version BIGINT NOT NULL DEFAULT 0;
@@ -17,7 +17,7 @@ CREATE TABLE shost (
 	ID BIGINT NOT NULL AUTO_INCREMENT,
 	
 	Host VARCHAR(128) NOT NULL,
-	HostType INT NOT NULL DEFAULT 0, 	-- 0 : local, 1 : nfs
+	HostType INT NOT NULL DEFAULT 0, 	-- 0 : local, 1 : nfs, 2 : local with deduplicated content
 	ExportRoot VARCHAR(128) NOT NULL,
 	
 	MHostID BIGINT,						-- when host type is local, MHostID points to its owner management host												
@@ -0,0 +1,18 @@
+USE cloudbridge;
+
+-- This file can be applied to an existing cloudbridge database.   The ids of sobject and sobject_item 
+-- rows are reserved by the bridge in blocks from this table, so that an object item's stored path can
+-- be derived from its id before the row is inserted.   Each segment starts past the ids already in use
+-- and is never moved back, so the file can be applied again while bridge instances are running.
+--
+CREATE TABLE IF NOT EXISTS id_sequence (
+	sequence_name VARCHAR(255) NOT NULL,
+	next_val BIGINT,
+	
+	PRIMARY KEY(sequence_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+INSERT INTO id_sequence (sequence_name, next_val) SELECT 'sobject', COALESCE(MAX(ID), 0) + 1 FROM sobject
+	ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+INSERT INTO id_sequence (sequence_name, next_val) SELECT 'sobject_item', COALESCE(MAX(ID), 0) + 1 FROM sobject_item
+	ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
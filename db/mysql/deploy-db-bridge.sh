@@ -57,3 +57,9 @@ mysql --user=cloud --password=cloud < cloudbridge_bucketpolicy.sql
 mysql --user=cloud --password=cloud < cloudbridge_policy_alter.sql
 mysql --user=cloud --password=cloud < cloudbridge_offering.sql
 mysql --user=cloud --password=cloud < cloudbridge_offering_alter.sql
+mysql --user=cloud --password=cloud < cloudbridge_content.sql
+mysql --user=cloud --password=cloud < cloudbridge_lock.sql
+mysql --user=cloud --password=cloud < cloudbridge_listing_alter.sql
+mysql --user=cloud --password=cloud < cloudbridge_layout_alter.sql
+mysql --user=cloud --password=cloud < cloudbridge_sequence.sql
+mysql --user=cloud --password=cloud < cloudbridge_policy_version.sql
@@ -7,3 +7,9 @@ mysql --user=root --password < cloudbridge_bucketpolicy.sql
 mysql --user=root --password < cloudbridge_policy_alter.sql
 mysql --user=root --password < cloudbridge_offering.sql
 mysql --user=root --password < cloudbridge_offering_alter.sql
+mysql --user=root --password < cloudbridge_content.sql
+mysql --user=root --password < cloudbridge_lock.sql
+mysql --user=root --password < cloudbridge_listing_alter.sql
+mysql --user=root --password < cloudbridge_layout_alter.sql
+mysql --user=root --password < cloudbridge_sequence.sql
+mysql --user=root --password < cloudbridge_policy_version.sql
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.cloud.bridge.util.ConfigurationHelper;
+
+/**
+ * Keeps the ACL of recently checked buckets and object items, as one permission bitmap per grantee, so
+ * that an access check does not have to query the acl table again for a bucket used by every object
+ * request.   SAclDao drops an entry when it writes the grants of its target, once right away and once 
+ * more when the transaction ends, since another thread may have loaded the old grants in between.   
+ * A load that overlaps any invalidation is not cached at all.   The TTL bounds how long a change made 
+ * by another bridge instance sharing the database can go unnoticed.
+ * 
+ * Settings in cloud-bridge.properties:
+ *   acl.cache.size - most targets whose grants are kept, 0 disables the cache
+ *   acl.cache.ttl  - seconds an entry is used before the grants are read again
+ */
+public class AclGrantCache {
+	protected final static Logger logger = Logger.getLogger(AclGrantCache.class);
+	
+	public final static int DEFAULT_CACHE_SIZE = 10000;
+	public final static int DEFAULT_TTL_SECONDS = 60;
+	
+	private final static AclGrantCache instance = new AclGrantCache();
+	
+	private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<String, CacheEntry>(256, 0.75f, true);
+	private volatile int maxEntries = DEFAULT_CACHE_SIZE;
+	private volatile long ttlMillis = DEFAULT_TTL_SECONDS * 1000L;
+	
+	// -> bumped by every invalidation, a load only caches its result if this did not change meanwhile
+	private final AtomicLong generation = new AtomicLong();
+	
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong invalidations = new AtomicLong();
+	private final AtomicLong decisionCount = new AtomicLong();
+	private final AtomicLong decisionTimeNanos = new AtomicLong();
+	private final AtomicLong maxDecisionTimeNanos = new AtomicLong();
+	
+	private AclGrantCache() {
+	}
+	
+	public static AclGrantCache getInstance() {
+		return instance;
+	}
+	
+	public void configure(Properties properties) {
+		maxEntries = ConfigurationHelper.getIntProperty(properties, "acl.cache.size", DEFAULT_CACHE_SIZE);
+		ttlMillis = ConfigurationHelper.getIntProperty(properties, "acl.cache.ttl", DEFAULT_TTL_SECONDS) * 1000L;
+		synchronized(this) {
+			evict();
+		}
+		
+		if (logger.isInfoEnabled())
+			logger.info("ACL cache: size " + maxEntries + ", ttl " + (ttlMillis / 1000) + " seconds");
+	}
+	
+	/**
+	 * @return the permission bitmap of each grantee, null if the grants of the target are not cached
+	 */
+	public Map<String, Integer> get(String target, long targetId) {
+		if (0 >= maxEntries) return null;
+		
+		CacheEntry entry;
+		synchronized(this) {
+			entry = entries.get(getEntryKey(target, targetId));
+		}
+		
+		if (null != entry && System.currentTimeMillis() - entry.getLoadTime() < ttlMillis) {
+			hits.incrementAndGet();
+			return entry.getGrants();
+		}
+		misses.incrementAndGet();
+		return null;
+	}
+	
+	/**
+	 * To be read before the grants are loaded and passed to put() along with them.
+	 */
+	public long getGeneration() {
+		return generation.get();
+	}
+	
+	public void put(String target, long targetId, Map<String, Integer> grants, long loadGeneration) {
+		if (0 >= maxEntries) return;
+		
+		CacheEntry entry = new CacheEntry(Collections.unmodifiableMap(grants), System.currentTimeMillis());
+		synchronized(this) {
+			if (loadGeneration != generation.get()) return;
+			entries.put(getEntryKey(target, targetId), entry);
+			evict();
+		}
+	}
+	
+	/**
+	 * Drops the grants of the target now and again once the thread's transaction has ended.
+	 */
+	public void invalidate(final String target, final long targetId) {
+		invalidations.incrementAndGet();
+		invalidateNow(target, targetId);
+		PersistContext.afterCompletion(new Runnable() {
+			public void run() {
+				invalidateNow(target, targetId);
+			}
+		});
+	}
+	
+	private void invalidateNow(String target, long targetId) {
+		synchronized(this) {
+			generation.incrementAndGet();
+			entries.remove(getEntryKey(target, targetId));
+		}
+	}
+	
+	public void recordDecision(long nanos) {
+		decisionCount.incrementAndGet();
+		decisionTimeNanos.addAndGet(nanos);
+		long max = maxDecisionTimeNanos.get();
+		while(nanos > max && !maxDecisionTimeNanos.compareAndSet(max, nanos))
+			max = maxDecisionTimeNanos.get();
+	}
+	
+	private void evict() {
+		while(entries.size() > Math.max(0, maxEntries)) {
+			String eldest = entries.keySet().iterator().next();
+			entries.remove(eldest);
+		}
+	}
+	
+	private static String getEntryKey(String target, long targetId) {
+		return target + "/" + targetId;
+	}
+	
+	public long getHits() {
+		return hits.get();
+	}
+	
+	public long getMisses() {
+		return misses.get();
+	}
+	
+	public long getInvalidations() {
+		return invalidations.get();
+	}
+	
+	public synchronized int getEntryCount() {
+		return entries.size();
+	}
+	
+	public long getDecisionCount() {
+		return decisionCount.get();
+	}
+	
+	public long getDecisionTimeMicros() {
+		return decisionTimeNanos.get() / 1000;
+	}
+	
+	public long getMaxDecisionTimeMicros() {
+		return maxDecisionTimeNanos.get() / 1000;
+	}
+	
+	private static class CacheEntry {
+		private final Map<String, Integer> grants;
+		private final long loadTime;
+		
+		public CacheEntry(Map<String, Integer> grants, long loadTime) {
+			this.grants = grants;
+			this.loadTime = loadTime;
+		}
+		
+		public Map<String, Integer> getGrants() {
+			return grants;
+		}
+		
+		public long getLoadTime() {
+			return loadTime;
+		}
+	}
+}
@@ -0,0 +1,490 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.apache.log4j.Logger;
+
+import com.cloud.bridge.util.ConfigurationHelper;
+
+/**
+ * A bounded pool of MySQL connections shared by the Dao classes that use JDBC directly instead of 
+ * Hibernate.   Its settings are read once from ec2-service.properties:
+ * 
+ *   dbHost, dbName, dbUser, dbPassword - the database, dbHost defaults to localhost:3306
+ *   db.pool.minSize            - connections opened at startup and kept even when idle
+ *   db.pool.maxSize            - connections open at most, further callers wait for one to be returned
+ *   db.pool.maxWait            - milliseconds a caller waits for a connection before failing
+ *   db.pool.idleTimeout        - milliseconds after which idle connections above minSize are closed
+ *   db.pool.validationQuery    - run on a connection that has been idle for longer than validationInterval
+ *   db.pool.validationInterval - milliseconds
+ *   db.pool.statementCacheSize - prepared statements cached by the driver per connection, 0 disables the cache
+ * 
+ * Connections are handed out wrapped so that closing them returns them to the pool, callers keep the
+ * usual open, use and close in a finally block pattern.   A connection is returned with its pending 
+ * work rolled back and with auto commit turned back on.   The connections a thread has borrowed and
+ * not yet returned are counted per thread, see PersistContext.checkNoConnectionHeld.
+ */
+public class ConnectionPool implements DataSource {
+	protected final static Logger logger = Logger.getLogger(ConnectionPool.class);
+	
+	public final static int DEFAULT_MIN_SIZE = 2;
+	public final static int DEFAULT_MAX_SIZE = 20;
+	public final static long DEFAULT_MAX_WAIT = 10000;
+	public final static long DEFAULT_IDLE_TIMEOUT = 10 * 60 * 1000;
+	public final static String DEFAULT_VALIDATION_QUERY = "SELECT 1";
+	public final static long DEFAULT_VALIDATION_INTERVAL = 30000;
+	public final static int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+	
+	private static ConnectionPool instance;
+	
+	private final static ThreadLocal<AtomicInteger> threadLeases = new ThreadLocal<AtomicInteger>() {
+		@Override
+		protected AtomicInteger initialValue() {
+			return new AtomicInteger();
+		}
+	};
+	
+	private final String url;
+	private final Properties connectionProperties = new Properties();
+	private final int minSize;
+	private final int maxSize;
+	private final long maxWait;
+	private final long idleTimeout;
+	private final String validationQuery;
+	private final long validationInterval;
+	
+	private final Semaphore permits;
+	private final LinkedList<PooledConnection> idle = new LinkedList<PooledConnection>();
+	
+	private final AtomicLong borrowCount = new AtomicLong();
+	private final AtomicLong waitCount = new AtomicLong();
+	private final AtomicLong waitTimeMillis = new AtomicLong();
+	private final AtomicLong maxWaitTimeMillis = new AtomicLong();
+	private final AtomicLong timeoutCount = new AtomicLong();
+	private final AtomicLong createdCount = new AtomicLong();
+	private final AtomicLong discardedCount = new AtomicLong();
+	
+	private int loginTimeout = 0;
+	
+	public synchronized static ConnectionPool getInstance() {
+		if (null == instance) {
+			Properties properties = new Properties();
+			File propertiesFile = ConfigurationHelper.findConfigurationFile("ec2-service.properties");
+			if (null != propertiesFile) {
+				try {
+					FileInputStream is = new FileInputStream(propertiesFile);
+					try {
+						properties.load(is);
+					} finally {
+						is.close();
+					}
+				} catch (IOException e) {
+					logger.warn("Unable to read properties file: " + propertiesFile.getAbsolutePath(), e);
+				}
+			}
+			instance = new ConnectionPool(properties);
+		}
+		return instance;
+	}
+	
+	public ConnectionPool(Properties properties) {
+		String dbHost = properties.getProperty("dbHost");
+		if (null == dbHost || 0 == dbHost.trim().length()) dbHost = "localhost:3306";
+		url = "jdbc:mysql://" + dbHost.trim() + "/" + properties.getProperty("dbName");
+		
+		if (null != properties.getProperty("dbUser")) connectionProperties.setProperty("user", properties.getProperty("dbUser"));
+		if (null != properties.getProperty("dbPassword")) connectionProperties.setProperty("password", properties.getProperty("dbPassword"));
+		int statementCacheSize = ConfigurationHelper.getIntProperty(properties, "db.pool.statementCacheSize", DEFAULT_STATEMENT_CACHE_SIZE);
+		if (0 < statementCacheSize) {
+			connectionProperties.setProperty("cachePrepStmts", "true");
+			connectionProperties.setProperty("prepStmtCacheSize", String.valueOf(statementCacheSize));
+			connectionProperties.setProperty("prepStmtCacheSqlLimit", "2048");
+		}
+		
+		int max = ConfigurationHelper.getIntProperty(properties, "db.pool.maxSize", DEFAULT_MAX_SIZE);
+		maxSize = (0 < max ? max : DEFAULT_MAX_SIZE);
+		minSize = Math.max(0, Math.min(maxSize, ConfigurationHelper.getIntProperty(properties, "db.pool.minSize", DEFAULT_MIN_SIZE)));
+		maxWait = ConfigurationHelper.getLongProperty(properties, "db.pool.maxWait", DEFAULT_MAX_WAIT);
+		idleTimeout = ConfigurationHelper.getLongProperty(properties, "db.pool.idleTimeout", DEFAULT_IDLE_TIMEOUT);
+		validationQuery = properties.getProperty("db.pool.validationQuery", DEFAULT_VALIDATION_QUERY);
+		validationInterval = ConfigurationHelper.getLongProperty(properties, "db.pool.validationInterval", DEFAULT_VALIDATION_INTERVAL);
+		permits = new Semaphore(maxSize, true);
+		
+		try {
+			Class.forName("com.mysql.jdbc.Driver");
+		} catch (ClassNotFoundException e) {
+			logger.error("MySQL JDBC driver is not available", e);
+		}
+		
+		// -> failing to open the initial connections is not fatal, the database may come up later
+		try {
+			for(int i=0; i < minSize; i++) 
+				idle.add(new PooledConnection(openPhysical()));
+		} catch (SQLException e) {
+			logger.warn("Unable to open the initial pooled connections to " + url + ": " + e.getMessage());
+		}
+		
+		if (logger.isInfoEnabled())
+			logger.info("Connection pool for " + url + ": min size " + minSize + ", max size " + maxSize + ", max wait " + maxWait 
+				+ ", statement cache size " + statementCacheSize);
+	}
+	
+	@Override
+	public Connection getConnection() throws SQLException {
+		long start = System.currentTimeMillis();
+		boolean acquired = permits.tryAcquire();
+		if (!acquired) {
+			waitCount.incrementAndGet();
+			try {
+				acquired = permits.tryAcquire(maxWait, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SQLException("Interrupted while waiting for a pooled connection");
+			}
+			
+			long waited = System.currentTimeMillis() - start;
+			waitTimeMillis.addAndGet(waited);
+			long maxWaited;
+			while((maxWaited = maxWaitTimeMillis.get()) < waited && !maxWaitTimeMillis.compareAndSet(maxWaited, waited));
+			
+			if (!acquired) {
+				timeoutCount.incrementAndGet();
+				throw new SQLException("Timed out after " + waited + " ms waiting for one of " + maxSize + " pooled connections");
+			}
+		}
+		
+		try {
+			PooledConnection pooled = takeIdle();
+			if (null == pooled) pooled = new PooledConnection(openPhysical());
+			borrowCount.incrementAndGet();
+			return pooled.lease();
+		} catch (SQLException e) {
+			permits.release();
+			throw e;
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+	
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		throw new SQLFeatureNotSupportedException("Pooled connections all use the configured credentials");
+	}
+	
+	/**
+	 * @return the number of connections the calling thread has borrowed, from any pool, and not closed yet
+	 */
+	public static int getThreadLeaseCount() {
+		return threadLeases.get().get();
+	}
+	
+	public int getMinSize() {
+		return minSize;
+	}
+	
+	public int getMaxSize() {
+		return maxSize;
+	}
+	
+	public int getActiveCount() {
+		return maxSize - permits.availablePermits();
+	}
+	
+	public int getIdleCount() {
+		synchronized(idle) {
+			return idle.size();
+		}
+	}
+	
+	/**
+	 * @return the number of callers currently waiting for a connection
+	 */
+	public int getWaitingCount() {
+		return permits.getQueueLength();
+	}
+	
+	public long getBorrowCount() {
+		return borrowCount.get();
+	}
+	
+	/**
+	 * @return the number of times a caller had to wait since the pool was full
+	 */
+	public long getWaitCount() {
+		return waitCount.get();
+	}
+	
+	public long getWaitTimeMillis() {
+		return waitTimeMillis.get();
+	}
+	
+	public long getMaxWaitTimeMillis() {
+		return maxWaitTimeMillis.get();
+	}
+	
+	public long getTimeoutCount() {
+		return timeoutCount.get();
+	}
+	
+	public long getCreatedCount() {
+		return createdCount.get();
+	}
+	
+	public long getDiscardedCount() {
+		return discardedCount.get();
+	}
+	
+	@Override
+	public PrintWriter getLogWriter() throws SQLException {
+		return null;
+	}
+
+	@Override
+	public void setLogWriter(PrintWriter out) throws SQLException {
+	}
+
+	@Override
+	public synchronized int getLoginTimeout() throws SQLException {
+		return loginTimeout;
+	}
+
+	@Override
+	public synchronized void setLoginTimeout(int seconds) throws SQLException {
+		loginTimeout = seconds;
+	}
+	
+	public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this);
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if (iface.isInstance(this)) return iface.cast(this);
+		throw new SQLException("Not a wrapper for " + iface.getName());
+	}
+	
+	private Connection openPhysical() throws SQLException {
+		Connection conn = DriverManager.getConnection(url, connectionProperties);
+		createdCount.incrementAndGet();
+		return conn;
+	}
+	
+	/**
+	 * Idle connections are reused most recently used first, so the ones above the minimum size age 
+	 * and get closed once the load drops.
+	 */
+	private PooledConnection takeIdle() {
+		while(true) {
+			PooledConnection pooled;
+			synchronized(idle) {
+				pooled = idle.pollFirst();
+			}
+			if (null == pooled) return null;
+			if (pooled.validate()) return pooled;
+			discard(pooled);
+		}
+	}
+	
+	private void giveBack(PooledConnection pooled, boolean broken) {
+		try {
+			if (broken || !pooled.reset()) {
+				discard(pooled);
+				return;
+			}
+			
+			PooledConnection expired = null;
+			synchronized(idle) {
+				idle.addFirst(pooled);
+				if (idle.size() > minSize && System.currentTimeMillis() - idle.getLast().getLastUsed() > idleTimeout) 
+					expired = idle.removeLast();
+			}
+			if (null != expired) discard(expired);
+		} finally {
+			permits.release();
+		}
+	}
+	
+	private void discard(PooledConnection pooled) {
+		discardedCount.incrementAndGet();
+		try {
+			pooled.getPhysical().close();
+		} catch (SQLException e) {
+			logger.debug("Unable to close a discarded pooled connection: " + e.getMessage());
+		}
+	}
+	
+	private class PooledConnection {
+		private final Connection physical;
+		private long lastUsed = System.currentTimeMillis();
+		
+		public PooledConnection(Connection physical) {
+			this.physical = physical;
+		}
+		
+		public Connection getPhysical() {
+			return physical;
+		}
+		
+		public long getLastUsed() {
+			return lastUsed;
+		}
+		
+		public Connection lease() {
+			return (Connection)Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, new LeaseHandler(this));
+		}
+		
+		/**
+		 * Connections that have been idle for a while may have been dropped by the server
+		 */
+		public boolean validate() {
+			if (System.currentTimeMillis() - lastUsed < validationInterval) return true;
+			
+			try {
+				if (physical.isClosed()) return false;
+				if (null == validationQuery || 0 == validationQuery.length()) return true;
+				
+				Statement statement = physical.createStatement();
+				try {
+					statement.execute(validationQuery);
+				} finally {
+					statement.close();
+				}
+				return true;
+			} catch (SQLException e) {
+				logger.warn("Pooled connection failed validation: " + e.getMessage());
+				return false;
+			}
+		}
+		
+		/**
+		 * Work the caller did not commit is rolled back, the next caller starts in auto commit mode 
+		 */
+		public boolean reset() {
+			try {
+				if (physical.isClosed()) return false;
+				if (!physical.getAutoCommit()) {
+					physical.rollback();
+					physical.setAutoCommit(true);
+				}
+				physical.clearWarnings();
+				lastUsed = System.currentTimeMillis();
+				return true;
+			} catch (SQLException e) {
+				logger.warn("Unable to reset pooled connection: " + e.getMessage());
+				return false;
+			}
+		}
+	}
+	
+	/**
+	 * Stands for the connection from the moment it is borrowed until the caller closes it, a closed 
+	 * lease can not reach the physical connection any longer.   Closing a physical connection closes
+	 * its statements, so the statements of a lease are closed when it is returned instead.
+	 */
+	private class LeaseHandler implements InvocationHandler {
+		private PooledConnection pooled;
+		private boolean broken = false;
+		private final List<Statement> statements = new ArrayList<Statement>();
+		private final AtomicInteger leases;
+		
+		public LeaseHandler(PooledConnection pooled) {
+			this.pooled = pooled;
+			
+			// -> counted against the borrowing thread even if another thread closes the connection
+			leases = threadLeases.get();
+			leases.incrementAndGet();
+		}
+		
+		@Override
+		public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("close")) {
+				if (null != pooled) {
+					PooledConnection returned = pooled;
+					pooled = null;
+					leases.decrementAndGet();
+					closeStatements();
+					giveBack(returned, broken);
+				}
+				return null;
+			}
+			if (name.equals("isClosed") && null == args) 
+				return (null == pooled ? Boolean.TRUE : pooled.getPhysical().isClosed());
+			if (name.equals("equals") && null != args && 1 == args.length) 
+				return Boolean.valueOf(proxy == args[0]);
+			if (name.equals("hashCode") && null == args) 
+				return Integer.valueOf(System.identityHashCode(proxy));
+			if (null == pooled) 
+				throw new SQLException("Connection has been returned to the pool");
+			
+			try {
+				Object result = method.invoke(pooled.getPhysical(), args);
+				if (result instanceof Statement) statements.add((Statement)result);
+				return result;
+			} catch (InvocationTargetException e) {
+				Throwable cause = e.getTargetException();
+				
+				// -> SQL state class 08 is a connection failure, the connection is not reused
+				if (cause instanceof SQLException) {
+					String state = ((SQLException)cause).getSQLState();
+					if (null != state && state.startsWith("08")) broken = true;
+				}
+				throw cause;
+			}
+		}
+		
+		private void closeStatements() {
+			for(Statement statement : statements) {
+				try {
+					statement.close();
+				} catch (SQLException e) {
+					broken = true;
+				}
+			}
+			statements.clear();
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist;
+
+import java.util.Random;
+import java.util.UUID;
+
+import com.cloud.bridge.persist.dao.NamedLeaseDao;
+
+/**
+ * Named locks shared by several bridge instances through leases in the named_lease table.   No local 
+ * lock is held while the lease is polled for, so a thread waiting on the database never holds up the 
+ * threads of this instance that want other names.   A lease expires after its TTL even if its holder 
+ * died, so work done under a lock calls isHeld in its transaction right before the commit, which 
+ * extends the lease only if it still carries the lock's fencing token.
+ */
+public class LeaseNamedLockService extends NamedLockService {
+	private final static long MIN_RETRY_INTERVAL = 20;
+	private final static long MAX_RETRY_INTERVAL = 500;
+	
+	private final int ttlSeconds;
+	private final Random random = new Random();
+	
+	public LeaseNamedLockService(int ttlSeconds) {
+		this.ttlSeconds = ttlSeconds;
+	}
+	
+	@Override
+	protected NamedLock tryAcquire(String name, long timeoutMillis) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		String owner = UUID.randomUUID().toString();
+		try {
+			long interval = MIN_RETRY_INTERVAL;
+			while(true) {
+				long token = newLeaseDao().tryAcquire(name, owner, ttlSeconds);
+				if (0 < token) return new NamedLock(name, token, owner, null);
+				
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) return null;
+				
+				// -> back off with jitter so the instances waiting for the lease do not poll in step
+				Thread.sleep(Math.min(remaining, interval / 2 + nextRandom(interval / 2 + 1)));
+				interval = Math.min(MAX_RETRY_INTERVAL, interval * 2);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (Exception e) {
+			logger.error("Unable to acquire the lease of lock " + name + ": " + e.getMessage(), e);
+			return null;
+		}
+	}
+	
+	@Override
+	public void release(NamedLock lock) {
+		try {
+			newLeaseDao().release(lock.getName(), lock.getOwner(), lock.getToken());
+		} catch (Exception e) {
+			logger.error("Unable to release the lease of lock " + lock + ", it expires in " + ttlSeconds + " seconds: " + e.getMessage(), e);
+		}
+	}
+	
+	@Override
+	public boolean isHeld(NamedLock lock) {
+		try {
+			return newLeaseDao().fence(lock.getName(), lock.getOwner(), lock.getToken(), ttlSeconds);
+		} catch (Exception e) {
+			logger.error("Unable to check the lease of lock " + lock + ": " + e.getMessage(), e);
+			return false;
+		}
+	}
+	
+	/**
+	 * A Dao holds on to its connection between calls, so each call gets its own.
+	 */
+	protected NamedLeaseDao newLeaseDao() {
+		return new NamedLeaseDao();
+	}
+	
+	private synchronized long nextRandom(long bound) {
+		return (long)(random.nextDouble() * bound);
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.cache.access.SoftLock;
+
+/**
+ * The store behind an LruRegion, the least recently used entry is dropped once the region holds
+ * maxEntries entries and an entry is no longer returned once it is older than the TTL.   The TTL 
+ * bounds how long a change made by another bridge instance sharing the database can go unnoticed, 
+ * changes made through this instance's sessions are applied to the region by Hibernate itself.
+ * 
+ * A region with maxEntries and TTL of 0 is unbounded and never expires, that is what Hibernate's
+ * update timestamps need since the query cache takes a missing timestamp as "not modified".
+ * 
+ * The soft locks LruReadWriteAccess puts in place of an entry being updated are neither evicted 
+ * nor expired until their own timeout has passed, without the lock a transaction that read the old 
+ * state could put it back in the cache after the update committed.
+ */
+public class LruCache {
+	public final static long LOCK_TIMEOUT_MILLIS = 60000;
+	
+	private final String regionName;
+	private final int maxEntries;
+	private final long ttlMillis;
+	
+	private final LinkedHashMap<Object, CacheEntry> entries = new LinkedHashMap<Object, CacheEntry>(256, 0.75f, true);
+	
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	
+	public LruCache(String regionName, int maxEntries, long ttlMillis) {
+		this.regionName = regionName;
+		this.maxEntries = maxEntries;
+		this.ttlMillis = ttlMillis;
+	}
+	
+	public Object get(Object key) {
+		CacheEntry entry;
+		synchronized(this) {
+			entry = entries.get(key);
+			if (null != entry && 0 < ttlMillis && System.currentTimeMillis() - entry.getPutTime() >= ttlMillis && !isPinned(entry)) {
+				entries.remove(key);
+				entry = null;
+			}
+		}
+		
+		if (null == entry) {
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+		return entry.getValue();
+	}
+	
+	public void put(Object key, Object value) {
+		CacheEntry entry = new CacheEntry(value, System.currentTimeMillis());
+		synchronized(this) {
+			entries.put(key, entry);
+			if (0 < maxEntries) {
+				Iterator<CacheEntry> it = entries.values().iterator();
+				while(entries.size() > maxEntries && it.hasNext()) {
+					if (!isPinned(it.next())) it.remove();
+				}
+			}
+		}
+	}
+	
+	public synchronized void remove(Object key) {
+		entries.remove(key);
+	}
+	
+	public synchronized void clear() {
+		entries.clear();
+	}
+	
+	/**
+	 * A soft lock older than the lock timeout is one the read-write strategy itself no longer honours.
+	 */
+	private static boolean isPinned(CacheEntry entry) {
+		return entry.getValue() instanceof SoftLock && System.currentTimeMillis() - entry.getPutTime() < LOCK_TIMEOUT_MILLIS;
+	}
+	
+	public String getRegionName() {
+		return regionName;
+	}
+	
+	public synchronized long getElementCountInMemory() {
+		return entries.size();
+	}
+	
+	@SuppressWarnings("rawtypes")
+	public Map toMap() {
+		Map<Object, Object> copy = new HashMap<Object, Object>();
+		synchronized(this) {
+			for(Map.Entry<Object, CacheEntry> entry : entries.entrySet())
+				copy.put(entry.getKey(), entry.getValue().getValue());
+		}
+		return copy;
+	}
+	
+	public long getHits() {
+		return hits.get();
+	}
+	
+	public long getMisses() {
+		return misses.get();
+	}
+	
+	public String toString() {
+		return "LruCache(" + regionName + ")";
+	}
+	
+	private static class CacheEntry {
+		private final Object value;
+		private final long putTime;
+		
+		public CacheEntry(Object value, long putTime) {
+			this.value = value;
+			this.putTime = putTime;
+		}
+		
+		public Object getValue() {
+			return value;
+		}
+		
+		public long getPutTime() {
+			return putTime;
+		}
+	}
+}
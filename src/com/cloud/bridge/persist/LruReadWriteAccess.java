@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist;
+
+import java.util.Comparator;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.CollectionRegion;
+import org.hibernate.cache.EntityRegion;
+import org.hibernate.cache.access.CollectionRegionAccessStrategy;
+import org.hibernate.cache.access.EntityRegionAccessStrategy;
+import org.hibernate.cache.access.SoftLock;
+
+/**
+ * The read-write access strategy of the LRU regions.   An entry being updated or deleted is replaced 
+ * by a soft lock until the transaction has completed, and an entry is only readable by a session 
+ * opened after it was put, so a transaction that read the old state can put it back neither while 
+ * the update is in progress nor after it has committed.   A lock whose transaction never completes 
+ * gives way once the region's timeout has passed.
+ */
+public abstract class LruReadWriteAccess {
+	private final LruRegion.Transactional region;
+	private final LruCache cache;
+	private final Comparator<?> versionComparator;
+	
+	protected LruReadWriteAccess(LruRegion.Transactional region, LruCache cache) {
+		this.region = region;
+		this.cache = cache;
+		this.versionComparator = region.getCacheDataDescription().getVersionComparator();
+	}
+	
+	public Object get(Object key, long txTimestamp) throws CacheException {
+		Object entry = cache.get(key);
+		if (entry instanceof Item && ((Item)entry).isReadable(txTimestamp))
+			return ((Item)entry).getValue();
+		return null;
+	}
+	
+	public boolean putFromLoad(Object key, Object value, long txTimestamp, Object version) throws CacheException {
+		synchronized(cache) {
+			Object entry = cache.get(key);
+			if (null != entry && !isWriteable(entry, txTimestamp, version))
+				return false;
+			
+			cache.put(key, new Item(value, version, region.nextTimestamp()));
+			return true;
+		}
+	}
+	
+	public boolean putFromLoad(Object key, Object value, long txTimestamp, Object version, boolean minimalPutOverride) throws CacheException {
+		if (minimalPutOverride && null != cache.get(key))
+			return false;
+		return putFromLoad(key, value, txTimestamp, version);
+	}
+	
+	public SoftLock lockItem(Object key, Object version) throws CacheException {
+		synchronized(cache) {
+			Object entry = cache.get(key);
+			long timeout = region.nextTimestamp() + region.getTimeout();
+			Lock lock = (entry instanceof Lock ? ((Lock)entry).lock(timeout) : new Lock(timeout, version));
+			cache.put(key, lock);
+			return lock;
+		}
+	}
+	
+	public void unlockItem(Object key, SoftLock softLock) throws CacheException {
+		synchronized(cache) {
+			Object entry = cache.get(key);
+			if (null != entry && entry == softLock)
+				release(key, (Lock)entry);
+			else expireLock(key);
+		}
+	}
+	
+	public boolean afterInsert(Object key, Object value, Object version) throws CacheException {
+		synchronized(cache) {
+			if (null != cache.get(key))
+				return false;
+			
+			cache.put(key, new Item(value, version, region.nextTimestamp()));
+			return true;
+		}
+	}
+	
+	public boolean afterUpdate(Object key, Object value, Object currentVersion, Object previousVersion, SoftLock softLock) throws CacheException {
+		synchronized(cache) {
+			Object entry = cache.get(key);
+			if (null == entry || entry != softLock) {
+				expireLock(key);
+				return false;
+			}
+			
+			// -> another transaction has changed the entry meanwhile, which of the two states is the last is unknown
+			Lock lock = (Lock)entry;
+			if (lock.isConcurrent()) {
+				release(key, lock);
+				return false;
+			}
+			
+			cache.put(key, new Item(value, currentVersion, region.nextTimestamp()));
+			return true;
+		}
+	}
+	
+	public boolean insert(Object key, Object value, Object version) throws CacheException {
+		return false;
+	}
+	
+	public boolean update(Object key, Object value, Object currentVersion, Object previousVersion) throws CacheException {
+		return false;
+	}
+	
+	public void remove(Object key) throws CacheException {
+		// -> the entry is locked by now and is dropped once the lock has been released
+	}
+	
+	public void removeAll() throws CacheException {
+	}
+	
+	public void evict(Object key) throws CacheException {
+		cache.remove(key);
+	}
+	
+	public void evictAll() throws CacheException {
+		cache.clear();
+	}
+	
+	public SoftLock lockRegion() throws CacheException {
+		return null;
+	}
+	
+	public void unlockRegion(SoftLock lock) throws CacheException {
+		cache.clear();
+	}
+	
+	private boolean isWriteable(Object entry, long txTimestamp, Object version) {
+		if (entry instanceof Lock)
+			return ((Lock)entry).isWriteable(txTimestamp, version);
+		return ((Item)entry).isWriteable(version);
+	}
+	
+	private void release(Object key, Lock lock) {
+		lock.unlock(region.nextTimestamp());
+		cache.put(key, lock);
+	}
+	
+	/**
+	 * The lock has timed out or was dropped, the released lock put in its place keeps out whatever 
+	 * was loaded before now.
+	 */
+	private void expireLock(Object key) {
+		long timestamp = region.nextTimestamp() + region.getTimeout();
+		Lock lock = new Lock(timestamp, null);
+		lock.unlock(timestamp);
+		cache.put(key, lock);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private int compareVersions(Object version, Object newVersion) {
+		return ((Comparator<Object>)versionComparator).compare(version, newVersion);
+	}
+	
+	private boolean isNewer(Object version, Object newVersion) {
+		return null != versionComparator && null != version && null != newVersion && compareVersions(version, newVersion) < 0;
+	}
+	
+	private class Item {
+		private final Object value;
+		private final Object version;
+		private final long timestamp;
+		
+		public Item(Object value, Object version, long timestamp) {
+			this.value = value;
+			this.version = version;
+			this.timestamp = timestamp;
+		}
+		
+		public Object getValue() {
+			return value;
+		}
+		
+		public boolean isReadable(long txTimestamp) {
+			return txTimestamp > timestamp;
+		}
+		
+		public boolean isWriteable(Object newVersion) {
+			return isNewer(version, newVersion);
+		}
+	}
+	
+	private class Lock implements SoftLock {
+		private final Object version;
+		private long timeout;
+		private long unlockTimestamp;
+		private int multiplicity = 1;
+		private boolean concurrent;
+		
+		public Lock(long timeout, Object version) {
+			this.timeout = timeout;
+			this.version = version;
+		}
+		
+		public Lock lock(long timeout) {
+			this.timeout = timeout;
+			this.concurrent = true;
+			multiplicity++;
+			return this;
+		}
+		
+		public void unlock(long timestamp) {
+			if (0 == --multiplicity)
+				unlockTimestamp = timestamp;
+		}
+		
+		public boolean isConcurrent() {
+			return concurrent;
+		}
+		
+		public boolean isWriteable(long txTimestamp, Object newVersion) {
+			if (txTimestamp > timeout)
+				return true;
+			if (0 < multiplicity)
+				return false;
+			return (null == version ? txTimestamp > unlockTimestamp : isNewer(version, newVersion));
+		}
+	}
+	
+	static class EntityAccess extends LruReadWriteAccess implements EntityRegionAccessStrategy {
+		private final LruRegion.Entity region;
+		
+		public EntityAccess(LruRegion.Entity region, LruCache cache) {
+			super(region, cache);
+			this.region = region;
+		}
+		
+		public EntityRegion getRegion() {
+			return region;
+		}
+	}
+	
+	static class CollectionAccess extends LruReadWriteAccess implements CollectionRegionAccessStrategy {
+		private final LruRegion.Collection region;
+		
+		public CollectionAccess(LruRegion.Collection region, LruCache cache) {
+			super(region, cache);
+			this.region = region;
+		}
+		
+		public CollectionRegion getRegion() {
+			return region;
+		}
+	}
+}
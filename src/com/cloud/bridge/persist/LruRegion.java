@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist;
+
+import java.util.Map;
+
+import org.hibernate.cache.CacheDataDescription;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.CollectionRegion;
+import org.hibernate.cache.EntityRegion;
+import org.hibernate.cache.QueryResultsRegion;
+import org.hibernate.cache.Region;
+import org.hibernate.cache.Timestamper;
+import org.hibernate.cache.TimestampsRegion;
+import org.hibernate.cache.TransactionalDataRegion;
+import org.hibernate.cache.access.AccessType;
+import org.hibernate.cache.access.CollectionRegionAccessStrategy;
+import org.hibernate.cache.access.EntityRegionAccessStrategy;
+
+/**
+ * A second-level cache region kept in an LruCache, built by LruRegionFactory.   Query results and
+ * update timestamps go in a GeneralData region, entities and collections in a region whose access 
+ * strategy is an LruReadWriteAccess.
+ */
+public abstract class LruRegion implements Region {
+	protected final LruCache cache;
+	
+	protected LruRegion(LruCache cache) {
+		this.cache = cache;
+	}
+	
+	public String getName() {
+		return cache.getRegionName();
+	}
+	
+	public void destroy() throws CacheException {
+		cache.clear();
+	}
+	
+	public boolean contains(Object key) {
+		return null != cache.get(key);
+	}
+	
+	public long getSizeInMemory() {
+		return -1;
+	}
+	
+	public long getElementCountInMemory() {
+		return cache.getElementCountInMemory();
+	}
+	
+	public long getElementCountOnDisk() {
+		return 0;
+	}
+	
+	@SuppressWarnings("rawtypes")
+	public Map toMap() {
+		return cache.toMap();
+	}
+	
+	public long nextTimestamp() {
+		return Timestamper.next();
+	}
+	
+	public int getTimeout() {
+		return Timestamper.ONE_MS * (int)LruCache.LOCK_TIMEOUT_MILLIS;
+	}
+	
+	public String toString() {
+		return "LruRegion(" + cache.getRegionName() + ")";
+	}
+	
+	public static class GeneralData extends LruRegion implements QueryResultsRegion, TimestampsRegion {
+		public GeneralData(LruCache cache) {
+			super(cache);
+		}
+		
+		public Object get(Object key) throws CacheException {
+			return cache.get(key);
+		}
+		
+		public void put(Object key, Object value) throws CacheException {
+			cache.put(key, value);
+		}
+		
+		public void evict(Object key) throws CacheException {
+			cache.remove(key);
+		}
+		
+		public void evictAll() throws CacheException {
+			cache.clear();
+		}
+	}
+	
+	public static abstract class Transactional extends LruRegion implements TransactionalDataRegion {
+		private final CacheDataDescription metadata;
+		
+		protected Transactional(LruCache cache, CacheDataDescription metadata) {
+			super(cache);
+			this.metadata = metadata;
+		}
+		
+		public boolean isTransactionAware() {
+			return false;
+		}
+		
+		public CacheDataDescription getCacheDataDescription() {
+			return metadata;
+		}
+		
+		/**
+		 * Within a single JVM read-write gives what read-only and nonstrict-read-write promise as well.
+		 */
+		protected void checkAccessType(AccessType accessType) {
+			if (AccessType.TRANSACTIONAL.equals(accessType))
+				throw new CacheException("Transactional access is not supported by " + this);
+		}
+	}
+	
+	public static class Entity extends Transactional implements EntityRegion {
+		public Entity(LruCache cache, CacheDataDescription metadata) {
+			super(cache, metadata);
+		}
+		
+		public EntityRegionAccessStrategy buildAccessStrategy(AccessType accessType) throws CacheException {
+			checkAccessType(accessType);
+			return new LruReadWriteAccess.EntityAccess(this, cache);
+		}
+	}
+	
+	public static class Collection extends Transactional implements CollectionRegion {
+		public Collection(LruCache cache, CacheDataDescription metadata) {
+			super(cache, metadata);
+		}
+		
+		public CollectionRegionAccessStrategy buildAccessStrategy(AccessType accessType) throws CacheException {
+			checkAccessType(accessType);
+			return new LruReadWriteAccess.CollectionAccess(this, cache);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist;
+
+import java.util.Properties;
+
+import org.apache.log4j.Logger;
+import org.hibernate.cache.CacheDataDescription;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.CollectionRegion;
+import org.hibernate.cache.EntityRegion;
+import org.hibernate.cache.QueryResultsRegion;
+import org.hibernate.cache.RegionFactory;
+import org.hibernate.cache.Timestamper;
+import org.hibernate.cache.TimestampsRegion;
+import org.hibernate.cache.UpdateTimestampsCache;
+import org.hibernate.cache.access.AccessType;
+import org.hibernate.cfg.Settings;
+
+import com.cloud.bridge.util.ConfigurationHelper;
+
+/**
+ * Second-level cache region factory building LruCache regions, so that no external cache service is
+ * needed.   Settings in hibernate.cfg.xml, each can be overridden per region by appending the
+ * region name (e.g., hibernate.cache.lru.max_entries.com.cloud.bridge.model.SBucket):
+ *   hibernate.cache.lru.max_entries - most entries kept in a region
+ *   hibernate.cache.lru.ttl         - seconds an entry is used before it is read from the database again
+ */
+public class LruRegionFactory implements RegionFactory {
+	protected final static Logger logger = Logger.getLogger(LruRegionFactory.class);
+	
+	public final static String MAX_ENTRIES_PROPERTY = "hibernate.cache.lru.max_entries";
+	public final static String TTL_PROPERTY = "hibernate.cache.lru.ttl";
+	
+	public final static int DEFAULT_MAX_ENTRIES = 10000;
+	public final static int DEFAULT_TTL_SECONDS = 60;
+	
+	/**
+	 * Hibernate builds its region factory with the configuration properties, the ones a region
+	 * is built with are used instead.
+	 */
+	public LruRegionFactory(Properties properties) {
+	}
+	
+	public EntityRegion buildEntityRegion(String regionName, Properties properties, CacheDataDescription metadata) throws CacheException {
+		return new LruRegion.Entity(buildCache(regionName, properties), metadata);
+	}
+	
+	public CollectionRegion buildCollectionRegion(String regionName, Properties properties, CacheDataDescription metadata) throws CacheException {
+		return new LruRegion.Collection(buildCache(regionName, properties), metadata);
+	}
+	
+	public QueryResultsRegion buildQueryResultsRegion(String regionName, Properties properties) throws CacheException {
+		return new LruRegion.GeneralData(buildCache(regionName, properties));
+	}
+	
+	public TimestampsRegion buildTimestampsRegion(String regionName, Properties properties) throws CacheException {
+		return new LruRegion.GeneralData(buildCache(regionName, properties));
+	}
+	
+	private LruCache buildCache(String regionName, Properties properties) {
+		// -> losing an update timestamp could let the query cache return stale results
+		if (UpdateTimestampsCache.REGION_NAME.equals(regionName))
+			return new LruCache(regionName, 0, 0);
+		
+		int maxEntries = ConfigurationHelper.getIntProperty(properties, MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES);
+		int ttl = ConfigurationHelper.getIntProperty(properties, TTL_PROPERTY, DEFAULT_TTL_SECONDS);
+		maxEntries = ConfigurationHelper.getIntProperty(properties, MAX_ENTRIES_PROPERTY + "." + regionName, maxEntries);
+		ttl = ConfigurationHelper.getIntProperty(properties, TTL_PROPERTY + "." + regionName, ttl);
+		
+		if (logger.isInfoEnabled())
+			logger.info("Cache region " + regionName + ": max entries " + maxEntries + ", ttl " + ttl + " seconds");
+		return new LruCache(regionName, maxEntries, ttl * 1000L);
+	}
+	
+	/**
+	 * Every mapping is cached read-write, see LruReadWriteAccess.
+	 */
+	public AccessType getDefaultAccessType() {
+		return AccessType.READ_WRITE;
+	}
+	
+	public long nextTimestamp() {
+		return Timestamper.next();
+	}
+	
+	public void start(Settings settings, Properties properties) throws CacheException {
+	}
+	
+	public void stop() {
+	}
+	
+	public boolean isMinimalPutsEnabledByDefault() {
+		return false;
+	}
+}
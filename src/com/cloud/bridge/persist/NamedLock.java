@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist;
+
+/**
+ * A named lock held by the thread that acquired it.   The fencing token grows with every grant of
+ * the same name, so work started under an older grant can be told apart from work of the current holder.
+ */
+public class NamedLock {
+	private final String name;
+	private final long token;
+	private final String owner;
+	private final Object handle;
+	
+	public NamedLock(String name, long token, String owner, Object handle) {
+		this.name = name;
+		this.token = token;
+		this.owner = owner;
+		this.handle = handle;
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public long getToken() {
+		return token;
+	}
+	
+	/**
+	 * @return who holds the lock, unique for every grant
+	 */
+	public String getOwner() {
+		return owner;
+	}
+	
+	/**
+	 * @return what the lock service needs to release the lock
+	 */
+	public Object getHandle() {
+		return handle;
+	}
+	
+	@Override
+	public String toString() {
+		return name + "#" + token;
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist;
+
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.cloud.bridge.util.ConfigurationHelper;
+
+/**
+ * Replaces the MySQL GET_LOCK based named locks of PersistContext, which take a new database connection
+ * per lock and serialize every caller of the same name across the cluster.   Two implementations are
+ * available, chosen by the lock.service property of cloud-bridge.properties:
+ * 
+ *   local - in-JVM locks, enough when a single bridge instance serves the database
+ *   lease - locks backed by a row of the named_lease table with a TTL (lock.lease.ttl seconds), for 
+ *           several bridge instances sharing the database
+ * 
+ * Every acquire is metered: how many had to wait, how long they waited and how many timed out.
+ */
+public abstract class NamedLockService {
+	protected final static Logger logger = Logger.getLogger(NamedLockService.class);
+	
+	public final static String LOCK_SERVICE_LOCAL = "local";
+	public final static String LOCK_SERVICE_LEASE = "lease";
+	public final static int DEFAULT_STRIPES = 64;
+	public final static int DEFAULT_LEASE_TTL_SECONDS = 30;
+	
+	private final AtomicLong acquireCount = new AtomicLong();
+	private final AtomicLong contendedCount = new AtomicLong();
+	private final AtomicLong timeoutCount = new AtomicLong();
+	private final AtomicLong waitTimeMillis = new AtomicLong();
+	private final AtomicLong maxWaitTimeMillis = new AtomicLong();
+	
+	public static NamedLockService create(Properties properties) {
+		String type = (null == properties ? null : properties.getProperty("lock.service"));
+		if (null != type && type.trim().equalsIgnoreCase(LOCK_SERVICE_LEASE)) {
+			int ttl = ConfigurationHelper.getIntProperty(properties, "lock.lease.ttl", DEFAULT_LEASE_TTL_SECONDS);
+			if (ttl <= 0) ttl = DEFAULT_LEASE_TTL_SECONDS;
+			
+			if (logger.isInfoEnabled())
+				logger.info("Named locks: database leases with a TTL of " + ttl + " seconds");
+			return new LeaseNamedLockService(ttl);
+		}
+		
+		int stripes = ConfigurationHelper.getIntProperty(properties, "lock.stripes", DEFAULT_STRIPES);
+		if (stripes <= 0) stripes = DEFAULT_STRIPES;
+		if (logger.isInfoEnabled())
+			logger.info("Named locks: " + stripes + " local lock stripes");
+		return new StripedNamedLockService(stripes);
+	}
+	
+	/**
+	 * Locks must be released by the thread that acquired them.
+	 * 
+	 * @return the lock, null if it could not be acquired in time
+	 */
+	public NamedLock acquire(String name, int timeoutSeconds) {
+		long start = System.currentTimeMillis();
+		NamedLock lock = tryAcquire(name, 0);
+		if (null == lock) {
+			contendedCount.incrementAndGet();
+			long timeout = timeoutSeconds * 1000L;
+			lock = tryAcquire(name, Math.max(0, timeout - (System.currentTimeMillis() - start)));
+			
+			long waited = System.currentTimeMillis() - start;
+			waitTimeMillis.addAndGet(waited);
+			long maxWaited;
+			while((maxWaited = maxWaitTimeMillis.get()) < waited && !maxWaitTimeMillis.compareAndSet(maxWaited, waited));
+			
+			if (null == lock) {
+				timeoutCount.incrementAndGet();
+				logger.error("Timed out after " + waited + " ms waiting for lock " + name);
+				return null;
+			}
+		}
+		acquireCount.incrementAndGet();
+		return lock;
+	}
+	
+	public abstract void release(NamedLock lock);
+	
+	/**
+	 * Called in the transaction of the work done under the lock right before it is committed, a lease 
+	 * that expired in the meantime may already have been granted to someone else.   The lease service
+	 * checks the lock's fencing token with the same statement that keeps the lease until the commit.
+	 */
+	public boolean isHeld(NamedLock lock) {
+		return true;
+	}
+	
+	/**
+	 * @param timeoutMillis - 0 to only try once
+	 */
+	protected abstract NamedLock tryAcquire(String name, long timeoutMillis);
+	
+	public long getAcquireCount() {
+		return acquireCount.get();
+	}
+	
+	/**
+	 * @return the number of acquires that found the lock held
+	 */
+	public long getContendedCount() {
+		return contendedCount.get();
+	}
+	
+	public long getTimeoutCount() {
+		return timeoutCount.get();
+	}
+	
+	public long getWaitTimeMillis() {
+		return waitTimeMillis.get();
+	}
+	
+	public long getMaxWaitTimeMillis() {
+		return maxWaitTimeMillis.get();
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-JVM named locks.   Names are hashed onto a fixed set of locks, so callers only wait for each
+ * other when their names share a stripe instead of all waiting on one global lock.
+ */
+public class StripedNamedLockService extends NamedLockService {
+	private final ReentrantLock[] stripes;
+	private final AtomicLong tokens = new AtomicLong();
+	
+	public StripedNamedLockService(int stripeCount) {
+		stripes = new ReentrantLock[stripeCount];
+		for(int i=0; i < stripeCount; i++)
+			stripes[i] = new ReentrantLock();
+	}
+	
+	@Override
+	protected NamedLock tryAcquire(String name, long timeoutMillis) {
+		ReentrantLock stripe = getStripe(name);
+		try {
+			if (!stripe.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		return new NamedLock(name, tokens.incrementAndGet(), UUID.randomUUID().toString(), stripe);
+	}
+	
+	@Override
+	public void release(NamedLock lock) {
+		((ReentrantLock)lock.getHandle()).unlock();
+	}
+	
+	private ReentrantLock getStripe(String name) {
+		int hash = name.hashCode();
+		hash ^= (hash >>> 16);
+		return stripes[(hash & 0x7fffffff) % stripes.length];
+	}
+}
@@ -15,62 +15,53 @@
  */
 package com.cloud.bridge.persist.dao;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Properties;
 
 import org.apache.log4j.Logger;
 
-import com.cloud.bridge.util.ConfigurationHelper;
+import com.cloud.bridge.persist.ConnectionPool;
+import com.cloud.bridge.util.Tuple;
 
 public class BucketPolicyDao {
 	public static final Logger logger = Logger.getLogger(BucketPolicyDao.class);
 
 	private Connection conn       = null;
-	private String     dbName     = null;
-	private String     dbUser     = null;
-	private String     dbPassword = null;
 	
-	public BucketPolicyDao() 
-	{
-	    File propertiesFile = ConfigurationHelper.findConfigurationFile("ec2-service.properties");
-	    Properties EC2Prop = null;
-	       
-	    if (null != propertiesFile) {
-	   	    EC2Prop = new Properties();
-	    	try {
-				EC2Prop.load( new FileInputStream( propertiesFile ));
-			} catch (FileNotFoundException e) {
-				logger.warn("Unable to open properties file: " + propertiesFile.getAbsolutePath(), e);
-			} catch (IOException e) {
-				logger.warn("Unable to read properties file: " + propertiesFile.getAbsolutePath(), e);
-			}
-		    dbName     = EC2Prop.getProperty( "dbName" );
-		    dbUser     = EC2Prop.getProperty( "dbUser" );
-		    dbPassword = EC2Prop.getProperty( "dbPassword" );
-		}
-	}
-
-	public void addPolicy( String bucketName, String owner, String policy ) 
+	/**
+	 * Every write of a policy stores a new version, so that a bridge instance sharing the database 
+	 * can tell that the policy it has cached has been replaced.   The version is incremented by the
+	 * database in the statement replacing the policy, so it does not depend on the clocks of the 
+	 * instances and no two writes can store the same version.
+	 * 
+	 * @return the version written
+	 */
+	public long addPolicy( String bucketName, String owner, String policy ) 
         throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException
     {
         PreparedStatement statement = null;
 
         openConnection();	
         try {            
-            statement = conn.prepareStatement ( "INSERT INTO bucket_policies (BucketName, OwnerCanonicalID, Policy) VALUES (?,?,?)" );
+        	// -> the row stays locked until the commit, so the version read back is the one written here
+        	conn.setAutoCommit( false );
+            statement = conn.prepareStatement ( "INSERT INTO bucket_policies (BucketName, OwnerCanonicalID, Policy, Version) VALUES (?,?,?,1) " +
+            		                            "ON DUPLICATE KEY UPDATE OwnerCanonicalID=VALUES(OwnerCanonicalID), Policy=VALUES(Policy), Version=Version+1" );
             statement.setString( 1, bucketName );
             statement.setString( 2, owner  );
             statement.setString( 3, policy );
-            int count = statement.executeUpdate();
+            statement.executeUpdate();
             statement.close();	
+            
+            statement = conn.prepareStatement ( "SELECT Version FROM bucket_policies WHERE BucketName=?" );
+            statement.setString( 1, bucketName );
+            ResultSet rs = statement.executeQuery();
+            long version = (rs.next() ? rs.getLong( "Version" ) : 0);
+            statement.close();
+            conn.commit();
+            return version;
 
         } finally {
             closeConnection();
@@ -89,7 +80,7 @@ public class BucketPolicyDao {
 
         openConnection();	
         try {            
-            statement = conn.prepareStatement ( "SELECT OwnerCanonicalID FROM bucket_policies WHERE BucketName=?" );
+            statement = conn.prepareStatement ( "SELECT OwnerCanonicalID FROM bucket_policies WHERE BucketName=? AND Policy <> ''" );
             statement.setString( 1, bucketName );
             ResultSet rs = statement.executeQuery();
 	        if (rs.next()) owner = rs.getString( "OwnerCanonicalID" );
@@ -109,7 +100,7 @@ public class BucketPolicyDao {
 	
         openConnection();	
         try {            
-	        statement = conn.prepareStatement ( "SELECT Policy FROM bucket_policies WHERE BucketName=?" );
+	        statement = conn.prepareStatement ( "SELECT Policy FROM bucket_policies WHERE BucketName=? AND Policy <> ''" );
             statement.setString( 1, bucketName );
             ResultSet rs = statement.executeQuery();
 	        if (rs.next()) policy = rs.getString( "Policy" );
@@ -121,6 +112,58 @@ public class BucketPolicyDao {
         }
     }
 
+	/**
+	 * @return the policy and its version, null if no policy is defined for the bucket
+	 */
+	public Tuple<String,Long> getPolicyAndVersion( String bucketName ) 
+        throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException
+    {
+        PreparedStatement statement = null;
+        Tuple<String,Long> policy = null;
+	
+        openConnection();	
+        try {            
+	        statement = conn.prepareStatement ( "SELECT Policy, Version FROM bucket_policies WHERE BucketName=? AND Policy <> ''" );
+            statement.setString( 1, bucketName );
+            ResultSet rs = statement.executeQuery();
+	        if (rs.next()) policy = new Tuple<String,Long>( rs.getString( "Policy" ), rs.getLong( "Version" ));
+            statement.close();	
+            return policy;
+    
+        } finally {
+            closeConnection();
+        }
+    }
+
+	/**
+	 * A cheap check of whether a cached policy is still current.
+	 * 
+	 * @return the version of the bucket's policy, null if no policy is defined for the bucket
+	 */
+	public Long getPolicyVersion( String bucketName ) 
+        throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException
+    {
+        PreparedStatement statement = null;
+        Long version = null;
+	
+        openConnection();	
+        try {            
+	        statement = conn.prepareStatement ( "SELECT Version FROM bucket_policies WHERE BucketName=? AND Policy <> ''" );
+            statement.setString( 1, bucketName );
+            ResultSet rs = statement.executeQuery();
+	        if (rs.next()) version = rs.getLong( "Version" );
+            statement.close();	
+            return version;
+    
+        } finally {
+            closeConnection();
+        }
+    }
+
+	/**
+	 * The row is kept with an empty policy and a new version rather than deleted, so that a policy 
+	 * defined again later never gets a version some instance may still have cached.
+	 */
 	public void deletePolicy( String bucketName )
         throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException
     {
@@ -128,7 +171,7 @@ public class BucketPolicyDao {
 	
         openConnection();	
         try {
-	        statement = conn.prepareStatement ( "DELETE FROM bucket_policies WHERE BucketName=?" );
+	        statement = conn.prepareStatement ( "UPDATE bucket_policies SET Policy='', Version=Version+1 WHERE BucketName=? AND Policy <> ''" );
             statement.setString( 1, bucketName );
             int count = statement.executeUpdate();
             statement.close();	
@@ -142,8 +185,7 @@ public class BucketPolicyDao {
         throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException 
     {
         if (null == conn) {
-            Class.forName( "com.mysql.jdbc.Driver" ).newInstance();
-            conn = DriverManager.getConnection( "jdbc:mysql://localhost:3306/"+dbName, dbUser, dbPassword );
+            conn = ConnectionPool.getInstance().getConnection();
         }
     }
 
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2011 Cloud.com, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import org.apache.log4j.Logger;
+
+import com.cloud.bridge.persist.ConnectionPool;
+import com.cloud.bridge.util.DateHelper;
+
+/**
+ * Reference counts of the content blobs kept by the content addressed bucket adapter.   Each 
+ * instance runs one transaction, the row of a blob stays locked from addReference/releaseReference
+ * until commit so the caller can create or remove the blob file without racing another request 
+ * for the same content.
+ */
+public class ContentBlobDao {
+	public static final Logger logger = Logger.getLogger(ContentBlobDao.class);
+
+	private Connection conn       = null;
+	
+	/**
+	 * Count one more object referring to the content, the row is created when the content is first stored.
+	 * 
+	 * @param storageRoot - mount point holding the blob
+	 * @param digest - SHA-256 of the content
+	 * @return the number of references after this one was added
+	 * @throws SQLException, ClassNotFoundException, IllegalAccessException, InstantiationException 
+	 */
+	public int addReference( String storageRoot, String digest, String md5, long size )
+	    throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException
+	{
+	    PreparedStatement statement = null;
+	    
+	    openConnection();
+	    statement = conn.prepareStatement ( "INSERT INTO content_blob (StorageRoot, Digest, MD5, StoredSize, RefCount, CreateTime) VALUES (?,?,?,?,1,?) " +
+	    		                            "ON DUPLICATE KEY UPDATE RefCount=RefCount+1" );
+	    statement.setString( 1, storageRoot );
+	    statement.setString( 2, digest );
+	    statement.setString( 3, md5 );
+	    statement.setLong( 4, size );
+	    statement.setTimestamp( 5, new Timestamp( DateHelper.currentGMTTime().getTime()));
+	    statement.executeUpdate();
+	    statement.close();
+	    
+	    return getRefCount( storageRoot, digest );
+	}
+	
+	/**
+	 * When the last reference is released the row is removed, the caller is expected to delete the blob
+	 * before committing.
+	 * 
+	 * @return the number of references left, -1 if the content is not known
+	 * @throws SQLException, ClassNotFoundException, IllegalAccessException, InstantiationException 
+	 */
+	public int releaseReference( String storageRoot, String digest )
+	    throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException
+	{
+	    PreparedStatement statement = null;
+	    
+	    openConnection();
+	    int refCount = getRefCount( storageRoot, digest );
+	    if (refCount < 0) return -1;
+	    
+	    if (refCount <= 1) {
+	        statement = conn.prepareStatement ( "DELETE FROM content_blob WHERE StorageRoot=? AND Digest=?" );
+	        refCount = 0;
+	    }
+	    else {
+	        statement = conn.prepareStatement ( "UPDATE content_blob SET RefCount=RefCount-1 WHERE StorageRoot=? AND Digest=?" );
+	        refCount--;
+	    }
+	    statement.setString( 1, storageRoot );
+	    statement.setString( 2, digest );
+	    statement.executeUpdate();
+	    statement.close();
+	    return refCount;
+	}
+	
+	public void commit() throws SQLException 
+	{
+		try {
+			if (null != conn) conn.commit();
+		} finally {
+			closeConnection();
+		}
+	}
+	
+	public void rollback() 
+	{
+		try {
+			if (null != conn) conn.rollback();
+		} catch(SQLException e) {
+			logger.error("Unable to roll back content reference update " + e.getMessage(), e);
+		}
+		
+		try {
+			closeConnection();
+		} catch(SQLException e) {
+			logger.error("Unable to close connection " + e.getMessage(), e);
+		}
+	}
+	
+	private int getRefCount( String storageRoot, String digest ) throws SQLException 
+	{
+	    PreparedStatement statement = conn.prepareStatement ( "SELECT RefCount FROM content_blob WHERE StorageRoot=? AND Digest=? FOR UPDATE" );
+	    try {
+		    statement.setString( 1, storageRoot );
+		    statement.setString( 2, digest );
+		    ResultSet rs = statement.executeQuery();
+		    if (rs.next()) return rs.getInt( "RefCount" );
+		    return -1;
+	    } finally {
+	    	statement.close();
+	    }
+	}
+	
+	private void openConnection() 
+        throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException {
+        if (null == conn) {
+            conn = ConnectionPool.getInstance().getConnection();
+            conn.setAutoCommit( false );
+        }
+	}
+
+    private void closeConnection() throws SQLException {
+	    if (null != conn) conn.close();
+	    conn = null;
+    }
+}
@@ -1,32 +1,32 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.bridge.persist.dao;
-
-import com.cloud.bridge.model.MHost;
-import com.cloud.bridge.persist.EntityDao;
-
-/**
- * @author Kelven Yang
- */
-public class MHostDao extends EntityDao<MHost> {
-	public MHostDao() {
-		super(MHost.class);
-	}
-	
-	public MHost getByHostKey(String hostKey) {
-		return queryEntity("from MHost where hostKey=?", new Object[] {hostKey});
-	}
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist.dao;
+
+import com.cloud.bridge.model.MHost;
+import com.cloud.bridge.persist.EntityDao;
+
+/**
+ * @author Kelven Yang
+ */
+public class MHostDao extends EntityDao<MHost> {
+	public MHostDao() {
+		super(MHost.class);
+	}
+	
+	public MHost getByHostKey(String hostKey) {
+		return queryEntity("from MHost where hostKey=?", new Object[] {hostKey}, true);
+	}
+}
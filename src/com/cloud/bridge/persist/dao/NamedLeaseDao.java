@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.log4j.Logger;
+import org.hibernate.jdbc.Work;
+
+import com.cloud.bridge.persist.ConnectionPool;
+import com.cloud.bridge.persist.PersistContext;
+
+/**
+ * Leases on named locks shared by all the bridge instances using the database.   A lease is granted
+ * when its row is free or has expired, every grant increments the row's fencing token.   Expiry is 
+ * decided by the database clock so the clocks of the instances do not need to agree.
+ */
+public class NamedLeaseDao {
+	public static final Logger logger = Logger.getLogger(NamedLeaseDao.class);
+
+	private Connection conn       = null;
+	
+	/**
+	 * @param owner - unique for every attempt to take the lease
+	 * @return the fencing token of the granted lease, 0 if the lease is held by someone else
+	 * @throws SQLException, ClassNotFoundException, IllegalAccessException, InstantiationException 
+	 */
+	public long tryAcquire( String name, String owner, int ttlSeconds )
+	    throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException
+	{
+	    PreparedStatement statement = null;
+	    
+	    openConnection();
+	    try {
+	    	// -> ExpireTime has to be assigned last, MySQL evaluates the assignments in order
+		    statement = conn.prepareStatement ( "INSERT INTO named_lease (Name, Owner, Token, ExpireTime) VALUES (?,?,1,DATE_ADD(NOW(), INTERVAL ? SECOND)) " +
+		    		                            "ON DUPLICATE KEY UPDATE Token=IF(ExpireTime < NOW(), Token+1, Token), " +
+		    		                            "Owner=IF(ExpireTime < NOW(), VALUES(Owner), Owner), " +
+		    		                            "ExpireTime=IF(ExpireTime < NOW(), VALUES(ExpireTime), ExpireTime)" );
+		    statement.setString( 1, name );
+		    statement.setString( 2, owner );
+		    statement.setInt( 3, ttlSeconds );
+		    statement.executeUpdate();
+		    statement.close();
+		    
+		    statement = conn.prepareStatement ( "SELECT Token FROM named_lease WHERE Name=? AND Owner=?" );
+		    statement.setString( 1, name );
+		    statement.setString( 2, owner );
+		    ResultSet rs = statement.executeQuery();
+		    if (rs.next()) return rs.getLong( "Token" );
+		    return 0;
+		    
+	    } finally {
+	    	closeConnection();
+	    }
+	}
+	
+	/**
+	 * @return true if the lease is still held with this token and has not expired
+	 * @throws SQLException, ClassNotFoundException, IllegalAccessException, InstantiationException 
+	 */
+	public boolean isHeld( String name, String owner, long token )
+	    throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException
+	{
+	    PreparedStatement statement = null;
+	    
+	    openConnection();
+	    try {
+		    statement = conn.prepareStatement ( "SELECT Token FROM named_lease WHERE Name=? AND Owner=? AND Token=? AND ExpireTime >= NOW()" );
+		    statement.setString( 1, name );
+		    statement.setString( 2, owner );
+		    statement.setLong( 3, token );
+		    ResultSet rs = statement.executeQuery();
+		    return rs.next();
+		    
+	    } finally {
+	    	closeConnection();
+	    }
+	}
+	
+	/**
+	 * Extends the lease within the caller's transaction with an update guarded by the fencing token, the
+	 * row then stays locked until that transaction ends so the lease cannot be granted to anyone else
+	 * before the work done under it is committed.
+	 * 
+	 * @return false if the lease has expired or has been granted again
+	 */
+	public boolean fence( final String name, final String owner, final long token, final int ttlSeconds )
+	{
+		final int[] updated = new int[1];
+		PersistContext.beginTransaction();
+		PersistContext.getSession().doWork(new Work() {
+			public void execute(Connection conn) throws SQLException {
+				PreparedStatement statement = conn.prepareStatement( "UPDATE named_lease SET ExpireTime=DATE_ADD(NOW(), INTERVAL ? SECOND) " +
+						                                             "WHERE Name=? AND Owner=? AND Token=? AND ExpireTime >= NOW()" );
+				try {
+				    statement.setInt( 1, ttlSeconds );
+				    statement.setString( 2, name );
+				    statement.setString( 3, owner );
+				    statement.setLong( 4, token );
+				    updated[0] = statement.executeUpdate();
+				} finally {
+					statement.close();
+				}
+			}
+		});
+		return 0 < updated[0];
+	}
+	
+	/**
+	 * Ends the lease right away instead of letting it expire, a lease that has been granted again 
+	 * in the meantime is left alone.
+	 * 
+	 * @throws SQLException, ClassNotFoundException, IllegalAccessException, InstantiationException 
+	 */
+	public void release( String name, String owner, long token )
+	    throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException
+	{
+	    PreparedStatement statement = null;
+	    
+	    openConnection();
+	    try {
+		    statement = conn.prepareStatement ( "UPDATE named_lease SET ExpireTime=DATE_SUB(NOW(), INTERVAL 1 SECOND) WHERE Name=? AND Owner=? AND Token=?" );
+		    statement.setString( 1, name );
+		    statement.setString( 2, owner );
+		    statement.setLong( 3, token );
+		    statement.executeUpdate();
+		    statement.close();
+		    
+	    } finally {
+	    	closeConnection();
+	    }
+	}
+	
+	private void openConnection() 
+        throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException {
+        if (null == conn) {
+            conn = ConnectionPool.getInstance().getConnection();
+        }
+	}
+
+    private void closeConnection() throws SQLException {
+	    if (null != conn) conn.close();
+	    conn = null;
+    }
+}
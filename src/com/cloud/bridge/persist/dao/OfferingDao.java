@@ -15,48 +15,19 @@
  */
 package com.cloud.bridge.persist.dao;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Properties;
 
 import org.apache.log4j.Logger;
 
-import com.cloud.bridge.util.ConfigurationHelper;
+import com.cloud.bridge.persist.ConnectionPool;
 
 public class OfferingDao {
 	public static final Logger logger = Logger.getLogger(OfferingDao.class);
 
 	private Connection conn       = null;
-	private String     dbName     = null;
-	private String     dbUser     = null;
-	private String     dbPassword = null;
-	
-	public OfferingDao() 
-	{
-	    File propertiesFile = ConfigurationHelper.findConfigurationFile("ec2-service.properties");
-	    Properties EC2Prop = null;
-	       
-	    if (null != propertiesFile) {
-	   	    EC2Prop = new Properties();
-	    	try {
-				EC2Prop.load( new FileInputStream( propertiesFile ));
-			} catch (FileNotFoundException e) {
-				logger.warn("Unable to open properties file: " + propertiesFile.getAbsolutePath(), e);
-			} catch (IOException e) {
-				logger.warn("Unable to read properties file: " + propertiesFile.getAbsolutePath(), e);
-			}
-		    dbName     = EC2Prop.getProperty( "dbName" );
-		    dbUser     = EC2Prop.getProperty( "dbUser" );
-		    dbPassword = EC2Prop.getProperty( "dbPassword" );
-		}
-	}
 	
 	public int getOfferingCount()
 		throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException
@@ -172,8 +143,7 @@ public class OfferingDao {
         throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException 
     {
         if (null == conn) {
-            Class.forName( "com.mysql.jdbc.Driver" ).newInstance();
-            conn = DriverManager.getConnection( "jdbc:mysql://localhost:3306/"+dbName, dbUser, dbPassword );
+            conn = ConnectionPool.getInstance().getConnection();
         }
     }
 
@@ -1,78 +1,169 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.bridge.persist.dao;
-
-import java.util.Date;
-import java.util.List;
-
-import com.cloud.bridge.model.SAcl;
-import com.cloud.bridge.persist.EntityDao;
-import com.cloud.bridge.persist.PersistContext;
-import com.cloud.bridge.service.core.s3.S3AccessControlList;
-import com.cloud.bridge.service.core.s3.S3Grant;
-
-/**
- * @author Kelven Yang
- */
-public class SAclDao extends EntityDao<SAcl> {
-	
-	public SAclDao() {
-		super(SAcl.class);
-	}
-	
-	public List<SAcl> listGrants(String target, long targetId) {
-		return queryEntities("from SAcl where target=? and targetId=? order by grantOrder asc",
-			new Object[] { target, new Long(targetId)});
-	}
-
-	public List<SAcl> listGrants(String target, long targetId, String userCanonicalId) {
-		return queryEntities("from SAcl where target=? and targetId=? and granteeCanonicalId=? order by grantOrder asc",
-			new Object[] { target, new Long(targetId), userCanonicalId });
-	}
-
-	public void save(String target, long targetId, S3AccessControlList acl) {
-		// -> the target's ACLs are being redefined
-		executeUpdate("delete from SAcl where target=? and targetId=?",	new Object[] { target, new Long(targetId)});
-		
-		if(acl != null) {
-			S3Grant[] grants = acl.getGrants();
-			if(grants != null && grants.length > 0) {
-				int grantOrder = 1;
-				for(S3Grant grant : grants) {
-					save(target, targetId, grant, grantOrder++);
-				}
-			}
-		}
-	}
-	
-	public SAcl save(String target, long targetId, S3Grant grant, int grantOrder) {
-		SAcl aclEntry = new SAcl();
-		aclEntry.setTarget(target);
-		aclEntry.setTargetId(targetId);
-		aclEntry.setGrantOrder(grantOrder);
-		
-		int grantee = grant.getGrantee();
-		aclEntry.setGranteeType(grantee);
-		aclEntry.setPermission(grant.getPermission());
-		aclEntry.setGranteeCanonicalId(grant.getCanonicalUserID());
-		
-		Date ts = new Date();
-		aclEntry.setCreateTime(ts);
-		aclEntry.setLastModifiedTime(ts);
-		PersistContext.getSession().save(aclEntry);
-		return aclEntry;
-	}
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.Query;
+import org.hibernate.jdbc.Work;
+
+import com.cloud.bridge.model.SAcl;
+import com.cloud.bridge.persist.AclGrantCache;
+import com.cloud.bridge.persist.EntityDao;
+import com.cloud.bridge.persist.PersistContext;
+import com.cloud.bridge.service.core.s3.S3AccessControlList;
+import com.cloud.bridge.service.core.s3.S3Grant;
+import com.cloud.bridge.util.DateHelper;
+
+/**
+ * @author Kelven Yang
+ */
+public class SAclDao extends EntityDao<SAcl> {
+	
+	public SAclDao() {
+		super(SAcl.class);
+	}
+	
+	public List<SAcl> listGrants(String target, long targetId) {
+		return queryEntities("from SAcl where target=? and targetId=? order by grantOrder asc",
+			new Object[] { target, new Long(targetId)});
+	}
+
+	public List<SAcl> listGrants(String target, long targetId, String userCanonicalId) {
+		return queryEntities("from SAcl where target=? and targetId=? and granteeCanonicalId=? order by grantOrder asc",
+			new Object[] { target, new Long(targetId), userCanonicalId });
+	}
+	
+	/**
+	 * @return the permissions granted on the target OR-ed together per grantee canonical id, from the
+	 *         AclGrantCache when they are there
+	 */
+	public Map<String, Integer> getPermissions(String target, long targetId) {
+		AclGrantCache cache = AclGrantCache.getInstance();
+		Map<String, Integer> permissions = cache.get(target, targetId);
+		if (null != permissions) return permissions;
+		
+		long generation = cache.getGeneration();
+		permissions = new HashMap<String, Integer>();
+		for(SAcl grant : listGrants(target, targetId)) {
+			String grantee = grant.getGranteeCanonicalId();
+			if (null == grantee) continue;
+			
+			Integer granted = permissions.get(grantee);
+			permissions.put(grantee, (null == granted ? 0 : granted.intValue()) | grant.getPermission());
+		}
+		cache.put(target, targetId, permissions, generation);
+		return permissions;
+	}
+	
+	@Override
+	public void delete(SAcl entity) {
+		super.delete(entity);
+		AclGrantCache.getInstance().invalidate(entity.getTarget(), entity.getTargetId());
+	}
+
+	public void save(String target, long targetId, S3AccessControlList acl) {
+		// -> the target's ACLs are being redefined
+		executeUpdate("delete from SAcl where target=? and targetId=?",	new Object[] { target, new Long(targetId)});
+		insert(target, targetId, acl);
+	}
+	
+	public void deleteByTarget(String target, long targetId) {
+		executeUpdate("delete from SAcl where target=? and targetId=?",	new Object[] { target, new Long(targetId)});
+		AclGrantCache.getInstance().invalidate(target, targetId);
+	}
+	
+	/**
+	 * Removes the grants of every item of the given objects with a single statement.   The cached grants 
+	 * of those items are left to expire, item ids are never reused so nothing can be granted by them.
+	 */
+	public void deleteByObjects(List<Long> objectIds) {
+		if(objectIds.isEmpty()) return;
+		
+		Query query = PersistContext.getSession().createQuery(
+			"delete from SAcl where target='SObjectItem' and targetId in (select i.id from SObjectItem i where i.theObject.id in (:ids))");
+		query.setParameterList("ids", objectIds);
+		query.executeUpdate();
+	}
+	
+	/**
+	 * Adds the grants of a target that has no ACL yet (e.g., a new bucket or object item) with a single 
+	 * multi-row INSERT on the session's connection, rather than one round trip per grant.
+	 */
+	public void insert(final String target, final long targetId, S3AccessControlList acl) {
+		AclGrantCache.getInstance().invalidate(target, targetId);
+		if(acl == null) return;
+		final S3Grant[] grants = acl.getGrants();
+		if(grants == null || grants.length == 0) return;
+		
+		PersistContext.getSession().doWork(new Work() {
+			public void execute(Connection conn) throws SQLException {
+				StringBuffer sb = new StringBuffer("INSERT INTO acl (Target, TargetID, GranteeType, GranteeCanonicalID, Permission, GrantOrder, CreateTime, LastModifiedTime) VALUES ");
+				for(int i = 0; i < grants.length; i++)
+					sb.append(i == 0 ? "(?,?,?,?,?,?,?,?)" : ",(?,?,?,?,?,?,?,?)");
+				
+				// -> stored the way GMTDateTimeUserType stores the times of an SAcl entity
+				String ts = DateHelper.getDateDisplayString(DateHelper.GMT_TIMEZONE, new Date());
+				PreparedStatement statement = conn.prepareStatement(sb.toString());
+				try {
+					int index = 1;
+					int grantOrder = 1;
+					for(S3Grant grant : grants) {
+						statement.setString(index++, target);
+						statement.setLong(index++, targetId);
+						statement.setInt(index++, grant.getGrantee());
+						if (null == grant.getCanonicalUserID())
+							 statement.setNull(index++, Types.VARCHAR);
+						else statement.setString(index++, grant.getCanonicalUserID());
+						statement.setInt(index++, grant.getPermission());
+						statement.setInt(index++, grantOrder++);
+						statement.setString(index++, ts);
+						statement.setString(index++, ts);
+					}
+					statement.executeUpdate();
+				} finally {
+					statement.close();
+				}
+			}
+		});
+	}
+	
+	public SAcl save(String target, long targetId, S3Grant grant, int grantOrder) {
+		SAcl aclEntry = new SAcl();
+		aclEntry.setTarget(target);
+		aclEntry.setTargetId(targetId);
+		aclEntry.setGrantOrder(grantOrder);
+		
+		int grantee = grant.getGrantee();
+		aclEntry.setGranteeType(grantee);
+		aclEntry.setPermission(grant.getPermission());
+		aclEntry.setGranteeCanonicalId(grant.getCanonicalUserID());
+		
+		Date ts = new Date();
+		aclEntry.setCreateTime(ts);
+		aclEntry.setLastModifiedTime(ts);
+		PersistContext.getSession().save(aclEntry);
+		AclGrantCache.getInstance().invalidate(target, targetId);
+		return aclEntry;
+	}
+}
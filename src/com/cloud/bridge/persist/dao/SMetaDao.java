@@ -1,57 +1,105 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.bridge.persist.dao;
-
-import java.util.List;
-
-import com.cloud.bridge.model.SMeta;
-import com.cloud.bridge.persist.EntityDao;
-import com.cloud.bridge.persist.PersistContext;
-import com.cloud.bridge.service.core.s3.S3MetaDataEntry;
-
-/**
- * @author Kelven Yang
- */
-public class SMetaDao extends EntityDao<SMeta> {
-	public SMetaDao() {
-		super(SMeta.class);
-	}
-	
-	public List<SMeta> getByTarget(String target, long targetId) {
-		return queryEntities("from SMeta where target=? and targetId=?", new Object[] {target, targetId});
-	}
-
-	public SMeta save(String target, long targetId, S3MetaDataEntry entry) {
-		SMeta meta = new SMeta();
-		meta.setTarget(target);
-		meta.setTargetId(targetId);
-		meta.setName(entry.getName());
-		meta.setValue(entry.getValue());
-		
-		PersistContext.getSession().save(meta);
-		return meta;
-	}
-	
-	public void save(String target, long targetId, S3MetaDataEntry[] entries) {
-		// -> the target's meta data are being redefined
-		executeUpdate("delete from SMeta where target=? and targetId=?", new Object[] { target, new Long(targetId)});
-
-		if(entries != null) {
-			for(S3MetaDataEntry entry : entries)
-				save(target, targetId, entry);
-		}
-	}
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.hibernate.Query;
+import org.hibernate.jdbc.Work;
+
+import com.cloud.bridge.model.SMeta;
+import com.cloud.bridge.persist.EntityDao;
+import com.cloud.bridge.persist.PersistContext;
+import com.cloud.bridge.service.core.s3.S3MetaDataEntry;
+
+/**
+ * @author Kelven Yang
+ */
+public class SMetaDao extends EntityDao<SMeta> {
+	public SMetaDao() {
+		super(SMeta.class);
+	}
+	
+	public List<SMeta> getByTarget(String target, long targetId) {
+		return queryEntities("from SMeta where target=? and targetId=?", new Object[] {target, targetId});
+	}
+
+	public SMeta save(String target, long targetId, S3MetaDataEntry entry) {
+		SMeta meta = new SMeta();
+		meta.setTarget(target);
+		meta.setTargetId(targetId);
+		meta.setName(entry.getName());
+		meta.setValue(entry.getValue());
+		
+		PersistContext.getSession().save(meta);
+		return meta;
+	}
+	
+	public void save(String target, long targetId, S3MetaDataEntry[] entries) {
+		// -> the target's meta data are being redefined
+		deleteByTarget(target, targetId);
+		insert(target, targetId, entries);
+	}
+	
+	public void deleteByTarget(String target, long targetId) {
+		executeUpdate("delete from SMeta where target=? and targetId=?", new Object[] { target, new Long(targetId)});
+	}
+	
+	/**
+	 * Removes the meta data of every item of the given objects with a single statement.
+	 */
+	public void deleteByObjects(List<Long> objectIds) {
+		if(objectIds.isEmpty()) return;
+		
+		Query query = PersistContext.getSession().createQuery(
+			"delete from SMeta where target='SObjectItem' and targetId in (select i.id from SObjectItem i where i.theObject.id in (:ids))");
+		query.setParameterList("ids", objectIds);
+		query.executeUpdate();
+	}
+	
+	/**
+	 * Adds the meta data of a target that has none yet (e.g., a new object item) with a single 
+	 * multi-row INSERT on the session's connection, rather than one round trip per entry.
+	 */
+	public void insert(final String target, final long targetId, final S3MetaDataEntry[] entries) {
+		if(entries == null || entries.length == 0) return;
+		
+		PersistContext.getSession().doWork(new Work() {
+			public void execute(Connection conn) throws SQLException {
+				StringBuffer sb = new StringBuffer("INSERT INTO meta (Target, TargetID, Name, Value) VALUES ");
+				for(int i = 0; i < entries.length; i++)
+					sb.append(i == 0 ? "(?,?,?,?)" : ",(?,?,?,?)");
+				
+				PreparedStatement statement = conn.prepareStatement(sb.toString());
+				try {
+					int index = 1;
+					for(S3MetaDataEntry entry : entries) {
+						statement.setString(index++, target);
+						statement.setLong(index++, targetId);
+						statement.setString(index++, entry.getName());
+						statement.setString(index++, entry.getValue());
+					}
+					statement.executeUpdate();
+				} finally {
+					statement.close();
+				}
+			}
+		});
+	}
+}
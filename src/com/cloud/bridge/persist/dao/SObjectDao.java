@@ -1,78 +1,146 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.bridge.persist.dao;
-
-import java.util.ArrayList;
-import java.util.List;
-
-import com.cloud.bridge.model.SBucket;
-import com.cloud.bridge.model.SObject;
-import com.cloud.bridge.persist.EntityDao;
-import com.cloud.bridge.util.EntityParam;
-
-/**
- * @author Kelven Yang
- */
-public class SObjectDao extends EntityDao<SObject> {
-	public SObjectDao() {
-		super(SObject.class);
-	}
-
-	public SObject getByNameKey(SBucket bucket, String nameKey) {
-		return queryEntity("from SObject where bucket=? and nameKey=?", 
-				new Object[] { new EntityParam(bucket), nameKey });
-	}
-	
-	public List<SObject> listBucketObjects(SBucket bucket, String prefix, String marker, int maxKeys) {
-		StringBuffer sb = new StringBuffer();
-		List<Object> params = new ArrayList<Object>();
-
-		sb.append("from SObject o left join fetch o.items where deletionMark is null and o.bucket=?");
-		params.add(new EntityParam(bucket));
-		
-		if(prefix != null && !prefix.isEmpty()) {
-			sb.append(" and o.nameKey like ?");
-			params.add(new String(prefix + "%"));
-		}
-		
-		if(marker != null && !marker.isEmpty()) {
-			sb.append(" and o.nameKey > ?");
-			params.add(marker);
-		}
-		
-		return queryEntities(sb.toString(), 0, maxKeys, params.toArray());
-	}
-	
-	public List<SObject> listAllBucketObjects(SBucket bucket, String prefix, String marker, int maxKeys) {
-		StringBuffer sb = new StringBuffer();
-		List<Object> params = new ArrayList<Object>();
-
-		sb.append("from SObject o left join fetch o.items where o.bucket=?");
-		params.add(new EntityParam(bucket));
-		
-		if(prefix != null && !prefix.isEmpty()) {
-			sb.append(" and o.nameKey like ?");
-			params.add(new String(prefix + "%"));
-		}
-		
-		if(marker != null && !marker.isEmpty()) {
-			sb.append(" and o.nameKey > ?");
-			params.add(marker);
-		}
-		
-		return queryEntities(sb.toString(), 0, maxKeys, params.toArray());
-	}
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.Query;
+import org.hibernate.Session;
+
+import com.cloud.bridge.model.SBucket;
+import com.cloud.bridge.model.SObject;
+import com.cloud.bridge.persist.EntityDao;
+import com.cloud.bridge.persist.PersistContext;
+import com.cloud.bridge.util.EntityParam;
+import com.cloud.bridge.util.QueryHelper;
+
+/**
+ * @author Kelven Yang
+ */
+public class SObjectDao extends EntityDao<SObject> {
+	public SObjectDao() {
+		super(SObject.class);
+	}
+
+	public SObject getByNameKey(SBucket bucket, String nameKey) {
+		return queryEntity("from SObject where bucket=? and nameKey=?", 
+				new Object[] { new EntityParam(bucket), nameKey });
+	}
+	
+	/**
+	 * @return the objects found among the given keys, each with all of its items
+	 */
+	public List<SObject> getByNameKeys(SBucket bucket, Collection<String> nameKeys) {
+		if(nameKeys.isEmpty()) return new ArrayList<SObject>();
+		
+		Query query = PersistContext.getSession().createQuery(
+			"select distinct o from SObject o left join fetch o.items where o.bucket.id=:bucketId and o.nameKey in (:keys)");
+		query.setLong("bucketId", bucket.getId().longValue());
+		query.setParameterList("keys", nameKeys);
+		return QueryHelper.executeQuery(query, SObject.class);
+	}
+	
+	/**
+	 * The ids of up to maxIds objects of the bucket, with no order other than the index's.
+	 */
+	public List<Long> listIdsInBucket(SBucket bucket, int maxIds) {
+		Query query = PersistContext.getSession().createQuery("select o.id from SObject o where o.bucket.id=:bucketId");
+		query.setLong("bucketId", bucket.getId().longValue());
+		query.setMaxResults(maxIds);
+		return QueryHelper.executeQuery(query, Long.class);
+	}
+	
+	/**
+	 * Deletes the objects and their items with one statement each, without loading them.   Their
+	 * meta data and ACLs are not touched.
+	 */
+	public void deleteByIds(List<Long> objectIds) {
+		if(objectIds.isEmpty()) return;
+		
+		Session session = PersistContext.getSession();
+		Query query = session.createQuery("delete from SObjectItem where theObject.id in (:ids)");
+		query.setParameterList("ids", objectIds);
+		query.executeUpdate();
+		
+		query = session.createQuery("delete from SObject where id in (:ids)");
+		query.setParameterList("ids", objectIds);
+		query.executeUpdate();
+	}
+	
+	/**
+	 * Versions are listed as whole objects, so the page of keys is chosen first and only those
+	 * objects have their items fetched (a collection fetch cannot be limited by the database).
+	 */
+	public List<SObject> listAllBucketObjects(SBucket bucket, String prefix, String marker, int maxKeys) {
+		StringBuffer sb = new StringBuffer();
+		List<Object> params = new ArrayList<Object>();
+
+		sb.append("select o.id from SObject o where o.bucket=?");
+		params.add(new EntityParam(bucket));
+		appendKeyRange(sb, params, "o", prefix, marker);
+		sb.append(" order by o.nameKey asc");
+		
+		Session session = PersistContext.getSession();
+		Query query = session.createQuery(sb.toString());
+		QueryHelper.bindParameters(query, params.toArray());
+		query.setMaxResults(maxKeys);
+		List<?> ids = query.list();
+		if(ids.isEmpty()) return new ArrayList<SObject>();
+		
+		query = session.createQuery("select distinct o from SObject o left join fetch o.items where o.id in (:ids) order by o.nameKey asc");
+		query.setParameterList("ids", ids);
+		return QueryHelper.executeQuery(query, SObject.class);
+	}
+	
+	/**
+	 * Restricts o.nameKey to the keys after the marker that start with the prefix.   The prefix is 
+	 * turned into a key range rather than a LIKE pattern so that '%' and '_' in a key are not taken 
+	 * as wildcards and the (SBucketID, NameKey) index can be range scanned.
+	 */
+	static void appendKeyRange(StringBuffer sb, List<Object> params, String alias, String prefix, String marker) {
+		if(prefix != null && !prefix.isEmpty()) {
+			sb.append(" and ").append(alias).append(".nameKey >= ?");
+			params.add(prefix);
+			
+			String upperBound = prefixUpperBound(prefix);
+			if(upperBound != null) {
+				sb.append(" and ").append(alias).append(".nameKey < ?");
+				params.add(upperBound);
+			} else {
+				sb.append(" and ").append(alias).append(".nameKey like ?");
+				params.add(prefix + "%");
+			}
+		}
+		
+		if(marker != null && !marker.isEmpty()) {
+			sb.append(" and ").append(alias).append(".nameKey > ?");
+			params.add(marker);
+		}
+	}
+	
+	/**
+	 * @return the smallest key greater than every key starting with prefix, null if there is none
+	 */
+	private static String prefixUpperBound(String prefix) {
+		int end = prefix.length();
+		while(end > 0 && prefix.charAt(end - 1) == Character.MAX_VALUE) end--;
+		if(end == 0) return null;
+		
+		return prefix.substring(0, end - 1) + (char)(prefix.charAt(end - 1) + 1);
+	}
+}
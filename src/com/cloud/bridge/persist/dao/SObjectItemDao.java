@@ -1,32 +1,60 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.bridge.persist.dao;
-
-import com.cloud.bridge.model.SObjectItem;
-import com.cloud.bridge.persist.EntityDao;
-
-/**
- * @author Kelven Yang
- */
-public class SObjectItemDao extends EntityDao<SObjectItem> {
-	public SObjectItemDao() {
-		super(SObjectItem.class);
-	}
-	
-	public SObjectItem getByObjectIdNullVersion(long id) {
-		return queryEntity("from SObjectItem where theObject=? and version is null", new Object[] { id });
-	}
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.persist.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.cloud.bridge.model.SBucket;
+import com.cloud.bridge.model.SObjectItem;
+import com.cloud.bridge.persist.EntityDao;
+import com.cloud.bridge.util.EntityParam;
+
+/**
+ * @author Kelven Yang
+ */
+public class SObjectItemDao extends EntityDao<SObjectItem> {
+	public SObjectItemDao() {
+		super(SObjectItem.class);
+	}
+	
+	public SObjectItem getByObjectIdNullVersion(long id) {
+		return queryEntity("from SObjectItem where theObject=? and version is null", new Object[] { id });
+	}
+	
+	public List<SObjectItem> listByBucket(long bucketId, long afterItemId, int maxItems) {
+		return queryEntities("from SObjectItem where theObject.bucket.id=? and id>? order by id asc", 0, maxItems, 
+			new Object[] { new Long(bucketId), new Long(afterItemId) });
+	}
+	
+	/**
+	 * One page of a ListBucket without versions, each object's latest item (with the object fetched 
+	 * along) in key order.   The query walks the (SBucketID, NameKey) index from the marker and 
+	 * joins one item per key, so the cost of a page does not grow with the bucket or with the 
+	 * number of versions kept for each key.
+	 */
+	public List<SObjectItem> listLatestInBucket(SBucket bucket, String prefix, String marker, int maxKeys) {
+		StringBuffer sb = new StringBuffer();
+		List<Object> params = new ArrayList<Object>();
+
+		sb.append("select i from SObjectItem i join fetch i.theObject o where i.id=o.latestItemId and o.deletionMark is null and o.bucket=?");
+		params.add(new EntityParam(bucket));
+		SObjectDao.appendKeyRange(sb, params, "o", prefix, marker);
+		sb.append(" order by o.nameKey asc");
+		
+		return queryEntities(sb.toString(), 0, maxKeys, params.toArray());
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.cloud.bridge.persist.AclGrantCache;
+import com.cloud.bridge.persist.ConnectionPool;
+import com.cloud.bridge.persist.NamedLockService;
+import com.cloud.bridge.persist.PersistContext;
+import com.cloud.bridge.service.core.ec2.EC2InventoryCache;
+import com.cloud.bridge.service.core.s3.S3BucketPolicyCache;
+import com.cloud.bridge.service.core.s3.S3ObjectCache;
+import com.cloud.bridge.util.ConfigurationHelper;
+import com.cloud.bridge.util.StatsWriter;
+import com.cloud.stack.CloudStackClient;
+import com.cloud.stack.CloudStackJobTracker;
+
+/**
+ * The CloudStats admin action of both the S3 and EC2 REST servlets, it reports the counters of the 
+ * bridge's caches, pools and background workers in one document written by StatsWriter.   The 
+ * counters tell a lot about the load and contents of the service, so the action is only answered 
+ * when admin.stats.enabled=true is set in cloud-bridge.properties, otherwise it is not found.
+ */
+public class CloudStatsAction implements ServletAction {
+	public final static String ACTION_NAME = "CloudStats";
+	
+	public void execute(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		ServiceProvider provider = ServiceProvider.getInstance();
+		if (!ConfigurationHelper.getBooleanProperty(provider.getStartupProperties(), "admin.stats.enabled", false)) {
+			response.setStatus(404);
+			return;
+		}
+		
+		StatsWriter stats = new StatsWriter();
+		writeObjectCache(stats, provider.getS3Engine().getObjectCache());
+		writeDbPool(stats, ConnectionPool.getInstance());
+		writeLocks(stats, provider.getS3Engine().getLockService());
+		writeAclCache(stats, AclGrantCache.getInstance());
+		writePolicyCache(stats, provider.getBucketPolicyCache());
+		writeInventoryCache(stats, provider.getEC2Engine().getInventoryCache());
+		writeJobs(stats, CloudStackClient.getJobTracker());
+		
+		PersistContext.releaseSession();
+		byte[] data = stats.toXml().getBytes("UTF-8");
+		response.setStatus(200);
+		response.setContentType("text/xml; charset=UTF-8");
+		response.setContentLength(data.length);
+		OutputStream os = response.getOutputStream();
+		os.write(data);
+		os.close();
+	}
+	
+	private static void writeObjectCache(StatsWriter stats, S3ObjectCache cache) {
+		stats.beginSection("ObjectCache")
+		     .add("Hits", cache.getHits())
+		     .add("Misses", cache.getMisses())
+		     .add("Evictions", cache.getEvictions())
+		     .add("Entries", cache.getEntryCount())
+		     .add("Bytes", cache.getCachedBytes());
+	}
+	
+	private static void writeDbPool(StatsWriter stats, ConnectionPool pool) {
+		stats.beginSection("DbPool")
+		     .add("MaxSize", pool.getMaxSize())
+		     .add("Active", pool.getActiveCount())
+		     .add("Idle", pool.getIdleCount())
+		     .add("Waiting", pool.getWaitingCount())
+		     .add("Borrowed", pool.getBorrowCount())
+		     .add("Waits", pool.getWaitCount())
+		     .add("WaitTimeMillis", pool.getWaitTimeMillis())
+		     .add("MaxWaitTimeMillis", pool.getMaxWaitTimeMillis())
+		     .add("Timeouts", pool.getTimeoutCount())
+		     .add("Created", pool.getCreatedCount())
+		     .add("Discarded", pool.getDiscardedCount())
+		     .add("HeldAcrossIo", PersistContext.getHeldAcrossIoCount());
+	}
+	
+	private static void writeLocks(StatsWriter stats, NamedLockService locks) {
+		stats.beginSection("Locks")
+		     .add("Acquired", locks.getAcquireCount())
+		     .add("Contended", locks.getContendedCount())
+		     .add("Timeouts", locks.getTimeoutCount())
+		     .add("WaitTimeMillis", locks.getWaitTimeMillis())
+		     .add("MaxWaitTimeMillis", locks.getMaxWaitTimeMillis());
+	}
+	
+	private static void writeAclCache(StatsWriter stats, AclGrantCache cache) {
+		stats.beginSection("AclCache")
+		     .add("Hits", cache.getHits())
+		     .add("Misses", cache.getMisses())
+		     .add("Invalidations", cache.getInvalidations())
+		     .add("Entries", cache.getEntryCount())
+		     .add("Decisions", cache.getDecisionCount())
+		     .add("DecisionTimeMicros", cache.getDecisionTimeMicros())
+		     .add("MaxDecisionTimeMicros", cache.getMaxDecisionTimeMicros());
+	}
+	
+	private static void writePolicyCache(StatsWriter stats, S3BucketPolicyCache cache) {
+		stats.beginSection("PolicyCache")
+		     .add("Hits", cache.getHits())
+		     .add("VersionChecks", cache.getChecks())
+		     .add("Loads", cache.getLoads())
+		     .add("Entries", cache.getEntryCount());
+	}
+	
+	private static void writeInventoryCache(StatsWriter stats, EC2InventoryCache cache) {
+		stats.beginSection("InventoryCache")
+		     .add("Hits", cache.getHits())
+		     .add("Coalesced", cache.getCoalesced())
+		     .add("UpstreamCalls", cache.getUpstreamCalls())
+		     .add("Invalidations", cache.getInvalidations())
+		     .add("Accounts", cache.getAccountCount());
+	}
+	
+	private static void writeJobs(StatsWriter stats, CloudStackJobTracker jobs) {
+		stats.beginSection("Jobs")
+		     .add("Outstanding", jobs.getOutstanding())
+		     .add("Polls", jobs.getPolls())
+		     .add("Completed", jobs.getCompleted())
+		     .add("Failed", jobs.getFailed());
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service;
+
+import java.io.IOException;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Stores a request body as the client sends it.   The container calls onDataAvailable whenever data
+ * has arrived, so no request thread waits on a slow upload.   Subclasses write the response in
+ * completed or failed, which run on a container thread after the servlet has returned, the request
+ * is completed when they return.
+ */
+public abstract class S3AsyncRequestReader implements ReadListener {
+    protected final static Logger logger = Logger.getLogger(S3AsyncRequestReader.class);
+
+    public final static int BUFFER_SIZE = 64 * 1024;
+
+	private AsyncContext context;
+	private ServletInputStream is;
+	private final S3ObjectWriter writer;
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private long length = 0;
+	private boolean done = false;
+
+	public S3AsyncRequestReader(S3ObjectWriter writer) {
+		this.writer = writer;
+	}
+
+	public void start(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		context = request.startAsync(request, response);
+		context.setTimeout(0);
+		is = request.getInputStream();
+		is.setReadListener(this);
+	}
+
+	/**
+	 * @param length - the number of bytes read from the request body
+	 */
+	protected abstract void completed(HttpServletResponse response, long length);
+
+	protected abstract void failed(HttpServletResponse response, Throwable t);
+
+	@Override
+	public void onDataAvailable() throws IOException {
+		while(!done && is.isReady()) {
+			int read = is.read(buffer);
+			if (read < 0) return;
+			writer.write(buffer, 0, read);
+			length += read;
+		}
+	}
+
+	@Override
+	public void onAllDataRead() {
+		if (done) return;
+		done = true;
+		try {
+			completed((HttpServletResponse)context.getResponse(), length);
+		} finally {
+			context.complete();
+		}
+	}
+
+	@Override
+	public void onError(Throwable t) {
+		if (done) return;
+		done = true;
+		logger.error("Unable to receive object data " + t.getMessage(), t);
+		try {
+			failed((HttpServletResponse)context.getResponse(), t);
+		} finally {
+			context.complete();
+		}
+	}
+}
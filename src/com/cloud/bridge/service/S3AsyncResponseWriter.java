@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Sends a response body only as fast as the client takes it.   The container calls onWritePossible
+ * whenever the connection can accept more data, so no request thread is parked on a slow reader
+ * while a large object is downloaded.
+ */
+public class S3AsyncResponseWriter implements WriteListener {
+    protected final static Logger logger = Logger.getLogger(S3AsyncResponseWriter.class);
+
+    public final static int BUFFER_SIZE = 64 * 1024;
+
+	private final AsyncContext context;
+	private final ServletOutputStream os;
+	private final InputStream is;
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private boolean done = false;
+
+	private S3AsyncResponseWriter(AsyncContext context, ServletOutputStream os, InputStream is) {
+		this.context = context;
+		this.os = os;
+		this.is = is;
+	}
+
+	/**
+	 * The headers must all be set before this is called, the response is owned by the listener afterwards.
+	 *
+	 * @param is - closed once it has been sent or the client has gone away
+	 */
+	public static void start(HttpServletRequest request, HttpServletResponse response, InputStream is) throws IOException {
+		AsyncContext context = request.startAsync(request, response);
+
+		// -> a large object to a slow client takes as long as it takes, the connector's own timeout still applies
+		context.setTimeout(0);
+		ServletOutputStream os = response.getOutputStream();
+		os.setWriteListener(new S3AsyncResponseWriter(context, os, is));
+	}
+
+	@Override
+	public void onWritePossible() throws IOException {
+		while(!done && os.isReady()) {
+			int length = is.read(buffer);
+			if (length < 0) {
+				finish();
+				return;
+			}
+			os.write(buffer, 0, length);
+		}
+	}
+
+	@Override
+	public void onError(Throwable t) {
+		logger.error("Unable to send object data " + t.getMessage(), t);
+		finish();
+	}
+
+	private void finish() {
+		if (done) return;
+		done = true;
+		try {
+			is.close();
+		} catch(IOException e) {
+			logger.error("Can't close object data " + e.getMessage(), e);
+		}
+		context.complete();
+	}
+}
@@ -1,25 +1,25 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.bridge.service;
-
-/**
- * @author Kelven Yang
- * Constants used in S3 implementation, one place to hold commonly used constants
- */
-public interface S3Constants {
-	public final String BUCKET_ATTR_KEY = "s3-bucket";
-	public final String OBJECT_ATTR_KEY = "s3-object-key";
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service;
+
+/**
+ * @author Kelven Yang
+ * Constants used in S3 implementation, one place to hold commonly used constants
+ */
+public interface S3Constants {
+	public final String BUCKET_ATTR_KEY = "s3-bucket";
+	public final String OBJECT_ATTR_KEY = "s3-object-key";
+}
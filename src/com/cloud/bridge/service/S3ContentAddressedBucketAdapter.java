@@ -0,0 +1,442 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.Enumeration;
+
+import javax.activation.DataHandler;
+
+import org.apache.log4j.Logger;
+
+import com.cloud.bridge.persist.PersistContext;
+import com.cloud.bridge.persist.dao.ContentBlobDao;
+import com.cloud.bridge.service.core.s3.S3MultipartPart;
+import com.cloud.bridge.service.exception.FileNotExistException;
+import com.cloud.bridge.service.exception.InternalErrorException;
+import com.cloud.bridge.service.exception.OutOfStorageException;
+import com.cloud.bridge.util.StringHelper;
+import com.cloud.bridge.util.Tuple;
+
+/**
+ * Stores each distinct object body once per storage root.   Bodies are kept as blobs in the CONTENT_FOLDER
+ * of the mount point, named after the SHA-256 of their content, while the file at an object's stored path 
+ * is only a small pointer to its blob.   The number of pointers to each blob is counted in the content_blob 
+ * table and the blob is removed with its last reference, so repeated uploads of the same data (copies, 
+ * versions that did not change, backups) take no additional space.
+ */
+public class S3ContentAddressedBucketAdapter extends S3FileSystemBucketAdapter {
+    protected final static Logger logger = Logger.getLogger(S3ContentAddressedBucketAdapter.class);
+    
+    public final static String CONTENT_FOLDER = "__content__";
+    private final static String UPLOAD_FOLDER = "upload";
+
+	public S3ContentAddressedBucketAdapter() {
+	}
+	
+	/**
+	 * The content referred to by the pointers of a deleted bucket is released before they are deleted.
+	 */
+	@Override
+	protected void purgeContainer(String mountedRoot, File path) {
+		releaseReferences(mountedRoot, path);
+		super.purgeContainer(mountedRoot, path);
+	}
+	
+	@Override
+	public String saveObject(InputStream is, String mountedRoot, String bucket, String fileName) {
+		PersistContext.checkNoConnectionHeld("saving object data");
+		ContentPointer content = storeContent(is, mountedRoot, bucket);
+		replacePointer(mountedRoot, bucket, fileName, content);
+		return content.getMd5();
+	}
+
+	/**
+	 * The chunks go to a temporary file, as with saveObject, which becomes or is folded into the blob on close.
+	 */
+	@Override
+	public S3ObjectWriter openObjectWriter(final String mountedRoot, final String bucket, final String fileName) {
+		PersistContext.checkNoConnectionHeld("saving object data");
+		final MessageDigest md5 = getMessageDigest("MD5");
+		final MessageDigest sha256 = getMessageDigest("SHA-256");
+		try {
+			return new FileObjectWriter(createUploadFile(mountedRoot), isFsyncOnClose(bucket), md5, sha256) {
+				@Override
+				public String close() throws IOException {
+					ContentPointer content;
+					try {
+						closeFile();
+						content = new ContentPointer(StringHelper.toHexString(sha256.digest()), StringHelper.toHexString(md5.digest()), getLength());
+						addReference(mountedRoot, content, getFile());
+					} finally {
+						getFile().delete();
+					}
+					replacePointer(mountedRoot, bucket, fileName, content);
+					return content.getMd5();
+				}
+			};
+		}
+		catch(IOException e) {
+			logger.error("Unexpected exception " + e.getMessage(), e);
+			throw new OutOfStorageException(e);
+		}
+	}
+
+	/**
+	 * Within one storage root a copy only adds a reference to the source's blob, no data is read or written.
+	 */
+	@Override
+	public long copyObject(String srcRoot, String srcBucket, String srcFile, String dstRoot, String dstBucket, String dstFile) {
+		File source = findObjectFile(srcRoot, srcBucket, srcFile);
+		if (!source.exists())
+			throw new FileNotExistException("Unable to open underlying object file");
+		
+		ContentPointer content = readPointer(source);
+		File blob = getBlobFile(srcRoot, content.getDigest());
+		if (!srcRoot.equals(dstRoot)) {
+			// -> blobs are not shared between storage roots
+			InputStream is = null;
+			try {
+				is = new FileInputStream(blob);
+				saveObject(is, dstRoot, dstBucket, dstFile);
+				return content.getLength();
+			} catch(FileNotFoundException e) {
+				throw new FileNotExistException("Unable to open underlying object file");
+			} finally {
+				try {
+					if (null != is) is.close();
+				} catch(IOException e) {
+					logger.error("Can't close content blob " + e.getMessage(), e);
+				}
+			}
+		}
+		
+		ContentBlobDao blobDao = new ContentBlobDao();
+		try {
+			blobDao.addReference(srcRoot, content.getDigest(), content.getMd5(), content.getLength());
+			if (!blob.exists())
+				throw new FileNotExistException("Content blob " + blob.getPath() + " is missing");
+			blobDao.commit();
+		}
+		catch(FileNotExistException e) {
+			blobDao.rollback();
+			throw e;
+		}
+		catch(Exception e) {
+			blobDao.rollback();
+			logger.error("Unable to add reference to content " + content.getDigest() + ", " + e.getMessage(), e);
+			throw new OutOfStorageException(e);
+		}
+		
+		replacePointer(dstRoot, dstBucket, dstFile, content);
+		return content.getLength();
+	}
+	
+	/**
+	 * The parts are streamed into a new blob one after the other, parts are blobs themselves so 
+	 * an object made of the same parts as an existing one is stored only once.
+	 */
+	@Override
+	public Tuple<String,Long> concatentateObjects(String mountedRoot, String destBucket, String fileName, String sourceBucket, S3MultipartPart[] parts, OutputStream client) {
+		PersistContext.checkNoConnectionHeld("concatenating multipart data");
+		InputStream is = new SequenceInputStream(new PartStreams(mountedRoot, sourceBucket, parts, client));
+		ContentPointer content = storeContent(is, mountedRoot, destBucket);
+		replacePointer(mountedRoot, destBucket, fileName, content);
+		return new Tuple<String, Long>(content.getMd5(), new Long(content.getLength()));
+	}
+	
+	@Override
+	public DataHandler loadObject(String mountedRoot, String bucket, String fileName) {
+		ContentPointer content = readPointer(findObjectFile(mountedRoot, bucket, fileName));
+		return loadObjectRange(mountedRoot, content, 0, content.getLength());
+	}
+	
+	@Override
+	public DataHandler loadObjectRange(String mountedRoot, String bucket, String fileName, long startPos, long endPos) {
+		ContentPointer content = readPointer(findObjectFile(mountedRoot, bucket, fileName));
+		return loadObjectRange(mountedRoot, content, startPos, endPos);
+	}
+	
+	private DataHandler loadObjectRange(String mountedRoot, ContentPointer content, long startPos, long endPos) {
+		try {
+			return new DataHandler(createDataSource(getBlobFile(mountedRoot, content.getDigest()), startPos, endPos));
+		} catch(IOException e) {
+			throw new FileNotExistException("Unable to open underlying object file");
+		}
+	}
+	
+	@Override
+	public void deleteObject(String mountedRoot, String bucket, String fileName) {
+		File file = findObjectFile(mountedRoot, bucket, fileName);
+		if (!file.exists()) return;
+		
+		ContentPointer content = readPointer(file);
+		if (!file.delete() && file.exists())
+			throw new OutOfStorageException( "Unable to delete " + file.getPath() + " for object deletion" ); 
+		releaseReference(mountedRoot, content.getDigest());
+	}
+	
+	/**
+	 * The content is written to a temporary file while both digests are computed, it then either becomes 
+	 * the blob for its digest or is discarded because that blob already exists.
+	 */
+	private ContentPointer storeContent(InputStream is, String mountedRoot, String bucket) {
+		MessageDigest md5 = getMessageDigest("MD5");
+		MessageDigest sha256 = getMessageDigest("SHA-256");
+		
+		File temp = null;
+		FileOutputStream fos = null;
+		try {
+			temp = createUploadFile(mountedRoot);
+
+			fos = new FileOutputStream(temp);
+	        FileChannel channel = fos.getChannel();
+	        long length = getWritePipeline().write(is, channel, md5, sha256);
+	        if (isFsyncOnClose(bucket)) channel.force(true);
+	        fos.close();
+	        fos = null;
+	        
+	        ContentPointer content = new ContentPointer(StringHelper.toHexString(sha256.digest()), StringHelper.toHexString(md5.digest()), length);
+	        addReference(mountedRoot, content, temp);
+	        return content;
+		} 
+		catch(IOException e) {
+			logger.error("Unexpected exception " + e.getMessage(), e);
+			throw new OutOfStorageException(e);
+		}
+		finally {
+			try {
+			    if (null != fos) fos.close();
+			}
+			catch( Exception e ) {
+				logger.error("Can't close FileOutputStream " + e.getMessage(), e);			
+			}
+			if (null != temp) temp.delete();
+		}
+	}
+	
+	private File createUploadFile(String mountedRoot) throws IOException {
+		File uploadFolder = new File(getBucketFolderDir(mountedRoot, CONTENT_FOLDER) + File.separatorChar + UPLOAD_FOLDER);
+		if (!uploadFolder.exists() && !uploadFolder.mkdirs() && !uploadFolder.exists())
+			throw new IOException("Unable to create folder " + uploadFolder.getPath());
+		return File.createTempFile("content", null, uploadFolder);
+	}
+
+	/**
+	 * The content row stays locked until the blob file is in place, so a concurrent release of the 
+	 * last reference to the same content cannot delete the blob in between.
+	 */
+	private void addReference(String mountedRoot, ContentPointer content, File temp) {
+		ContentBlobDao blobDao = new ContentBlobDao();
+		try {
+			blobDao.addReference(mountedRoot, content.getDigest(), content.getMd5(), content.getLength());
+			
+			File blob = getBlobFile(mountedRoot, content.getDigest());
+			if (!blob.exists()) {
+				createShardFolder(blob);
+				if (!temp.renameTo(blob))
+					throw new IOException("Unable to store content blob " + blob.getPath());
+			}
+			blobDao.commit();
+		} 
+		catch(Exception e) {
+			blobDao.rollback();
+			logger.error("Unable to add reference to content " + content.getDigest() + ", " + e.getMessage(), e);
+			throw new OutOfStorageException(e);
+		}
+	}
+	
+	/**
+	 * A failure only leaves the blob referenced for longer than needed, it is never deleted while still in use.
+	 */
+	private void releaseReference(String mountedRoot, String digest) {
+		ContentBlobDao blobDao = new ContentBlobDao();
+		try {
+			if (0 == blobDao.releaseReference(mountedRoot, digest)) {
+				File blob = getBlobFile(mountedRoot, digest);
+				releaseMapping(blob);
+				if (!blob.delete() && blob.exists())
+					logger.warn("Unable to delete unreferenced content blob " + blob.getPath());
+			}
+			blobDao.commit();
+		} 
+		catch(Exception e) {
+			blobDao.rollback();
+			logger.error("Unable to release reference to content " + digest + ", " + e.getMessage(), e);
+		}
+	}
+	
+	private void releaseReferences(String mountedRoot, File folder) {
+		File[] files = folder.listFiles();
+		if (null == files) return;
+		
+		for(int i = 0; i < files.length; i++) {
+			if (files[i].isDirectory()) {
+				releaseReferences(mountedRoot, files[i]);
+			} else {
+				try {
+					releaseReference(mountedRoot, readPointer(files[i]).getDigest());
+				} catch(RuntimeException e) {
+					logger.warn("Skipping unreadable content pointer " + files[i].getPath());
+				}
+			}
+		}
+	}
+	
+	/**
+	 * When an object is overwritten its pointer is replaced first, then the old content is released.
+	 */
+	private void replacePointer(String mountedRoot, String bucket, String fileName, ContentPointer content) {
+		File pointer = getObjectFile(mountedRoot, bucket, fileName);
+		File existing = findObjectFile(mountedRoot, bucket, fileName);
+		ContentPointer previous = (existing.exists() ? readPointer(existing) : null);
+		
+		FileOutputStream fos = null;
+		try {
+			createShardFolder(pointer);
+			fos = new FileOutputStream(pointer);
+			fos.write(content.toString().getBytes("UTF-8"));
+		} 
+		catch(IOException e) {
+			logger.error("Unexpected exception " + e.getMessage(), e);
+			releaseReference(mountedRoot, content.getDigest());
+			throw new OutOfStorageException(e);
+		}
+		finally {
+			try {
+			    if (null != fos) fos.close();
+			}
+			catch( Exception e ) {
+				logger.error("Can't close FileOutputStream " + e.getMessage(), e);			
+			}
+		}
+		
+		if (!existing.equals(pointer)) existing.delete();
+		if (null != previous) releaseReference(mountedRoot, previous.getDigest());
+	}
+	
+	private ContentPointer readPointer(File file) {
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader(new FileReader(file));
+			String line = reader.readLine();
+			String[] tokens = (null == line ? new String[0] : line.trim().split(" "));
+			if (3 != tokens.length)
+				throw new InternalErrorException("Invalid content pointer " + file.getPath());
+			
+			return new ContentPointer(tokens[0], tokens[1], Long.parseLong(tokens[2]));
+		} 
+		catch(NumberFormatException e) {
+			throw new InternalErrorException("Invalid content pointer " + file.getPath());
+		}
+		catch(IOException e) {
+			throw new FileNotExistException("Unable to open underlying object file");
+		}
+		finally {
+			try {
+				if (null != reader) reader.close();
+			}
+			catch(IOException e) {
+				logger.error("Can't close content pointer " + e.getMessage(), e);			
+			}
+		}
+	}
+	
+	private File getBlobFile(String mountedRoot, String digest) {
+		return new File(getBucketFolderDir(mountedRoot, CONTENT_FOLDER) + File.separatorChar + digest.substring(0, 2) 
+			+ File.separatorChar + digest.substring(2, 4) + File.separatorChar + digest);
+	}
+	
+	private static class ContentPointer {
+		private final String digest;
+		private final String md5;
+		private final long length;
+		
+		public ContentPointer(String digest, String md5, long length) {
+			this.digest = digest;
+			this.md5 = md5;
+			this.length = length;
+		}
+		
+		public String getDigest() {
+			return digest;
+		}
+		
+		public String getMd5() {
+			return md5;
+		}
+		
+		public long getLength() {
+			return length;
+		}
+		
+		@Override
+		public String toString() {
+			return digest + " " + md5 + " " + length + "\n";
+		}
+	}
+	
+	/**
+	 * Opens the blob of each part as the previous one is exhausted and tells the client 
+	 * we are still here to keep the connection alive.
+	 */
+	private class PartStreams implements Enumeration<InputStream> {
+		private final String mountedRoot;
+		private final String sourceBucket;
+		private final S3MultipartPart[] parts;
+		private final OutputStream client;
+		private int next = 0;
+		
+		public PartStreams(String mountedRoot, String sourceBucket, S3MultipartPart[] parts, OutputStream client) {
+			this.mountedRoot = mountedRoot;
+			this.sourceBucket = sourceBucket;
+			this.parts = parts;
+			this.client = client;
+		}
+		
+		@Override
+		public boolean hasMoreElements() {
+			return next < parts.length;
+		}
+		
+		@Override
+		public InputStream nextElement() {
+			S3MultipartPart part = parts[next++];
+			try {
+				if (null != client) {
+					client.write( new String(" ").getBytes());
+					client.flush();
+				}
+				
+				ContentPointer content = readPointer(findObjectFile(mountedRoot, sourceBucket, part.getPath()));
+				return new FileInputStream(getBlobFile(mountedRoot, content.getDigest()));
+			} catch(IOException e) {
+				throw new FileNotExistException("Unable to open multipart upload part " + part.getPartNumber(), e);
+			}
+		}
+	}
+}
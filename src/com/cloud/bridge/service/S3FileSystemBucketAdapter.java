@@ -1,245 +1,863 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.bridge.service;
-
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.MalformedURLException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-
-import javax.activation.DataHandler;
-import javax.activation.DataSource;
-
-import org.apache.log4j.Logger;
-
-import com.cloud.bridge.service.core.s3.S3MultipartPart;
-import com.cloud.bridge.service.exception.FileNotExistException;
-import com.cloud.bridge.service.exception.InternalErrorException;
-import com.cloud.bridge.service.exception.OutOfStorageException;
-import com.cloud.bridge.util.FileRangeDataSource;
-import com.cloud.bridge.util.StringHelper;
-import com.cloud.bridge.util.Tuple;
-
-/**
- * @author Kelven Yang
- */
-public class S3FileSystemBucketAdapter implements S3BucketAdapter {
-    protected final static Logger logger = Logger.getLogger(S3FileSystemBucketAdapter.class);
-	
-	public S3FileSystemBucketAdapter() {
-	}
-	
-	@Override
-	public void createContainer(String mountedRoot, String bucket) {
-		
-		String dir = getBucketFolderDir(mountedRoot, bucket);
-		File container = new File(dir);
-		
-		if (!container.exists()) {
-		   if (!container.mkdirs())
-			   throw new OutOfStorageException("Unable to create " + dir + " for bucket " + bucket); 
-		}
-	}
-	
-	@Override
-	public void deleteContainer(String mountedRoot, String bucket) {
-		String dir = getBucketFolderDir(mountedRoot, bucket);
-		File path = new File(dir);
-		if(!deleteDirectory(path))
-			throw new OutOfStorageException("Unable to delete " + dir + " for bucket " + bucket); 
-	}
-	
-	@Override
-	public String getBucketFolderDir(String mountedRoot, String bucket) {
-		String bucketFolder = getBucketFolderName(bucket);
-		String dir;
-		String separator = ""+File.separatorChar;
-		if(!mountedRoot.endsWith(separator))
-			dir = mountedRoot + separator + bucketFolder;
-		else
-			dir = mountedRoot + bucketFolder;
-		
-		return dir;
-	}
-	
-	@Override
-	public String saveObject(InputStream is, String mountedRoot, String bucket, String fileName) 
-	{
-		FileOutputStream fos = null;
-		MessageDigest md5 = null;
-		
-		try {
-			md5 = MessageDigest.getInstance("MD5");
-		} catch (NoSuchAlgorithmException e) {
-			logger.error("Unexpected exception " + e.getMessage(), e);
-			throw new InternalErrorException("Unable to get MD5 MessageDigest", e);
-		}
-		
-		File file = new File(getBucketFolderDir(mountedRoot, bucket) + File.separatorChar + fileName);
-		try {
-			// -> when versioning is off we need to rewrite the file contents
-			file.delete();
-			file.createNewFile();
-			
-	        fos = new FileOutputStream(file);
-	        byte[] buffer = new byte[4096];
-	        int len = 0;
-	        while( (len = is.read(buffer)) > 0) {
-	        	fos.write(buffer, 0, len);
-	        	md5.update(buffer, 0, len);
-	        }        
-	        return StringHelper.toHexString(md5.digest());
-	        
-		} 
-		catch(IOException e) {
-			logger.error("Unexpected exception " + e.getMessage(), e);
-			throw new OutOfStorageException(e);
-		}
-		finally {
-			try {
-			    if (null != fos) fos.close();
-			}
-			catch( Exception e ) {
-				logger.error("Can't close FileOutputStream " + e.getMessage(), e);			
-			}
-		}
-	}
-	
-	/**
-	 * From a list of files (each being one part of the multipart upload), concatentate all files into a single
-	 * object that can be accessed by normal S3 calls.  This function could take a long time since a multipart is
-	 * allowed to have upto 10,000 parts (each 5 gib long).   Amazon defines that while this operation is in progress
-	 * whitespace is sent back to the client inorder to keep the HTTP connection alive.
-	 * 
-	 * @param mountedRoot - where both the source and dest buckets are located
-	 * @param destBucket - resulting location of the concatenated objects
-	 * @param fileName - resulting file name of the concatenated objects
-	 * @param sourceBucket - special bucket used to save uploaded file parts
-	 * @param parts - an array of file names in the sourceBucket
-	 * @param client - if not null, then keep the servlet connection alive while this potentially long concatentation takes place
-	 * @return Tuple with the first value the MD5 of the final object, and the second value the length of the final object
-	 */
-	@Override
-	public Tuple<String,Long> concatentateObjects(String mountedRoot, String destBucket, String fileName, String sourceBucket, S3MultipartPart[] parts, OutputStream client) 
-	{
-		MessageDigest md5;
-		long totalLength = 0;
-		
-		try {
-			md5 = MessageDigest.getInstance("MD5");
-		} catch (NoSuchAlgorithmException e) {
-			logger.error("Unexpected exception " + e.getMessage(), e);
-			throw new InternalErrorException("Unable to get MD5 MessageDigest", e);
-		}
-		
-		File file = new File(getBucketFolderDir(mountedRoot, destBucket) + File.separatorChar + fileName);
-		try {
-			// -> when versioning is off we need to rewrite the file contents
-			file.delete();
-			file.createNewFile();
-			
-	        final FileOutputStream fos = new FileOutputStream(file);
-	        byte[] buffer = new byte[4096];
-	        
-	        // -> get the input stream for the next file part
-	        for( int i=0; i < parts.length; i++ )
-	        {
-	           DataHandler nextPart = loadObject( mountedRoot, sourceBucket, parts[i].getPath());
-	           InputStream is = nextPart.getInputStream();
-	           
-	           int len = 0;
-	           while( (len = is.read(buffer)) > 0) {
-	        	   fos.write(buffer, 0, len);
-	        	   md5.update(buffer, 0, len);
-	        	   totalLength += len;
-	           }
-	           is.close();
-	           
-	           // -> after each file write tell the client we are still here to keep connection alive
-	           if (null != client) {
-	        	   client.write( new String(" ").getBytes());
-	        	   client.flush();
-	           }
-	        }        
-	        fos.close();	
-	        return new Tuple<String, Long>(StringHelper.toHexString(md5.digest()), new Long(totalLength));
-		} 
-		catch(IOException e) {
-			logger.error("concatentateObjects unexpected exception " + e.getMessage(), e);
-			throw new OutOfStorageException(e);
-		}	
-	}
-	
-	@Override
-	public DataHandler loadObject(String mountedRoot, String bucket, String fileName) {
-		File file = new File(getBucketFolderDir(mountedRoot, bucket) + File.separatorChar + fileName);
-		try {
-			return new DataHandler(file.toURL());
-		} catch (MalformedURLException e) {
-			throw new FileNotExistException("Unable to open underlying object file");
-		}
-	}
-	
-	@Override
-	public void deleteObject(String mountedRoot, String bucket, String fileName) {
-		String filePath = new String( getBucketFolderDir(mountedRoot, bucket) + File.separatorChar + fileName );
-		File file = new File( filePath );	
-		if (!file.delete()) {
-			logger.error("file: " + filePath + ", f=" + file.isFile() + ", h=" + file.isHidden() + ", e=" + file.exists() + ", w=" + file.canWrite());
-			throw new OutOfStorageException( "Unable to delete " + filePath + " for object deletion" ); 
-		}
-	}
-
-	@Override
-	public DataHandler loadObjectRange(String mountedRoot, String bucket, String fileName, long startPos, long endPos) {
-		File file = new File(getBucketFolderDir(mountedRoot, bucket) + File.separatorChar + fileName);
-		try {
-			DataSource ds = new FileRangeDataSource(file, startPos, endPos);
-			return new DataHandler(ds);
-		} catch (MalformedURLException e) {
-			throw new FileNotExistException("Unable to open underlying object file");
-		} catch(IOException e) {
-			throw new FileNotExistException("Unable to open underlying object file");
-		}
-	}
-	
-	public static boolean deleteDirectory(File path) {
-		 if( path.exists() ) {
-			 File[] files = path.listFiles();
-			 for(int i = 0; i < files.length; i++) {
-				 if(files[i].isDirectory()) {
-					 deleteDirectory(files[i]);
-				 } else {
-					 files[i].delete();
-				 }
-			 }
-		 }
-		 return path.delete();
-	}
-	
-	private String getBucketFolderName(String bucket) {
-		// temporary 
-		String name = bucket.replace(' ', '_');
-		name = bucket.replace('\\', '-');
-		name = bucket.replace('/', '-');
-		
-		return name;
-	}
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.MalformedURLException;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.activation.DataHandler;
+import javax.activation.DataSource;
+
+import org.apache.log4j.Logger;
+
+import com.cloud.bridge.persist.PersistContext;
+import com.cloud.bridge.service.core.s3.S3MultipartPart;
+import com.cloud.bridge.service.exception.FileNotExistException;
+import com.cloud.bridge.service.exception.InternalErrorException;
+import com.cloud.bridge.service.exception.OutOfStorageException;
+import com.cloud.bridge.util.ByteBufferPool;
+import com.cloud.bridge.util.ConfigurationHelper;
+import com.cloud.bridge.util.DaemonThreadFactory;
+import com.cloud.bridge.util.DigestWritePipeline;
+import com.cloud.bridge.util.FileRangeDataSource;
+import com.cloud.bridge.util.MappedFileCache;
+import com.cloud.bridge.util.MappedFileDataSource;
+import com.cloud.bridge.util.StoragePathHelper;
+import com.cloud.bridge.util.StringHelper;
+import com.cloud.bridge.util.Tuple;
+
+/**
+ * @author Kelven Yang
+ */
+public class S3FileSystemBucketAdapter implements S3BucketAdapter {
+    protected final static Logger logger = Logger.getLogger(S3FileSystemBucketAdapter.class);
+    
+    public final static int DEFAULT_WRITE_BUFFER_SIZE = 1024 * 1024;
+    public final static int DEFAULT_WRITE_POOL_DEPTH = 32;
+    public final static int DEFAULT_WRITE_PIPELINE_DEPTH = 4;
+    
+    public final static String MULTIPART_COMPLETION_SERIAL = "serial";
+    public final static String MULTIPART_COMPLETION_PARALLEL = "parallel";
+    public final static int DEFAULT_MULTIPART_COPY_THREADS = 4;
+    public final static int DEFAULT_DELETE_THREADS = 4;
+    public final static long DEFAULT_MAPPED_SIZE = 0;
+    public final static long DEFAULT_MAPPED_MIN_OBJECT_SIZE = 64 * 1024;
+    public final static long DEFAULT_MAPPED_MAX_OBJECT_SIZE = 256 * 1024 * 1024;
+    
+    // -> how often whitespace is sent to the client while a multipart upload is being completed
+    private final static long KEEP_ALIVE_INTERVAL_SECONDS = 5;
+    
+    // -> a deleted bucket's folder is renamed with this prefix, an illegal bucket name, and removed in the background
+    public final static String DELETED_FOLDER_PREFIX = "__deleted__";
+    
+    // -> shared by all adapter instances, threads are created on demand and die when idle
+    private final static ExecutorService digestExecutor = Executors.newCachedThreadPool(new DaemonThreadFactory("S3-Digest"));
+    
+    // -> one deleted bucket folder at a time, its shard folders are spread over the delete executor
+    private final static ExecutorService purgeExecutor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("S3-Purge"));
+    private final static Set<String> purgingFolders = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    
+    private volatile DigestWritePipeline writePipeline;
+    private volatile boolean fsyncOnClose = false;
+    private volatile Set<String> fsyncBuckets = new HashSet<String>();
+    
+    private volatile String multipartCompletion = MULTIPART_COMPLETION_SERIAL;
+    private volatile boolean multipartLinkFirstPart = false;
+    private volatile ExecutorService copyExecutor;
+    private volatile ExecutorService deleteExecutor;
+    private volatile MappedFileCache mappedCache;
+	
+	public S3FileSystemBucketAdapter() {
+		writePipeline = new DigestWritePipeline(new ByteBufferPool(DEFAULT_WRITE_BUFFER_SIZE, DEFAULT_WRITE_POOL_DEPTH), 
+			DEFAULT_WRITE_PIPELINE_DEPTH, digestExecutor);
+		copyExecutor = Executors.newFixedThreadPool(DEFAULT_MULTIPART_COPY_THREADS, new DaemonThreadFactory("S3-PartCopy"));
+		deleteExecutor = Executors.newFixedThreadPool(DEFAULT_DELETE_THREADS, new DaemonThreadFactory("S3-Delete"));
+	}
+	
+	/**
+	 * Write pipeline and durability settings in cloud-bridge.properties:
+	 *   storage.write.bufferSize    - size in bytes of each pooled direct buffer
+	 *   storage.write.poolDepth     - maximum number of idle buffers kept for reuse 
+	 *   storage.write.pipelineDepth - buffers each upload may have queued for the MD5 stage
+	 *   storage.write.fsync         - if true every object is forced to disk before the PUT returns
+	 *   storage.write.fsyncBuckets  - comma separated bucket names that are always forced to disk
+	 *   storage.multipart.completion    - "serial" copies and rehashes parts one at a time, "parallel" copies
+	 *                                     parts concurrently and derives the ETag from the stored part digests
+	 *   storage.multipart.copyThreads   - number of threads used by the parallel completion mode
+	 *   storage.multipart.linkFirstPart - if true the first part file is renamed into place instead of copied,
+	 *                                     it is moved back if the completion does not commit
+	 *   storage.delete.threads          - number of threads deleting the shard folders of a deleted bucket
+	 *   storage.mmap.size          - total size in bytes of the object files kept mapped for reads, 0 disables mapping
+	 *   storage.mmap.minObjectSize - smaller objects are read from their file
+	 *   storage.mmap.maxObjectSize - larger objects are read from their file
+	 */
+	@Override
+	public void configure(Properties properties) {
+		int bufferSize = ConfigurationHelper.getIntProperty(properties, "storage.write.bufferSize", DEFAULT_WRITE_BUFFER_SIZE);
+		int poolDepth = ConfigurationHelper.getIntProperty(properties, "storage.write.poolDepth", DEFAULT_WRITE_POOL_DEPTH);
+		int pipelineDepth = ConfigurationHelper.getIntProperty(properties, "storage.write.pipelineDepth", DEFAULT_WRITE_PIPELINE_DEPTH);
+		if (bufferSize <= 0) bufferSize = DEFAULT_WRITE_BUFFER_SIZE;
+		if (poolDepth <= 0) poolDepth = DEFAULT_WRITE_POOL_DEPTH;
+		writePipeline = new DigestWritePipeline(new ByteBufferPool(bufferSize, poolDepth), pipelineDepth, digestExecutor);
+		
+		fsyncOnClose = ConfigurationHelper.getBooleanProperty(properties, "storage.write.fsync", false);
+		Set<String> buckets = new HashSet<String>();
+		String bucketList = (null == properties ? null : properties.getProperty("storage.write.fsyncBuckets"));
+		if (null != bucketList) {
+			String[] names = bucketList.split(",");
+			for(int i=0; i < names.length; i++) {
+				String name = names[i].trim();
+				if (name.length() > 0) buckets.add(name);
+			}
+		}
+		fsyncBuckets = buckets;
+		
+		String completion = (null == properties ? null : properties.getProperty("storage.multipart.completion"));
+		if (null != completion && completion.trim().equalsIgnoreCase(MULTIPART_COMPLETION_PARALLEL))
+			 multipartCompletion = MULTIPART_COMPLETION_PARALLEL;
+		else multipartCompletion = MULTIPART_COMPLETION_SERIAL;
+		multipartLinkFirstPart = ConfigurationHelper.getBooleanProperty(properties, "storage.multipart.linkFirstPart", false);
+		
+		int copyThreads = ConfigurationHelper.getIntProperty(properties, "storage.multipart.copyThreads", DEFAULT_MULTIPART_COPY_THREADS);
+		if (copyThreads <= 0) copyThreads = DEFAULT_MULTIPART_COPY_THREADS;
+		ExecutorService oldExecutor = copyExecutor;
+		copyExecutor = Executors.newFixedThreadPool(copyThreads, new DaemonThreadFactory("S3-PartCopy"));
+		if (null != oldExecutor) oldExecutor.shutdown();
+		
+		int deleteThreads = ConfigurationHelper.getIntProperty(properties, "storage.delete.threads", DEFAULT_DELETE_THREADS);
+		if (deleteThreads <= 0) deleteThreads = DEFAULT_DELETE_THREADS;
+		oldExecutor = deleteExecutor;
+		deleteExecutor = Executors.newFixedThreadPool(deleteThreads, new DaemonThreadFactory("S3-Delete"));
+		if (null != oldExecutor) oldExecutor.shutdown();
+		
+		long mappedSize = ConfigurationHelper.getLongProperty(properties, "storage.mmap.size", DEFAULT_MAPPED_SIZE);
+		long mappedMinSize = ConfigurationHelper.getLongProperty(properties, "storage.mmap.minObjectSize", DEFAULT_MAPPED_MIN_OBJECT_SIZE);
+		long mappedMaxSize = ConfigurationHelper.getLongProperty(properties, "storage.mmap.maxObjectSize", DEFAULT_MAPPED_MAX_OBJECT_SIZE);
+		mappedCache = (0 < mappedSize ? new MappedFileCache(mappedSize, mappedMinSize, mappedMaxSize) : null);
+		
+		if (logger.isInfoEnabled())
+			logger.info("Object write pipeline: buffer size " + bufferSize + ", pool depth " + poolDepth + ", pipeline depth " + pipelineDepth 
+				+ ", fsync " + fsyncOnClose + ", fsync buckets " + fsyncBuckets + ", multipart completion " + multipartCompletion 
+				+ " with " + copyThreads + " threads, link first part " + multipartLinkFirstPart + ", delete threads " + deleteThreads 
+				+ ", mapped size " + mappedSize + " for objects of " + mappedMinSize + " to " + mappedMaxSize + " bytes");
+	}
+	
+	protected DigestWritePipeline getWritePipeline() {
+		return writePipeline;
+	}
+	
+	/**
+	 * Durability is a per bucket choice, forcing every write to disk costs a full device flush per object.
+	 */
+	public boolean isFsyncOnClose(String bucket) {
+		return fsyncOnClose || fsyncBuckets.contains(bucket);
+	}
+	
+	@Override
+	public void createContainer(String mountedRoot, String bucket) {
+		
+		String dir = getBucketFolderDir(mountedRoot, bucket);
+		File container = new File(dir);
+		
+		if (!container.exists()) {
+		   // -> another request may be creating the same folder (e.g., the multipart folder)
+		   if (!container.mkdirs() && !container.exists())
+			   throw new OutOfStorageException("Unable to create " + dir + " for bucket " + bucket); 
+		}
+	}
+	
+	/**
+	 * The bucket's folder is only renamed here, so that a bucket of the same name can be created right 
+	 * away, and its files are deleted in the background.   Folders left behind by a previous run that 
+	 * did not get to delete them are picked up again by the next bucket deletion on the same root.   A
+	 * folder that is already gone, e.g., when a deletion is retried, is taken as deleted.
+	 */
+	@Override
+	public void deleteContainer(final String mountedRoot, String bucket) {
+		String dir = getBucketFolderDir(mountedRoot, bucket);
+		File path = new File(dir);
+		File deleted = new File(path.getParentFile(), DELETED_FOLDER_PREFIX + path.getName() + "." + System.currentTimeMillis());
+		if (!path.renameTo(deleted) && path.exists())
+			throw new OutOfStorageException("Unable to delete " + dir + " for bucket " + bucket); 
+		
+		File[] folders = path.getParentFile().listFiles();
+		for(int i = 0; null != folders && i < folders.length; i++) {
+			final File folder = folders[i];
+			if (!folder.getName().startsWith(DELETED_FOLDER_PREFIX) || !purgingFolders.add(folder.getPath())) continue;
+			
+			purgeExecutor.execute(new Runnable() {
+				public void run() {
+					try {
+						purgeContainer(mountedRoot, folder);
+					} catch(Throwable e) {
+						logger.error("Unable to delete " + folder.getPath() + " of a deleted bucket: " + e.getMessage(), e);
+					} finally {
+						purgingFolders.remove(folder.getPath());
+					}
+				}
+			});
+		}
+	}
+	
+	/**
+	 * A bucket stored with the sharded layout has up to 256 top level shard folders, each is removed
+	 * by its own task so that a large bucket is not deleted one file at a time.
+	 */
+	protected void purgeContainer(String mountedRoot, File path) {
+		File[] files = path.listFiles();
+		if (null != files) {
+			CompletionService<Boolean> deletes = new ExecutorCompletionService<Boolean>(deleteExecutor);
+			int pending = 0;
+			for(int i = 0; i < files.length; i++) {
+				if (files[i].isDirectory()) {
+					deletes.submit(new DeleteDirectoryTask(files[i]));
+					pending++;
+				} else {
+					files[i].delete();
+				}
+			}
+			
+			try {
+				for(; pending > 0; pending--) 
+					deletes.take();
+			} catch(InterruptedException e) {
+				logger.error("purgeContainer interrupted " + e.getMessage(), e);
+				throw new OutOfStorageException("Unable to delete " + path.getPath()); 
+			}
+		}
+		
+		if(!path.delete())
+			throw new OutOfStorageException("Unable to delete " + path.getPath()); 
+	}
+	
+	private static class DeleteDirectoryTask implements Callable<Boolean> {
+		private final File path;
+		
+		public DeleteDirectoryTask(File path) {
+			this.path = path;
+		}
+		
+		@Override
+		public Boolean call() {
+			return new Boolean(deleteDirectory(path));
+		}
+	}
+	
+	@Override
+	public String getBucketFolderDir(String mountedRoot, String bucket) {
+		String bucketFolder = getBucketFolderName(bucket);
+		String dir;
+		String separator = ""+File.separatorChar;
+		if(!mountedRoot.endsWith(separator))
+			dir = mountedRoot + separator + bucketFolder;
+		else
+			dir = mountedRoot + bucketFolder;
+		
+		return dir;
+	}
+	
+	@Override
+	public String saveObject(InputStream is, String mountedRoot, String bucket, String fileName) 
+	{
+		PersistContext.checkNoConnectionHeld("saving object data");
+		FileOutputStream fos = null;
+		MessageDigest md5 = null;
+		
+		try {
+			md5 = MessageDigest.getInstance("MD5");
+		} catch (NoSuchAlgorithmException e) {
+			logger.error("Unexpected exception " + e.getMessage(), e);
+			throw new InternalErrorException("Unable to get MD5 MessageDigest", e);
+		}
+		
+		File file = getObjectFile(mountedRoot, bucket, fileName);
+		try {
+			// -> when versioning is off we need to rewrite the file contents
+			releaseMapping(file);
+			file.delete();
+			createShardFolder(file);
+			file.createNewFile();
+			
+	        fos = new FileOutputStream(file);
+	        FileChannel channel = fos.getChannel();
+	        writePipeline.write(is, channel, md5);
+	        if (isFsyncOnClose(bucket)) channel.force(true);
+	        return StringHelper.toHexString(md5.digest());
+	        
+		} 
+		catch(IOException e) {
+			logger.error("Unexpected exception " + e.getMessage(), e);
+			throw new OutOfStorageException(e);
+		}
+		finally {
+			try {
+			    if (null != fos) fos.close();
+			}
+			catch( Exception e ) {
+				logger.error("Can't close FileOutputStream " + e.getMessage(), e);			
+			}
+		}
+	}
+	
+	/**
+	 * Same as saveObject for a body that is handed over a chunk at a time, the calling thread computes
+	 * the MD5 of each chunk as it is written.
+	 */
+	@Override
+	public S3ObjectWriter openObjectWriter(String mountedRoot, String bucket, String fileName)
+	{
+		PersistContext.checkNoConnectionHeld("saving object data");
+		File file = getObjectFile(mountedRoot, bucket, fileName);
+		try {
+			// -> when versioning is off we need to rewrite the file contents
+			releaseMapping(file);
+			file.delete();
+			createShardFolder(file);
+			file.createNewFile();
+			return new FileObjectWriter(file, isFsyncOnClose(bucket), getMessageDigest("MD5"));
+		}
+		catch(IOException e) {
+			logger.error("Unexpected exception " + e.getMessage(), e);
+			throw new OutOfStorageException(e);
+		}
+	}
+
+	/**
+	 * Writes to a file and feeds the written data to the given digests, the first one is the MD5.
+	 */
+	protected static class FileObjectWriter implements S3ObjectWriter {
+		private final File file;
+		private final FileOutputStream fos;
+		private final boolean fsync;
+		private final MessageDigest[] digests;
+		private long length = 0;
+
+		public FileObjectWriter(File file, boolean fsync, MessageDigest... digests) throws IOException {
+			this.file = file;
+			this.fos = new FileOutputStream(file);
+			this.fsync = fsync;
+			this.digests = digests;
+		}
+
+		public File getFile() {
+			return file;
+		}
+
+		public long getLength() {
+			return length;
+		}
+
+		@Override
+		public void write(byte[] data, int offset, int length) throws IOException {
+			fos.write(data, offset, length);
+			for(int i=0; i < digests.length; i++) digests[i].update(data, offset, length);
+			this.length += length;
+		}
+
+		@Override
+		public String close() throws IOException {
+			closeFile();
+			return StringHelper.toHexString(digests[0].digest());
+		}
+
+		protected void closeFile() throws IOException {
+			try {
+				if (fsync) fos.getChannel().force(true);
+			} finally {
+				fos.close();
+			}
+		}
+
+		@Override
+		public void abort() {
+			try {
+				fos.close();
+			} catch(IOException e) {
+				logger.error("Can't close FileOutputStream " + e.getMessage(), e);
+			}
+			file.delete();
+		}
+	}
+
+	protected static MessageDigest getMessageDigest(String algorithm) {
+		try {
+			return MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException e) {
+			logger.error("Unexpected exception " + e.getMessage(), e);
+			throw new InternalErrorException("Unable to get " + algorithm + " MessageDigest", e);
+		}
+	}
+
+	/**
+	 * The copy is done inside the file system with FileChannel.transferTo, the data never passes through
+	 * a Java buffer and no digest is computed since the copy has the MD5 of its source.
+	 * 
+	 * @return the length of the copied object
+	 */
+	@Override
+	public long copyObject(String srcRoot, String srcBucket, String srcFile, String dstRoot, String dstBucket, String dstFile) 
+	{
+		PersistContext.checkNoConnectionHeld("copying object data");
+		File source = findObjectFile(srcRoot, srcBucket, srcFile);
+		File file = getObjectFile(dstRoot, dstBucket, dstFile);
+		if (!source.exists())
+			throw new FileNotExistException("Unable to open underlying object file");
+		
+		// -> an object copied onto itself (e.g., to replace its metadata) is already in place
+		if (source.getAbsoluteFile().equals(file.getAbsoluteFile())) return source.length();
+		
+		FileChannel in = null;
+		FileOutputStream fos = null;
+		try {
+			in = new RandomAccessFile(source, "r").getChannel();
+			
+			// -> when versioning is off we need to rewrite the file contents
+			releaseMapping(file);
+			file.delete();
+			createShardFolder(file);
+			fos = new FileOutputStream(file);
+			FileChannel out = fos.getChannel();
+			
+			long length = in.size();
+			long copied = 0;
+			while(copied < length) {
+				long transferred = in.transferTo(copied, length - copied, out);
+				if (transferred <= 0)
+					throw new IOException("Unexpected end of object file " + source.getName());
+				copied += transferred;
+			}
+			if (isFsyncOnClose(dstBucket)) out.force(true);
+			return length;
+		}
+		catch(IOException e) {
+			logger.error("copyObject unexpected exception " + e.getMessage(), e);
+			throw new OutOfStorageException(e);
+		}
+		finally {
+			try {
+				if (null != in) in.close();
+				if (null != fos) fos.close();
+			}
+			catch(IOException e) {
+				logger.error("Can't close copied object file " + e.getMessage(), e);			
+			}
+		}
+	}
+	
+	/**
+	 * From a list of files (each being one part of the multipart upload), concatentate all files into a single
+	 * object that can be accessed by normal S3 calls.  This function could take a long time since a multipart is
+	 * allowed to have upto 10,000 parts (each 5 gib long).   Amazon defines that while this operation is in progress
+	 * whitespace is sent back to the client inorder to keep the HTTP connection alive.
+	 * 
+	 * @param mountedRoot - where both the source and dest buckets are located
+	 * @param destBucket - resulting location of the concatenated objects
+	 * @param fileName - resulting file name of the concatenated objects
+	 * @param sourceBucket - special bucket used to save uploaded file parts
+	 * @param parts - an array of file names in the sourceBucket
+	 * @param client - if not null, then keep the servlet connection alive while this potentially long concatentation takes place
+	 * @return Tuple with the first value the MD5 of the final object, and the second value the length of the final object
+	 */
+	@Override
+	public Tuple<String,Long> concatentateObjects(String mountedRoot, String destBucket, String fileName, String sourceBucket, S3MultipartPart[] parts, OutputStream client) 
+	{
+		PersistContext.checkNoConnectionHeld("concatenating multipart data");
+		if (MULTIPART_COMPLETION_PARALLEL.equals(multipartCompletion) && 0 < parts.length && null != multipartETag(parts))
+			 return concatenateObjectsParallel(mountedRoot, destBucket, fileName, sourceBucket, parts, client);
+		else return concatenateObjectsSerial(mountedRoot, destBucket, fileName, sourceBucket, parts, client);
+	}
+	
+	private Tuple<String,Long> concatenateObjectsSerial(String mountedRoot, String destBucket, String fileName, String sourceBucket, S3MultipartPart[] parts, OutputStream client) 
+	{
+		MessageDigest md5;
+		long totalLength = 0;
+		
+		try {
+			md5 = MessageDigest.getInstance("MD5");
+		} catch (NoSuchAlgorithmException e) {
+			logger.error("Unexpected exception " + e.getMessage(), e);
+			throw new InternalErrorException("Unable to get MD5 MessageDigest", e);
+		}
+		
+		File file = getObjectFile(mountedRoot, destBucket, fileName);
+		try {
+			// -> when versioning is off we need to rewrite the file contents
+			releaseMapping(file);
+			file.delete();
+			createShardFolder(file);
+			file.createNewFile();
+			
+	        final FileOutputStream fos = new FileOutputStream(file);
+	        byte[] buffer = new byte[4096];
+	        
+	        // -> get the input stream for the next file part
+	        for( int i=0; i < parts.length; i++ )
+	        {
+	           DataHandler nextPart = loadObject( mountedRoot, sourceBucket, parts[i].getPath());
+	           InputStream is = nextPart.getInputStream();
+	           
+	           int len = 0;
+	           while( (len = is.read(buffer)) > 0) {
+	        	   fos.write(buffer, 0, len);
+	        	   md5.update(buffer, 0, len);
+	        	   totalLength += len;
+	           }
+	           is.close();
+	           
+	           // -> after each file write tell the client we are still here to keep connection alive
+	           if (null != client) {
+	        	   client.write( new String(" ").getBytes());
+	        	   client.flush();
+	           }
+	        }        
+	        fos.close();	
+	        return new Tuple<String, Long>(StringHelper.toHexString(md5.digest()), new Long(totalLength));
+		} 
+		catch(IOException e) {
+			logger.error("concatentateObjects unexpected exception " + e.getMessage(), e);
+			throw new OutOfStorageException(e);
+		}	
+	}
+	
+	/**
+	 * The destination file is preallocated to its final size and every part is copied into its offset 
+	 * concurrently with positional channel transfers.   Nothing is rehashed, the ETag is computed the
+	 * way Amazon does for multipart uploads from the part digests saved when each part was uploaded.
+	 * If configured, the first part is renamed into place so a single part upload involves no copying,
+	 * the part is moved back if the completion fails or its transaction does not commit so the client
+	 * can retry the completion.
+	 */
+	private Tuple<String,Long> concatenateObjectsParallel(String mountedRoot, String destBucket, String fileName, String sourceBucket, S3MultipartPart[] parts, OutputStream client) 
+	{
+		String sourceDir = getBucketFolderDir(mountedRoot, sourceBucket);
+		File file = getObjectFile(mountedRoot, destBucket, fileName);
+		
+		// -> the part file sizes determine where each part lands in the final object
+		File[] partFiles = new File[parts.length];
+		long[] offsets = new long[parts.length];
+		long totalLength = 0;
+		for( int i=0; i < parts.length; i++ )
+		{
+			partFiles[i] = new File(sourceDir + File.separatorChar + parts[i].getPath());
+			if (!partFiles[i].exists())
+				throw new FileNotExistException("Unable to open multipart upload part " + parts[i].getPartNumber());
+			
+			offsets[i] = totalLength;
+			totalLength += partFiles[i].length();
+		}
+		
+		RandomAccessFile destFile = null;
+		FirstPartLink link = null;
+		boolean completed = false;
+		try {
+			// -> when versioning is off we need to rewrite the file contents
+			releaseMapping(file);
+			file.delete();
+			createShardFolder(file);
+			int firstCopied = 0;
+			long firstLength = partFiles[0].length();
+			if (multipartLinkFirstPart && partFiles[0].renameTo(file)) {
+				link = new FirstPartLink(partFiles[0], file, firstLength);
+				firstCopied = 1;
+			}
+			
+			destFile = new RandomAccessFile(file, "rw");
+			destFile.setLength(totalLength);
+			FileChannel dest = destFile.getChannel();
+			
+			CompletionService<Long> copies = new ExecutorCompletionService<Long>(copyExecutor);
+			for( int i=firstCopied; i < parts.length; i++ )
+				copies.submit(new PartCopyTask(partFiles[i], dest, offsets[i]));
+			
+			// -> wait for all the copies, even after a failure, so no task writes into a closed channel
+			Throwable failure = null;
+			int pending = parts.length - firstCopied;
+			while(pending > 0) {
+				Future<Long> done = copies.poll(KEEP_ALIVE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+				if (null != done) {
+					pending--;
+					try {
+						done.get();
+					} catch(ExecutionException e) {
+						failure = e.getCause();
+					}
+				}
+				
+				// -> tell the client we are still here to keep connection alive
+				if (null != client) {
+					client.write( new String(" ").getBytes());
+					client.flush();
+				}
+			}
+			if (null != failure) throw new OutOfStorageException(failure);
+			
+			if (isFsyncOnClose(destBucket)) dest.force(true);
+			completed = true;
+	        return new Tuple<String, Long>(multipartETag(parts), new Long(totalLength));
+		} 
+		catch(InterruptedException e) {
+			logger.error("concatentateObjects interrupted " + e.getMessage(), e);
+			throw new OutOfStorageException(e);
+		}
+		catch(IOException e) {
+			logger.error("concatentateObjects unexpected exception " + e.getMessage(), e);
+			throw new OutOfStorageException(e);
+		}	
+		finally {
+			try {
+				if (null != destFile) destFile.close();
+			}
+			catch(IOException e) {
+				logger.error("Can't close concatenated object file " + e.getMessage(), e);			
+			}
+			
+			if (null != link) {
+				if (completed) {
+					PersistContext.afterCommit(link.committed());
+					PersistContext.afterCompletion(link);
+				}
+				else link.run();
+			}
+		}
+	}
+	
+	/**
+	 * Amazon's multipart ETag is the MD5 of the concatenated binary MD5s of the parts followed by
+	 * a dash and the number of parts.
+	 * 
+	 * @return null if any part does not have a usable digest
+	 */
+	private static String multipartETag(S3MultipartPart[] parts) 
+	{
+		MessageDigest md5;
+		try {
+			md5 = MessageDigest.getInstance("MD5");
+		} catch (NoSuchAlgorithmException e) {
+			logger.error("Unexpected exception " + e.getMessage(), e);
+			throw new InternalErrorException("Unable to get MD5 MessageDigest", e);
+		}
+		
+		for( int i=0; i < parts.length; i++ )
+		{
+			byte[] partDigest = StringHelper.fromHexString(parts[i].getETag());
+			if (null == partDigest || 16 != partDigest.length) return null;
+			md5.update(partDigest);
+		}
+		return StringHelper.toHexString(md5.digest()) + "-" + parts.length;
+	}
+	
+	/**
+	 * Moves a first part renamed into place back to the multipart bucket unless the transaction
+	 * recording the concatenated object has committed, the object file is cut back to the part's 
+	 * length first.
+	 */
+	private static class FirstPartLink implements Runnable {
+		private final File partFile;
+		private final File objectFile;
+		private final long partLength;
+		private volatile boolean committed;
+		
+		public FirstPartLink(File partFile, File objectFile, long partLength) {
+			this.partFile = partFile;
+			this.objectFile = objectFile;
+			this.partLength = partLength;
+		}
+		
+		public Runnable committed() {
+			return new Runnable() {
+				public void run() {
+					committed = true;
+				}
+			};
+		}
+		
+		@Override
+		public void run() {
+			if (committed) return;
+			try {
+				RandomAccessFile raf = new RandomAccessFile(objectFile, "rw");
+				try {
+					raf.setLength(partLength);
+				} finally {
+					raf.close();
+				}
+				if (!objectFile.renameTo(partFile))
+					logger.error("Unable to move first multipart part back to " + partFile.getAbsolutePath());
+			} catch(IOException e) {
+				logger.error("Unable to restore first multipart part " + partFile.getAbsolutePath() + " due to " + e.getMessage(), e);
+			}
+		}
+	}
+	
+	/**
+	 * FileChannel.transferFrom writes at an absolute position in the destination, so any number of 
+	 * these tasks can safely share the destination channel.
+	 */
+	private static class PartCopyTask implements Callable<Long> {
+		private final File partFile;
+		private final FileChannel dest;
+		private final long offset;
+		
+		public PartCopyTask(File partFile, FileChannel dest, long offset) {
+			this.partFile = partFile;
+			this.dest = dest;
+			this.offset = offset;
+		}
+		
+		@Override
+		public Long call() throws IOException {
+			FileChannel source = new RandomAccessFile(partFile, "r").getChannel();
+			try {
+				long length = source.size();
+				long copied = 0;
+				while(copied < length) {
+					long transferred = dest.transferFrom(source, offset + copied, length - copied);
+					if (transferred <= 0)
+						throw new IOException("Unexpected end of part file " + partFile.getName());
+					copied += transferred;
+				}
+				return new Long(copied);
+			} finally {
+				source.close();
+			}
+		}
+	}
+	
+	@Override
+	public DataHandler loadObject(String mountedRoot, String bucket, String fileName) {
+		File file = findObjectFile(mountedRoot, bucket, fileName);
+		try {
+			// -> a file backed data source lets the servlet layer stream the object with FileChannel.transferTo
+			DataSource ds = createDataSource(file, 0, file.length());
+			return new DataHandler(ds);
+		} catch(IOException e) {
+			throw new FileNotExistException("Unable to open underlying object file");
+		}
+	}
+	
+	@Override
+	public void deleteObject(String mountedRoot, String bucket, String fileName) {
+		File file = findObjectFile(mountedRoot, bucket, fileName);
+		String filePath = file.getPath();
+		releaseMapping(file);
+		// -> a file that is already gone (e.g., a multipart part renamed into place) counts as deleted
+		if (!file.delete() && file.exists()) {
+			logger.error("file: " + filePath + ", f=" + file.isFile() + ", h=" + file.isHidden() + ", e=" + file.exists() + ", w=" + file.canWrite());
+			throw new OutOfStorageException( "Unable to delete " + filePath + " for object deletion" ); 
+		}
+	}
+
+	@Override
+	public DataHandler loadObjectRange(String mountedRoot, String bucket, String fileName, long startPos, long endPos) {
+		File file = findObjectFile(mountedRoot, bucket, fileName);
+		try {
+			DataSource ds = createDataSource(file, startPos, endPos);
+			return new DataHandler(ds);
+		} catch (MalformedURLException e) {
+			throw new FileNotExistException("Unable to open underlying object file");
+		} catch(IOException e) {
+			throw new FileNotExistException("Unable to open underlying object file");
+		}
+	}
+	
+	/**
+	 * Objects in the configured size band are read out of a mapping shared by all their readers.
+	 */
+	protected FileRangeDataSource createDataSource(File file, long startPos, long endPos) throws IOException {
+		MappedFileCache cache = mappedCache;
+		if (null != cache && cache.isMappable(file.length()))
+			return new MappedFileDataSource(cache, file, startPos, endPos);
+		return new FileRangeDataSource(file, startPos, endPos);
+	}
+	
+	/**
+	 * Called before an object file is rewritten or deleted.
+	 */
+	protected void releaseMapping(File file) {
+		MappedFileCache cache = mappedCache;
+		if (null != cache) cache.invalidate(file);
+	}
+	
+	protected File getObjectFile(String mountedRoot, String bucket, String fileName) {
+		return new File(getBucketFolderDir(mountedRoot, bucket) + File.separatorChar + fileName);
+	}
+	
+	/**
+	 * The storage layout of a host can be migrated while the service is running, so an object file
+	 * that is not at its recorded path is looked for at its location in the other layout.
+	 */
+	protected File findObjectFile(String mountedRoot, String bucket, String fileName) {
+		File file = getObjectFile(mountedRoot, bucket, fileName);
+		if (file.exists()) return file;
+		
+		String alternatePath = StoragePathHelper.getAlternatePath(fileName);
+		if (null != alternatePath) {
+			File alternate = getObjectFile(mountedRoot, bucket, alternatePath);
+			if (alternate.exists()) return alternate;
+		}
+		return file;
+	}
+	
+	protected static void createShardFolder(File file) throws IOException {
+		File folder = file.getParentFile();
+		if (!folder.exists() && !folder.mkdirs() && !folder.exists())
+			throw new IOException("Unable to create folder " + folder.getPath());
+	}
+	
+	public static boolean deleteDirectory(File path) {
+		 if( path.exists() ) {
+			 File[] files = path.listFiles();
+			 for(int i = 0; i < files.length; i++) {
+				 if(files[i].isDirectory()) {
+					 deleteDirectory(files[i]);
+				 } else {
+					 files[i].delete();
+				 }
+			 }
+		 }
+		 return path.delete();
+	}
+	
+	private String getBucketFolderName(String bucket) {
+		// temporary 
+		String name = bucket.replace(' ', '_');
+		name = bucket.replace('\\', '-');
+		name = bucket.replace('/', '-');
+		
+		return name;
+	}
+}
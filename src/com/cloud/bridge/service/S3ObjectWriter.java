@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service;
+
+import java.io.IOException;
+
+/**
+ * An object body stored a chunk at a time, as the data of a non-blocking PUT arrives.   The object
+ * only replaces what was stored under its name once it is closed.
+ */
+public interface S3ObjectWriter {
+	void write(byte[] data, int offset, int length) throws IOException;
+
+	/**
+	 * @return the MD5 of the stored data as a hex string
+	 */
+	String close() throws IOException;
+
+	void abort();
+}
@@ -1,53 +1,53 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.bridge.service.core.ec2;
-
-public class EC2CreateImage {
-
-	private String instanceId;
-	private String name;
-	private String description;
-    
-	public EC2CreateImage() {
-		instanceId  = null;
-		name        = null;
-		description = null;
-	}
-	
-	public void setInstanceId( String instanceId ) {
-		this.instanceId = instanceId;
-	}
-	
-	public String getInstanceId() {
-		return this.instanceId;
-	}
-
-	public void setName( String name ) {
-		this.name = name;
-	}
-	
-	public String getName() {
-		return this.name;
-	}
-
-	public void setDescription( String description ) {
-		this.description = description;
-	}
-	
-	public String getDescription() {
-		return this.description;
-	}
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service.core.ec2;
+
+public class EC2CreateImage {
+
+	private String instanceId;
+	private String name;
+	private String description;
+    
+	public EC2CreateImage() {
+		instanceId  = null;
+		name        = null;
+		description = null;
+	}
+	
+	public void setInstanceId( String instanceId ) {
+		this.instanceId = instanceId;
+	}
+	
+	public String getInstanceId() {
+		return this.instanceId;
+	}
+
+	public void setName( String name ) {
+		this.name = name;
+	}
+	
+	public String getName() {
+		return this.name;
+	}
+
+	public void setDescription( String description ) {
+		this.description = description;
+	}
+	
+	public String getDescription() {
+		return this.description;
+	}
+}
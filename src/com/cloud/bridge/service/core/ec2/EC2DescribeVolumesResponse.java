@@ -1,39 +1,39 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.bridge.service.core.ec2;
-
-import java.util.ArrayList;
-import java.util.List;
-
-public class EC2DescribeVolumesResponse {
-
-	private List<EC2Volume> volumeSet = new ArrayList<EC2Volume>();    
-
-	public EC2DescribeVolumesResponse() {
-	}
-	
-	public void reset() {
-		volumeSet.clear();
-	}
-	
-	public void addVolume( EC2Volume param ) {
-		volumeSet.add( param );
-	}
-	
-	public EC2Volume[] getVolumeSet() {
-		return volumeSet.toArray(new EC2Volume[0]);
-	}
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service.core.ec2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EC2DescribeVolumesResponse {
+
+	private List<EC2Volume> volumeSet = new ArrayList<EC2Volume>();    
+
+	public EC2DescribeVolumesResponse() {
+	}
+	
+	public void reset() {
+		volumeSet.clear();
+	}
+	
+	public void addVolume( EC2Volume param ) {
+		volumeSet.add( param );
+	}
+	
+	public EC2Volume[] getVolumeSet() {
+		return volumeSet.toArray(new EC2Volume[0]);
+	}
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service.core.ec2;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import com.cloud.bridge.service.UserContext;
+import com.cloud.stack.CloudStackJob;
+
+/**
+ * EC2InstanceDispatcher submits the cloud jobs of a multi-instance request (RunInstances, StartInstances, 
+ * StopInstances, TerminateInstances) concurrently instead of one after the other.
+ * 
+ * Each account may have at most a fixed number of these jobs in flight, counted from submission until 
+ * the job is done, so that one large request can not flood the management server.   Operations over 
+ * that limit are queued and submitted as the account's earlier jobs are done, no request thread waits 
+ * for them.   RunInstances instead submits only what fits within the limit, since its response has to 
+ * list every instance it launches.
+ */
+public class EC2InstanceDispatcher {
+    protected final static Logger logger = Logger.getLogger(EC2InstanceDispatcher.class);
+    
+	public final static int DEFAULT_ACCOUNT_LIMIT = 10;
+	
+	private final ExecutorService executor;
+	private final int accountLimit;
+	private final ConcurrentHashMap<String, AccountQueue> accountQueues = new ConcurrentHashMap<String, AccountQueue>();
+	
+	public EC2InstanceDispatcher( ExecutorService executor, int accountLimit ) {
+		this.executor = executor;
+		this.accountLimit = (0 < accountLimit ? accountLimit : DEFAULT_ACCOUNT_LIMIT);
+	}
+	
+	/**
+	 * Submits each operation under the given caller's credentials and returns once those within the 
+	 * account's limit have been accepted or refused by CloudStack, the jobs themselves may still be 
+	 * running.   The other operations are queued, each gets a deferred job that follows the job it is 
+	 * submitted as later on.
+	 * 
+	 * @param operations - each submits one cloud job
+	 * @return one job per operation, in the same order.   An operation that could not be submitted 
+	 *         gets a job failed with the reason.
+	 */
+	public <T> List<CloudStackJob<T>> submitAll( final UserContext caller, List<Callable<CloudStackJob<T>>> operations ) 
+		throws InterruptedException {
+		
+		final AccountQueue account = queueFor( caller.getAccessKey());
+		List<Future<CloudStackJob<T>>> submissions = new ArrayList<Future<CloudStackJob<T>>>();
+		List<CloudStackJob<T>> jobs = new ArrayList<CloudStackJob<T>>();
+		for (final Callable<CloudStackJob<T>> operation : operations) {
+			final CloudStackJob<T> deferred = CloudStackJob.deferred();
+			Runnable queued = new Runnable() {
+				public void run() {
+					if (!deferred.startSubmission()) {
+						// -> cancelled while waiting, the permit passes on to the next operation
+						account.finished();
+						return;
+					}
+					try {
+						executor.submit( caller.bind( new Callable<Object>() {
+							public Object call() {
+								deferred.follow( submit( account, operation ));
+								return null;
+							}
+						}));
+					} catch( RuntimeException e ) {
+						deferred.follow( CloudStackJob.<T>failed( e ));
+						account.finished();
+					}
+				}
+			};
+			
+			if (account.startOrQueue( queued )) {
+				submissions.add( executor.submit( caller.bind( new Callable<CloudStackJob<T>>() {
+					public CloudStackJob<T> call() {
+						return submit( account, operation );
+					}
+				})));
+			} else {
+				submissions.add( null );
+			}
+			jobs.add( deferred );
+		}
+		
+		// -> the deferred job of an operation submitted right away is replaced by the job it was submitted as 
+		for (int i=0; i < jobs.size(); i++) {
+			Future<CloudStackJob<T>> submission = submissions.get(i);
+			if (null != submission) jobs.set( i, submitted( submission ));
+		}
+		return jobs;
+	}
+	
+	/**
+	 * Submits as many of the operations as the account's limit lets run right away, but no fewer than 
+	 * minCount, and returns once each has been accepted or refused by CloudStack.   Nothing is queued, 
+	 * so every job returned has been submitted.
+	 * 
+	 * @return one job for each of the first operations, in the same order, none if fewer than minCount 
+	 *         of them could be submitted
+	 */
+	public <T> List<CloudStackJob<T>> submitWithinLimit( final UserContext caller, List<Callable<CloudStackJob<T>>> operations, int minCount ) 
+		throws InterruptedException {
+		
+		final AccountQueue account = queueFor( caller.getAccessKey());
+		int permits = account.tryStart( minCount, operations.size());
+		List<Future<CloudStackJob<T>>> submissions = new ArrayList<Future<CloudStackJob<T>>>();
+		for (int i=0; i < permits; i++) {
+			final Callable<CloudStackJob<T>> operation = operations.get(i);
+			submissions.add( executor.submit( caller.bind( new Callable<CloudStackJob<T>>() {
+				public CloudStackJob<T> call() {
+					return submit( account, operation );
+				}
+			})));
+		}
+		
+		List<CloudStackJob<T>> jobs = new ArrayList<CloudStackJob<T>>();
+		for (Future<CloudStackJob<T>> submission : submissions) jobs.add( submitted( submission ));
+		return jobs;
+	}
+	
+	private static <T> CloudStackJob<T> submitted( Future<CloudStackJob<T>> submission ) throws InterruptedException {
+		try {
+			return submission.get();
+		} catch( ExecutionException e ) {
+			return CloudStackJob.<T>failed( e.getCause() instanceof Exception ? (Exception)e.getCause() : e );
+		}
+	}
+	
+	/**
+	 * Runs the operation holding one of the account's permits, the permit is given back once its job 
+	 * is done.
+	 */
+	private <T> CloudStackJob<T> submit( final AccountQueue account, Callable<CloudStackJob<T>> operation ) {
+		CloudStackJob<T> job;
+		try {
+			job = operation.call();
+		} catch( Exception e ) {
+			account.finished();
+			return CloudStackJob.failed( e );
+		}
+		job.whenDone( new Runnable() {
+			public void run() {
+				account.finished();
+			}
+		});
+		return job;
+	}
+	
+	/**
+	 * Runs shortfall once the last of the jobs is done, if fewer than minSucceeded of them succeeded, 
+	 * e.g., to roll back a RunInstances request that did not get its MinCount instances.
+	 */
+	public static void whenAllDone( final List<? extends CloudStackJob<?>> jobs, final int minSucceeded, final Runnable shortfall ) {
+		final AtomicInteger remaining = new AtomicInteger( jobs.size());
+		for (CloudStackJob<?> job : jobs) {
+			job.whenDone( new Runnable() {
+				public void run() {
+					if (0 < remaining.decrementAndGet()) return;
+					
+					int succeeded = 0;
+					for (CloudStackJob<?> each : jobs) {
+						if (null == failureOf( each )) succeeded++;
+					}
+					if (succeeded < minSucceeded) shortfall.run();
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Waits for the job if needed.
+	 * 
+	 * @return null if the job succeeded, otherwise why it failed
+	 */
+	public static String failureOf( CloudStackJob<?> job ) {
+		Throwable error = errorOf( job );
+		return (null == error ? null : String.valueOf( error.getMessage()));
+	}
+	
+	/**
+	 * Waits for the job if needed.
+	 * 
+	 * @return null if the job succeeded, otherwise the error it failed with
+	 */
+	public static Throwable errorOf( CloudStackJob<?> job ) {
+		try {
+			job.get();
+			return null;
+		} catch( ExecutionException e ) {
+			return e.getCause();
+		} catch( Exception e ) {
+			return e;
+		}
+	}
+	
+	private AccountQueue queueFor( String apiKey ) {
+		AccountQueue queue = accountQueues.get( apiKey );
+		if (null == queue) {
+			AccountQueue created = new AccountQueue();
+			queue = accountQueues.putIfAbsent( apiKey, created );
+			if (null == queue) queue = created;
+		}
+		return queue;
+	}
+	
+	/**
+	 * Counts an account's jobs in flight and holds its operations over the limit.
+	 */
+	private class AccountQueue {
+		private int inFlight = 0;
+		private final LinkedList<Runnable> waiting = new LinkedList<Runnable>();
+		
+		/**
+		 * @return true if a permit was taken and the operation may be submitted right away, otherwise 
+		 *         queued is run with the permit of an earlier job once that is done
+		 */
+		public synchronized boolean startOrQueue( Runnable queued ) {
+			if (inFlight < accountLimit) {
+				inFlight++;
+				return true;
+			}
+			waiting.add( queued );
+			return false;
+		}
+		
+		/**
+		 * @return the number of permits taken, between min and max, or 0 if fewer than min are free
+		 */
+		public synchronized int tryStart( int min, int max ) {
+			int free = Math.min( accountLimit - inFlight, max );
+			if (free < Math.max( min, 1 )) return 0;
+			inFlight += free;
+			return free;
+		}
+		
+		public void finished() {
+			Runnable next;
+			synchronized(this) {
+				next = waiting.poll();
+				if (null == next) {
+					inFlight--;
+					return;
+				}
+			}
+			
+			try {
+				next.run();
+			} catch( Throwable e ) {
+				logger.error( "Unable to submit a queued instance operation", e );
+				finished();
+			}
+		}
+	}
+}
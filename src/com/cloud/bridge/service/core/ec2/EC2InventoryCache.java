@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service.core.ec2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.cloud.bridge.util.ConfigurationHelper;
+
+/**
+ * Keeps the results of the cloud API list calls behind the Describe* requests for a few seconds, 
+ * per account (i.e., API key) and per resource type, so that clients polling DescribeInstances do
+ * not turn every poll into a call to the management server.   Concurrent lookups of the same list 
+ * share one call, the first caller makes it while the others wait for its result.   Calls that 
+ * change resources of an account drop the account's cached lists of the types they affect.
+ * 
+ * The lists handed out are shared between callers and must not be modified.
+ * 
+ * Settings in ec2-service.properties:
+ *   inventory.cache.accounts        - most accounts whose lists are kept, 0 disables the cache
+ *   inventory.cache.ttl.<type>      - seconds a list is used, 0 disables caching of the type, the 
+ *                                     types are instances, images, volumes, snapshots and zones
+ */
+public class EC2InventoryCache {
+	protected final static Logger logger = Logger.getLogger(EC2InventoryCache.class);
+	
+	public final static int DEFAULT_MAX_ACCOUNTS = 10000;
+	
+	public enum ResourceType {
+		INSTANCES(5),
+		IMAGES(60),
+		VOLUMES(10),
+		SNAPSHOTS(10),
+		ZONES(300);
+		
+		private final int defaultTtl;
+		
+		private ResourceType(int defaultTtl) {
+			this.defaultTtl = defaultTtl;
+		}
+		
+		public int getDefaultTtl() {
+			return defaultTtl;
+		}
+	}
+	
+	private final ConcurrentHashMap<String, AccountEntries> accounts = new ConcurrentHashMap<String, AccountEntries>();
+	private final long[] ttlMillis = new long[ResourceType.values().length];
+	private volatile int maxAccounts = DEFAULT_MAX_ACCOUNTS;
+	
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong coalesced = new AtomicLong();
+	private final AtomicLong upstreamCalls = new AtomicLong();
+	private final AtomicLong invalidations = new AtomicLong();
+	
+	public EC2InventoryCache() {
+		for(ResourceType type : ResourceType.values()) 
+			ttlMillis[type.ordinal()] = type.getDefaultTtl() * 1000L;
+	}
+	
+	public void configure(Properties properties) {
+		maxAccounts = ConfigurationHelper.getIntProperty(properties, "inventory.cache.accounts", DEFAULT_MAX_ACCOUNTS);
+		
+		StringBuffer ttls = new StringBuffer();
+		for(ResourceType type : ResourceType.values()) {
+			String name = type.name().toLowerCase();
+			ttlMillis[type.ordinal()] = ConfigurationHelper.getIntProperty(properties, "inventory.cache.ttl." + name, type.getDefaultTtl()) * 1000L;
+			ttls.append(", ").append(name).append(" ").append(ttlMillis[type.ordinal()] / 1000);
+		}
+		if (0 >= maxAccounts) accounts.clear();
+		
+		if (logger.isInfoEnabled())
+			logger.info("Inventory cache: accounts " + maxAccounts + ttls + " seconds");
+	}
+	
+	/**
+	 * @param apiKey - the account the list belongs to
+	 * @param query - tells apart the lists of one type an account asks for, e.g., the id looked up
+	 * @param loader - makes the cloud API call when the list is not cached
+	 * 
+	 * @return the list as returned by the loader
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<T> get(String apiKey, ResourceType type, String query, Callable<List<T>> loader) throws Exception {
+		long ttl = ttlMillis[type.ordinal()];
+		if (0 >= maxAccounts || 0 >= ttl || null == apiKey) {
+			upstreamCalls.incrementAndGet();
+			return loader.call();
+		}
+		
+		AccountEntries account = getAccount(apiKey);
+		String key = type.name() + ":" + (null == query ? "" : query);
+		while(true) {
+			long now = System.currentTimeMillis();
+			CacheEntry entry = account.entries.get(key);
+			if (null != entry && !entry.isExpired(now)) {
+				if (entry.isDone())
+					 hits.incrementAndGet();
+				else coalesced.incrementAndGet();
+				return (List<T>)entry.getResult();
+			}
+			
+			// -> whoever gets its entry in first makes the call, everyone else waits for it
+			CacheEntry loading = new CacheEntry(type, (Callable<List<?>>)(Callable<?>)loader);
+			boolean stored = (null == entry ? null == account.entries.putIfAbsent(key, loading) : account.entries.replace(key, entry, loading));
+			if (!stored) continue;
+			
+			upstreamCalls.incrementAndGet();
+			loading.load(ttl);
+			if (loading.isFailed()) account.entries.remove(key, loading);
+			return (List<T>)loading.getResult();
+		}
+	}
+	
+	/**
+	 * Drops the account's lists of the given types, a load still running for one of them is not 
+	 * used by later lookups either.
+	 */
+	public void invalidate(String apiKey, ResourceType... types) {
+		if (null == apiKey) return;
+		AccountEntries account = accounts.get(apiKey);
+		if (null == account) return;
+		
+		invalidations.incrementAndGet();
+		Iterator<CacheEntry> it = account.entries.values().iterator();
+		while(it.hasNext()) {
+			CacheEntry entry = it.next();
+			for(ResourceType type : types) {
+				if (type == entry.getType()) {
+					it.remove();
+					break;
+				}
+			}
+		}
+	}
+	
+	private AccountEntries getAccount(String apiKey) {
+		AccountEntries account = accounts.get(apiKey);
+		if (null == account) {
+			AccountEntries created = new AccountEntries();
+			account = accounts.putIfAbsent(apiKey, created);
+			if (null == account) {
+				account = created;
+				evict();
+			}
+		}
+		account.lastUsed = System.currentTimeMillis();
+		return account;
+	}
+	
+	/**
+	 * Once over the limit the least recently used tenth of the accounts is dropped, so that the sort 
+	 * this takes is not repeated for each new account.
+	 */
+	private void evict() {
+		int limit = Math.max(0, maxAccounts);
+		if (accounts.size() <= limit) return;
+		
+		synchronized(this) {
+			if (accounts.size() <= limit) return;
+			
+			List<Map.Entry<String, AccountEntries>> eldest = new ArrayList<Map.Entry<String, AccountEntries>>(accounts.entrySet());
+			Collections.sort(eldest, new Comparator<Map.Entry<String, AccountEntries>>() {
+				public int compare(Map.Entry<String, AccountEntries> e1, Map.Entry<String, AccountEntries> e2) {
+					long t1 = e1.getValue().lastUsed;
+					long t2 = e2.getValue().lastUsed;
+					return t1 < t2 ? -1 : (t1 == t2 ? 0 : 1);
+				}
+			});
+			
+			int count = eldest.size() - limit + limit / 10;
+			for(int i = 0; i < count && i < eldest.size(); i++) {
+				Map.Entry<String, AccountEntries> oneEntry = eldest.get(i);
+				accounts.remove(oneEntry.getKey(), oneEntry.getValue());
+			}
+		}
+	}
+	
+	public long getHits() {
+		return hits.get();
+	}
+	
+	/**
+	 * @return the number of lookups that waited for a call another thread was already making
+	 */
+	public long getCoalesced() {
+		return coalesced.get();
+	}
+	
+	public long getUpstreamCalls() {
+		return upstreamCalls.get();
+	}
+	
+	public long getInvalidations() {
+		return invalidations.get();
+	}
+	
+	public int getAccountCount() {
+		return accounts.size();
+	}
+	
+	private static class AccountEntries {
+		private final ConcurrentHashMap<String, CacheEntry> entries = new ConcurrentHashMap<String, CacheEntry>();
+		private volatile long lastUsed;
+	}
+	
+	private static class CacheEntry {
+		private final ResourceType type;
+		private final FutureTask<List<?>> task;
+		private volatile long expiresAt = Long.MAX_VALUE;
+		private volatile boolean failed = false;
+		
+		public CacheEntry(ResourceType type, Callable<List<?>> loader) {
+			this.type = type;
+			this.task = new FutureTask<List<?>>(loader);
+		}
+		
+		public ResourceType getType() {
+			return type;
+		}
+		
+		/**
+		 * The time to live starts once the call has returned, until then the entry does not expire.
+		 */
+		public void load(long ttl) {
+			task.run();
+			try {
+				task.get();
+			} catch(Exception e) {
+				failed = true;
+			}
+			expiresAt = System.currentTimeMillis() + ttl;
+		}
+		
+		public boolean isDone() {
+			return task.isDone();
+		}
+		
+		public boolean isFailed() {
+			return failed;
+		}
+		
+		public boolean isExpired(long now) {
+			return failed || now >= expiresAt;
+		}
+		
+		public List<?> getResult() throws Exception {
+			try {
+				return task.get();
+			} catch(ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof Exception) throw (Exception)cause;
+				if (cause instanceof Error) throw (Error)cause;
+				throw e;
+			}
+		}
+	}
+}
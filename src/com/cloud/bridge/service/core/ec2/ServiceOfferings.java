@@ -1,36 +1,36 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.bridge.service.core.ec2;
-
-import java.util.ArrayList;
-import java.util.List;
-
-public class ServiceOfferings {
-	
-	private List<ServiceOffer> offerSet = new ArrayList<ServiceOffer>();    
-
-	public ServiceOfferings() {
-	}
-	
-	public void addOffer( ServiceOffer param ) {
-		offerSet.add( param );
-	}
-	
-	public ServiceOffer[] getOfferSet() {
-		return offerSet.toArray(new ServiceOffer[0]);
-	}
-
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service.core.ec2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ServiceOfferings {
+	
+	private List<ServiceOffer> offerSet = new ArrayList<ServiceOffer>();    
+
+	public ServiceOfferings() {
+	}
+	
+	public void addOffer( ServiceOffer param ) {
+		offerSet.add( param );
+	}
+	
+	public ServiceOffer[] getOfferSet() {
+		return offerSet.toArray(new ServiceOffer[0]);
+	}
+
+}
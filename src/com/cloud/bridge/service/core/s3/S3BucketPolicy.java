@@ -16,8 +16,11 @@
 package com.cloud.bridge.service.core.s3;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import com.cloud.bridge.service.core.s3.S3PolicyAction.PolicyActions;
 
@@ -33,6 +36,9 @@ public class S3BucketPolicy {
 	private List<S3PolicyStatement> statementList = new ArrayList<S3PolicyStatement>();
 	private String bucketName = null;
 	private String id = null;
+	
+	// -> built by compile(), the statements that can apply to each action 
+	private volatile Map<PolicyActions, StatementIndex> statementIndex = null;
 
 	public S3BucketPolicy() {
 		
@@ -44,6 +50,7 @@ public class S3BucketPolicy {
 	
 	public void addStatement(S3PolicyStatement param) {
 		statementList.add( param );
+		statementIndex = null;
 	}
 	
 	public String getBucketName() {
@@ -62,6 +69,30 @@ public class S3BucketPolicy {
 		id = param;
 	}
 	
+	/**
+	 * Indexes the statements by the action they apply to and then by the principals they name, 
+	 * so that an access check only looks at the statements that can possibly be relevant to it.  
+	 * Must be called again if a statement is changed after it has been added to the policy.
+	 */
+	public void compile()
+	{
+		Map<PolicyActions, StatementIndex> index = new EnumMap<PolicyActions, StatementIndex>( PolicyActions.class );
+		
+		for( PolicyActions action : PolicyActions.values())
+		{
+			StatementIndex actionIndex = new StatementIndex();
+			Iterator<S3PolicyStatement> itr = statementList.iterator();
+			while( itr.hasNext()) 
+			{
+				S3PolicyStatement oneStatement = itr.next();
+				if (null != oneStatement.getPrincipals() && appliesToAction( oneStatement, action )) 
+					actionIndex.add( oneStatement );
+			}
+			if (!actionIndex.isEmpty()) index.put( action, actionIndex );
+		}
+		statementIndex = index;
+	}
+	
 	/**
 	 * This function evaluates all applicable policy statements.  Following the "evaluation logic"
 	 * as defined by Amazon the type of access derived from the policy is returned.
@@ -75,24 +106,25 @@ public class S3BucketPolicy {
 	 */
 	public PolicyAccess eval(S3PolicyContext context, String userAccount) throws Exception 
 	{
-		PolicyAccess result = PolicyAccess.DEFAULT_DENY;
-		
-		Iterator<S3PolicyStatement> itr = statementList.iterator();
-		while( itr.hasNext()) 
-		{
-			S3PolicyStatement oneStatement = itr.next();
-			if (statementIsRelevant( oneStatement, context.getKeyName(), userAccount, context.getRequestedAction()))
-			{
-				// -> a missing condition block means the statement is true 
-				S3PolicyConditionBlock block = oneStatement.getConditionBlock();				
-			    if (null == block || block.isTrue( context, oneStatement.getSid())) 
-				{
-					result = oneStatement.getEffect();
-					if (PolicyAccess.DENY == result) return result;
-				}
-			}
+		Map<PolicyActions, StatementIndex> index = statementIndex;
+		if (null == index) {
+			compile();
+			index = statementIndex;
 		}
-		return result;
+		
+		StatementIndex candidates = index.get( context.getRequestedAction());
+		if (null == candidates) return PolicyAccess.DEFAULT_DENY;
+		
+		// -> is it just the bucket being accessed?
+		String path = null;
+		if ( null == context.getKeyName()) 
+			 path = bucketName;
+		else path = bucketName + "/" + context.getKeyName();	 
+
+		PolicyAccess result = evalStatements( candidates.getAnyPrincipal(), context, path, PolicyAccess.DEFAULT_DENY );
+		if (PolicyAccess.DENY == result) return result;
+		
+		return evalStatements( candidates.getPrincipal( userAccount ), context, path, result );
 	}
 	
 	/**
@@ -115,45 +147,89 @@ public class S3BucketPolicy {
 		return value.toString();
 	}
 	
+	private PolicyAccess evalStatements( List<S3PolicyStatement> statements, S3PolicyContext context, String path, PolicyAccess result ) 
+	    throws Exception
+	{
+		if (null == statements) return result;
+		
+		for( S3PolicyStatement oneStatement : statements ) 
+		{
+			// [C] Does the objectToAccess included in the resource of the policy statement?
+		    if (!oneStatement.containsResource( path )) continue;
+		    
+			// -> a missing condition block means the statement is true 
+			S3PolicyConditionBlock block = oneStatement.getConditionBlock();				
+		    if (null == block || block.isTrue( context, oneStatement.getSid())) 
+			{
+				result = oneStatement.getEffect();
+				if (PolicyAccess.DENY == result) return result;
+			}
+		}
+		return result;
+	}
+	
 	/**
-	 * Does the Policy Statement have anything to do with the requested access by the user?
+	 * Is the operationRequested included in the policy statement?
 	 * 
-	 * @return true - statement is relevant, false it is not
+	 * @return true - statement applies to the action, false it does not
 	 */
-	private boolean statementIsRelevant( S3PolicyStatement oneStatement, String objectToAccess, String userAccount, PolicyActions operationRequested ) 
+	private static boolean appliesToAction( S3PolicyStatement oneStatement, PolicyActions operationRequested ) 
 	{
-		String path = null;
-		
-		// [A] Is the userAccount one of the principals of the policy statement?
-		S3PolicyPrincipal principals = oneStatement.getPrincipals();
-		if (null == principals || !principals.contains( userAccount )) return false;
-		//System.out.println( "Statement: " + oneStatement.getSid() + " principal matches");
-		
-		
-		// [B] Is the operationRequested included in the policy statement?
 		//  -> if the value in "NotAction:" matches that requested then the statement does not apply
 		//  (i.e., "refers to all actions other" than defined).
 		PolicyActions notActions = oneStatement.getNotAction();
-	    //System.out.println( "Statement: NotAction:" + notActions + " op requested: " + operationRequested );
-
-    	if ( PolicyActions.UnknownAction != notActions ) {
-    		 if (notActions == operationRequested) return false;
-    	}
-    	else {
-		     S3PolicyAction actions = oneStatement.getActions();
-		     if (null == actions || !actions.contains( operationRequested )) return false;
-		     //System.out.println( "Statement: " + oneStatement.getSid() + " action matches");
-    	}
+    	if ( PolicyActions.UnknownAction != notActions ) 
+    		 return notActions != operationRequested;
+    	
+	    S3PolicyAction actions = oneStatement.getActions();
+	    return null != actions && actions.contains( operationRequested );
+	}
+	
+	/**
+	 * The statements that apply to one action, those with the wildcard principal apart from those 
+	 * naming specific users.   Both lists keep the order of the statements in the policy.
+	 */
+	private static class StatementIndex 
+	{
+		private List<S3PolicyStatement> anyPrincipal = null;
+		private Map<String, List<S3PolicyStatement>> byPrincipal = null;
 		
-		// [C] Does the objectToAccess included in the resource of the policy statement?
-		//  -> is it just the bucket being accessed?
-		if ( null == objectToAccess ) 
-			 path = bucketName;
-		else path = new String( bucketName + "/" + objectToAccess );	 
+		public void add( S3PolicyStatement oneStatement ) 
+		{
+			String[] principals = oneStatement.getPrincipals().getPrincipals();
+			for( String onePrincipal : principals ) 
+			{
+				// -> "You can specify multiple principals, or a wildcard (*) to indicate all possible users."
+				if (onePrincipal.equals( "*" )) {
+					if (null == anyPrincipal) anyPrincipal = new ArrayList<S3PolicyStatement>();
+					anyPrincipal.add( oneStatement );
+					return;
+				}
+			}
+			
+			for( String onePrincipal : principals ) 
+			{
+				if (null == byPrincipal) byPrincipal = new HashMap<String, List<S3PolicyStatement>>();
+				List<S3PolicyStatement> statements = byPrincipal.get( onePrincipal );
+				if (null == statements) {
+					statements = new ArrayList<S3PolicyStatement>();
+					byPrincipal.put( onePrincipal, statements );
+				}
+				if (statements.isEmpty() || oneStatement != statements.get( statements.size() - 1 )) 
+					statements.add( oneStatement );
+			}
+		}
 		
-	    if (!oneStatement.containsResource( path )) return false;
+		public boolean isEmpty() {
+			return null == anyPrincipal && null == byPrincipal;
+		}
 		
-	    //System.out.println( "Statement: " + oneStatement.getSid() + " is relevant to access request");
-		return true;
+		public List<S3PolicyStatement> getAnyPrincipal() {
+			return anyPrincipal;
+		}
+		
+		public List<S3PolicyStatement> getPrincipal( String userAccount ) {
+			return null == byPrincipal ? null : byPrincipal.get( userAccount );
+		}
 	}
 }
@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service.core.s3;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+import org.json.simple.parser.ParseException;
+
+import com.cloud.bridge.persist.dao.BucketPolicyDao;
+import com.cloud.bridge.util.ConfigurationHelper;
+import com.cloud.bridge.util.PolicyParser;
+import com.cloud.bridge.util.Tuple;
+
+/**
+ * Keeps the parsed and compiled policy of recently accessed buckets, including the fact that a 
+ * bucket has no policy, so that an access check does not have to read and parse the policy again.   
+ * Each entry remembers the version of the policy it was loaded from, once the check interval has 
+ * passed that version is compared with the one in the database to pick up a policy replaced or 
+ * deleted by another bridge instance sharing the database.   A load never overwrites an entry that 
+ * changed while it was reading the database.
+ * 
+ * Settings in cloud-bridge.properties:
+ *   bucket.policy.cache.size  - most buckets whose policy is kept, 0 disables the cache
+ *   bucket.policy.cache.check - seconds an entry is used before its version is checked again
+ */
+public class S3BucketPolicyCache {
+	protected final static Logger logger = Logger.getLogger(S3BucketPolicyCache.class);
+	
+	public final static int DEFAULT_CACHE_SIZE = 1000;
+	public final static int DEFAULT_CHECK_SECONDS = 10;
+	
+	private final ConcurrentHashMap<String, CacheEntry> entries = new ConcurrentHashMap<String, CacheEntry>();
+	private volatile int maxEntries = DEFAULT_CACHE_SIZE;
+	private volatile long checkMillis = DEFAULT_CHECK_SECONDS * 1000L;
+	
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong checks = new AtomicLong();
+	private final AtomicLong loads = new AtomicLong();
+	
+	public S3BucketPolicyCache() {
+	}
+	
+	public void configure(Properties properties) {
+		maxEntries = ConfigurationHelper.getIntProperty(properties, "bucket.policy.cache.size", DEFAULT_CACHE_SIZE);
+		checkMillis = ConfigurationHelper.getIntProperty(properties, "bucket.policy.cache.check", DEFAULT_CHECK_SECONDS) * 1000L;
+		evict();
+		
+		if (logger.isInfoEnabled())
+			logger.info("Bucket policy cache: size " + maxEntries + ", check " + (checkMillis / 1000) + " seconds");
+	}
+	
+	/**
+	 * @return the compiled policy of the bucket, null if the bucket has no policy
+	 */
+	public S3BucketPolicy get(String bucketName) 
+		throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException, ParseException 
+	{
+		BucketPolicyDao policyDao = newPolicyDao();
+		long now = System.currentTimeMillis();
+		
+		CacheEntry entry = entries.get(bucketName);
+		if (null != entry) {
+			entry.setLastUsed(now);
+			if (now - entry.getCheckTime() < checkMillis) {
+				hits.incrementAndGet();
+				return entry.getPolicy();
+			}
+			
+			// -> only the version is read to find out if the cached policy is still the current one
+			checks.incrementAndGet();
+			Long version = policyDao.getPolicyVersion(bucketName);
+			if (null == version ? null == entry.getVersion() : version.equals(entry.getVersion())) {
+				entry.setCheckTime(now);
+				return entry.getPolicy();
+			}
+		}
+		
+		loads.incrementAndGet();
+		S3BucketPolicy policy = null;
+		Long version = null;
+		Tuple<String, Long> policyInJson = policyDao.getPolicyAndVersion(bucketName);
+		if (null != policyInJson) {
+			PolicyParser parser = new PolicyParser();
+			policy = parser.parse(policyInJson.getFirst(), bucketName);
+			version = policyInJson.getSecond();
+			if (null != policy) policy.compile();
+		}
+		
+		if (0 < maxEntries) {
+			CacheEntry loaded = new CacheEntry(policy, version, now);
+			boolean stored = (null == entry ? null == entries.putIfAbsent(bucketName, loaded) : entries.replace(bucketName, entry, loaded));
+			if (stored) evict();
+		}
+		return policy;
+	}
+	
+	/**
+	 * Records a policy just written by this instance.
+	 * 
+	 * @param policy - null if the bucket has no policy
+	 * @param version - as stored with the policy in the database, null if there is no policy
+	 */
+	public void put(String bucketName, S3BucketPolicy policy, Long version) {
+		if (0 >= maxEntries) return;
+		
+		if (null != policy) policy.compile();
+		entries.put(bucketName, new CacheEntry(policy, version, System.currentTimeMillis()));
+		evict();
+	}
+	
+	public void remove(String bucketName) {
+		entries.remove(bucketName);
+	}
+	
+	protected BucketPolicyDao newPolicyDao() {
+		return new BucketPolicyDao();
+	}
+	
+	/**
+	 * Once over the limit the least recently used tenth of the entries is dropped, so that the sort 
+	 * this takes is not repeated by every following load.
+	 */
+	private void evict() {
+		int limit = Math.max(0, maxEntries);
+		if (entries.size() <= limit) return;
+		
+		synchronized(this) {
+			if (entries.size() <= limit) return;
+			
+			List<Map.Entry<String, CacheEntry>> eldest = new ArrayList<Map.Entry<String, CacheEntry>>(entries.entrySet());
+			Collections.sort(eldest, new Comparator<Map.Entry<String, CacheEntry>>() {
+				public int compare(Map.Entry<String, CacheEntry> e1, Map.Entry<String, CacheEntry> e2) {
+					long t1 = e1.getValue().getLastUsed();
+					long t2 = e2.getValue().getLastUsed();
+					return t1 < t2 ? -1 : (t1 == t2 ? 0 : 1);
+				}
+			});
+			
+			int count = eldest.size() - limit + limit / 10;
+			for(int i = 0; i < count && i < eldest.size(); i++) {
+				Map.Entry<String, CacheEntry> oneEntry = eldest.get(i);
+				entries.remove(oneEntry.getKey(), oneEntry.getValue());
+			}
+		}
+	}
+	
+	public long getHits() {
+		return hits.get();
+	}
+	
+	public long getChecks() {
+		return checks.get();
+	}
+	
+	public long getLoads() {
+		return loads.get();
+	}
+	
+	public int getEntryCount() {
+		return entries.size();
+	}
+	
+	private static class CacheEntry {
+		private final S3BucketPolicy policy;
+		private final Long version;
+		private volatile long checkTime;
+		private volatile long lastUsed;
+		
+		public CacheEntry(S3BucketPolicy policy, Long version, long checkTime) {
+			this.policy = policy;
+			this.version = version;
+			this.checkTime = checkTime;
+			this.lastUsed = checkTime;
+		}
+		
+		public S3BucketPolicy getPolicy() {
+			return policy;
+		}
+		
+		public Long getVersion() {
+			return version;
+		}
+		
+		public long getCheckTime() {
+			return checkTime;
+		}
+		
+		public void setCheckTime(long checkTime) {
+			this.checkTime = checkTime;
+		}
+		
+		public long getLastUsed() {
+			return lastUsed;
+		}
+		
+		public void setLastUsed(long lastUsed) {
+			this.lastUsed = lastUsed;
+		}
+	}
+}
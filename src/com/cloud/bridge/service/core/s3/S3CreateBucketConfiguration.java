@@ -1,42 +1,42 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.bridge.service.core.s3;
-
-import com.cloud.bridge.util.XElement;
-import com.cloud.bridge.util.XSerializer;
-
-/**
- * @author Kelven Yang
- */
-public class S3CreateBucketConfiguration {
-	@XElement(name="LocationConstraint")
-	private String location;
-	
-	static {
-		XSerializer.registerRootType("CreateBucketConfiguration", S3CreateBucketConfiguration.class);
-	}
-	
-	public S3CreateBucketConfiguration() {
-	}
-
-	public String getLocation() {
-		return location;
-	}
-
-	public void setLocation(String location) {
-		this.location = location;
-	}
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service.core.s3;
+
+import com.cloud.bridge.util.XElement;
+import com.cloud.bridge.util.XSerializer;
+
+/**
+ * @author Kelven Yang
+ */
+public class S3CreateBucketConfiguration {
+	@XElement(name="LocationConstraint")
+	private String location;
+	
+	static {
+		XSerializer.registerRootType("CreateBucketConfiguration", S3CreateBucketConfiguration.class);
+	}
+	
+	public S3CreateBucketConfiguration() {
+	}
+
+	public String getLocation() {
+		return location;
+	}
+
+	public void setLocation(String location) {
+		this.location = location;
+	}
+}
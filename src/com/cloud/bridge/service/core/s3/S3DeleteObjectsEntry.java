@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service.core.s3;
+
+/**
+ * The outcome for one key of a multi-object delete, either what was deleted or why it was not.
+ */
+public class S3DeleteObjectsEntry {
+	protected String key;
+	protected String version;
+	protected String deleteMarkerVersion;
+	protected String errorCode;
+	protected String errorMessage;
+	
+	public S3DeleteObjectsEntry() {
+	}
+	
+	public S3DeleteObjectsEntry(String key, String version) {
+		this.key = key;
+		this.version = version;
+	}
+	
+	public String getKey() {
+		return key;
+	}
+	
+	public void setKey(String key) {
+		this.key = key;
+	}
+	
+	public String getVersion() {
+		return version;
+	}
+	
+	public void setVersion(String version) {
+		this.version = version;
+	}
+	
+	/**
+	 * @return the version id of the deletion marker written in place of the object, null if none was
+	 */
+	public String getDeleteMarkerVersion() {
+		return deleteMarkerVersion;
+	}
+	
+	public void setDeleteMarkerVersion(String deleteMarkerVersion) {
+		this.deleteMarkerVersion = deleteMarkerVersion;
+	}
+	
+	public String getErrorCode() {
+		return errorCode;
+	}
+	
+	public void setErrorCode(String errorCode) {
+		this.errorCode = errorCode;
+	}
+	
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+	
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service.core.s3;
+
+/**
+ * Deletes up to MAX_KEYS objects of one bucket in a single request, each is given as the 
+ * key and (optional) version of a delete object request.
+ */
+public class S3DeleteObjectsRequest extends S3Request {
+	public final static int MAX_KEYS = 1000;
+	
+	protected String bucketName;
+	protected boolean quiet;
+	protected S3DeleteObjectRequest[] objects;
+	
+	public S3DeleteObjectsRequest() {
+		super();
+		quiet = false;
+	}
+	
+	public String getBucketName() {
+		return bucketName;
+	}
+
+	public void setBucketName(String bucketName) {
+		this.bucketName = bucketName;
+	}
+	
+	/**
+	 * In quiet mode the response only reports the keys that could not be deleted.
+	 */
+	public boolean isQuiet() {
+		return quiet;
+	}
+	
+	public void setQuiet(boolean quiet) {
+		this.quiet = quiet;
+	}
+	
+	public S3DeleteObjectRequest[] getObjects() {
+		return objects;
+	}
+	
+	public void setObjects(S3DeleteObjectRequest[] objects) {
+		this.objects = objects;
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service.core.s3;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class S3DeleteObjectsResponse extends S3Response {
+	protected List<S3DeleteObjectsEntry> deleted = new ArrayList<S3DeleteObjectsEntry>();
+	protected List<S3DeleteObjectsEntry> errors = new ArrayList<S3DeleteObjectsEntry>();
+	
+	public S3DeleteObjectsResponse() {
+		super();
+	}
+	
+	public S3DeleteObjectsEntry[] getDeleted() {
+		return deleted.toArray(new S3DeleteObjectsEntry[0]);
+	}
+	
+	public void addDeleted(S3DeleteObjectsEntry entry) {
+		deleted.add(entry);
+	}
+	
+	public S3DeleteObjectsEntry[] getErrors() {
+		return errors.toArray(new S3DeleteObjectsEntry[0]);
+	}
+	
+	public void addError(S3DeleteObjectsEntry entry) {
+		errors.add(entry);
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service.core.s3;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.cloud.bridge.util.StringHelper;
+
+/**
+ * Builds one page of a ListBucket with its CommonPrefixes.   Rows are read in key order and every key 
+ * with the delimiter after the prefix is rolled up into a common prefix.   Once a prefix has been 
+ * emitted the rest of it is never read, the next query seeks past prefix + Character.MAX_VALUE, so listing the 
+ * top level "folders" of a bucket costs about one query per folder instead of one row per key.
+ * 
+ * As in S3, each content key and each common prefix counts towards max-keys.
+ */
+public abstract class S3ListBucketRollup<T> {
+	// -> rows asked for right after skipping a prefix, the batch doubles again while keys are listed
+	private final static int SEEK_BATCH_SIZE = 8;
+	
+	private final List<T> rows = new ArrayList<T>();
+	private final List<String> commonPrefixes = new ArrayList<String>();
+	private String nextMarker;
+	private int queryCount;
+	private int rowCount;
+	
+	/**
+	 * @return up to maxRows rows with a key greater than marker (if not empty) in key order
+	 */
+	protected abstract List<T> list(String marker, int maxRows);
+	
+	protected abstract String keyOf(T row);
+	
+	public S3ListBucketRollup<T> run(String prefix, String marker, String delimiter, int maxKeys) {
+		boolean rollup = (null != delimiter && !delimiter.isEmpty());
+		String cursor = (null == marker ? StringHelper.EMPTY_STRING : marker);
+		int count = 0;
+		int batchSize = maxKeys + 1;
+		
+		// -> a marker that falls in a common prefix (e.g., the NextMarker of the previous page) resumes after all of it
+		if (rollup && !cursor.isEmpty()) {
+			String markerPrefix = StringHelper.commonPrefix(cursor, prefix, delimiter);
+			if (null != markerPrefix) cursor = markerPrefix + Character.MAX_VALUE;
+		}
+		
+		while(true) {
+			int wanted = Math.min(batchSize, maxKeys - count + 1);
+			List<T> batch = list(cursor, wanted);
+			queryCount++;
+			rowCount += batch.size();
+			
+			String rolledUp = null;
+			for(T row : batch) {
+				String key = keyOf(row);
+				cursor = key;
+				if (null != rolledUp && key.startsWith(rolledUp)) continue;
+				rolledUp = null;
+				
+				// -> one more key than fits on the page, so the listing is truncated
+				if (count >= maxKeys) return this;
+				
+				String commonPrefix = (rollup ? StringHelper.commonPrefix(key, prefix, delimiter) : null);
+				if (null != commonPrefix) {
+					commonPrefixes.add(commonPrefix);
+					rolledUp = commonPrefix;
+					nextMarker = commonPrefix;
+				} else {
+					rows.add(row);
+					nextMarker = key;
+				}
+				count++;
+			}
+			
+			if (batch.size() < wanted) {
+				nextMarker = null;
+				return this;
+			}
+			
+			// -> skip the rest of a prefix that is already listed without reading it
+			if (null != rolledUp) {
+				cursor = rolledUp + Character.MAX_VALUE;
+				batchSize = SEEK_BATCH_SIZE;
+			} else {
+				batchSize = Math.min(batchSize * 2, maxKeys + 1);
+			}
+		}
+	}
+	
+	public List<T> getRows() {
+		return rows;
+	}
+	
+	public List<String> getCommonPrefixes() {
+		return commonPrefixes;
+	}
+	
+	public boolean isTruncated() {
+		return null != nextMarker;
+	}
+	
+	/**
+	 * @return the last key or common prefix on the page when it is truncated, otherwise null
+	 */
+	public String getNextMarker() {
+		return nextMarker;
+	}
+	
+	public int getQueryCount() {
+		return queryCount;
+	}
+	
+	public int getRowCount() {
+		return rowCount;
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service.core.s3;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.cloud.bridge.util.ConfigurationHelper;
+
+/**
+ * Keeps the bodies of small, frequently read objects in memory so a GET of such an object does not touch
+ * the file system.   Entries are keyed by bucket and key, and are only served for the version and ETag 
+ * the caller has just read from the database, so an entry that is out of date is never returned.   The 
+ * write and delete paths of S3Engine drop entries as well so their memory is released right away.
+ * 
+ * The total size of the cached bodies is bounded by a byte budget, the least recently used entries are 
+ * evicted first.   Bodies can be kept in direct buffers to keep a large cache out of the Java heap.
+ * 
+ * Settings in cloud-bridge.properties:
+ *   storage.cache.size          - byte budget of the cache, 0 disables it
+ *   storage.cache.maxObjectSize - larger objects are never cached
+ *   storage.cache.offHeap       - if true bodies are kept in direct buffers
+ */
+public class S3ObjectCache {
+	protected final static Logger logger = Logger.getLogger(S3ObjectCache.class);
+	
+	public final static long DEFAULT_CACHE_SIZE = 0;
+	public final static int DEFAULT_MAX_OBJECT_SIZE = 64 * 1024;
+	
+	private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<String, CacheEntry>(256, 0.75f, true);
+	private long cachedBytes = 0;
+	
+	private volatile long maxBytes = DEFAULT_CACHE_SIZE;
+	private volatile int maxObjectSize = DEFAULT_MAX_OBJECT_SIZE;
+	private volatile boolean offHeap = false;
+	
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	
+	public S3ObjectCache() {
+	}
+	
+	public void configure(Properties properties) {
+		maxBytes = ConfigurationHelper.getLongProperty(properties, "storage.cache.size", DEFAULT_CACHE_SIZE);
+		maxObjectSize = ConfigurationHelper.getIntProperty(properties, "storage.cache.maxObjectSize", DEFAULT_MAX_OBJECT_SIZE);
+		offHeap = ConfigurationHelper.getBooleanProperty(properties, "storage.cache.offHeap", false);
+		synchronized(this) {
+			evict();
+		}
+		
+		if (logger.isInfoEnabled())
+			logger.info("Object cache: size " + maxBytes + ", max object size " + maxObjectSize + ", off heap " + offHeap);
+	}
+	
+	public boolean isCacheable(long objectSize) {
+		return 0 < maxBytes && objectSize <= maxObjectSize && objectSize <= maxBytes;
+	}
+	
+	/**
+	 * @return a read only view of the cached body, null if it is not cached for this version and ETag 
+	 */
+	public ByteBuffer get(String bucketName, String key, String version, String eTag) {
+		CacheEntry entry;
+		synchronized(this) {
+			entry = entries.get(getEntryKey(bucketName, key));
+		}
+		
+		if (null != entry && entry.matches(version, eTag)) {
+			hits.incrementAndGet();
+			return entry.getBody().asReadOnlyBuffer();
+		}
+		misses.incrementAndGet();
+		return null;
+	}
+	
+	/**
+	 * Reads an object body and caches it.   The body is not cached if the stream does not hold 
+	 * exactly the expected number of bytes, e.g., when the object is being rewritten.
+	 * 
+	 * @return a read only view of the body, null if it was not read 
+	 */
+	public ByteBuffer put(String bucketName, String key, String version, String eTag, InputStream is, long length) throws IOException {
+		if (!isCacheable(length) || null == eTag) return null;
+		
+		byte[] data = new byte[(int)length];
+		int total = 0;
+		while(total < data.length) {
+			int len = is.read(data, total, data.length - total);
+			if (len < 0) return null;
+			total += len;
+		}
+		if (is.read() >= 0) return null;
+		
+		ByteBuffer body;
+		if (offHeap) {
+			body = ByteBuffer.allocateDirect(data.length);
+			body.put(data);
+			body.flip();
+		}
+		else body = ByteBuffer.wrap(data);
+		
+		CacheEntry entry = new CacheEntry(version, eTag, body);
+		synchronized(this) {
+			CacheEntry previous = entries.put(getEntryKey(bucketName, key), entry);
+			if (null != previous) cachedBytes -= previous.getSize();
+			cachedBytes += entry.getSize();
+			evict();
+		}
+		return body.asReadOnlyBuffer();
+	}
+	
+	public void invalidate(String bucketName, String key) {
+		synchronized(this) {
+			CacheEntry entry = entries.remove(getEntryKey(bucketName, key));
+			if (null != entry) cachedBytes -= entry.getSize();
+		}
+	}
+	
+	public void invalidateBucket(String bucketName) {
+		String prefix = bucketName + "/";
+		synchronized(this) {
+			Iterator<Map.Entry<String, CacheEntry>> it = entries.entrySet().iterator();
+			while(it.hasNext()) {
+				Map.Entry<String, CacheEntry> entry = it.next();
+				if (entry.getKey().startsWith(prefix)) {
+					cachedBytes -= entry.getValue().getSize();
+					it.remove();
+				}
+			}
+		}
+	}
+	
+	public long getHits() {
+		return hits.get();
+	}
+	
+	public long getMisses() {
+		return misses.get();
+	}
+	
+	public long getEvictions() {
+		return evictions.get();
+	}
+	
+	public synchronized int getEntryCount() {
+		return entries.size();
+	}
+	
+	public synchronized long getCachedBytes() {
+		return cachedBytes;
+	}
+	
+	/**
+	 * Must be called holding the cache lock
+	 */
+	private void evict() {
+		Iterator<CacheEntry> it = entries.values().iterator();
+		while(cachedBytes > maxBytes && it.hasNext()) {
+			CacheEntry entry = it.next();
+			cachedBytes -= entry.getSize();
+			it.remove();
+			evictions.incrementAndGet();
+		}
+	}
+	
+	private static String getEntryKey(String bucketName, String key) {
+		return bucketName + "/" + key;
+	}
+	
+	private static class CacheEntry {
+		private final String version;
+		private final String eTag;
+		private final ByteBuffer body;
+		
+		public CacheEntry(String version, String eTag, ByteBuffer body) {
+			this.version = version;
+			this.eTag = eTag;
+			this.body = body;
+		}
+		
+		public boolean matches(String version, String eTag) {
+			if (null == version ? null != this.version : !version.equals(this.version)) return false;
+			return this.eTag.equals(eTag);
+		}
+		
+		public ByteBuffer getBody() {
+			return body;
+		}
+		
+		public long getSize() {
+			return body.capacity();
+		}
+	}
+}
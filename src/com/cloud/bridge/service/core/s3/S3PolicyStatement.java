@@ -15,6 +15,8 @@
  */
 package com.cloud.bridge.service.core.s3;
 
+import java.util.regex.Pattern;
+
 import com.cloud.bridge.service.core.s3.S3BucketPolicy.PolicyAccess;
 import com.cloud.bridge.service.core.s3.S3PolicyAction.PolicyActions;
 import com.cloud.bridge.service.exception.PermissionDeniedException;
@@ -28,6 +30,7 @@ public class S3PolicyStatement {
     private PolicyActions notAction;
     private String resource;
     private String regexResource;
+    private Pattern resourcePattern;
     private S3PolicyConditionBlock block;
 	
 	public S3PolicyStatement() {
@@ -73,19 +76,19 @@ public class S3PolicyStatement {
 	public void setResource(String param) {
 		resource = param;
 		regexResource = StringHelper.toRegex( param );
+		resourcePattern = Pattern.compile( regexResource );
 	}
 	
 	/**
 	 * Is the pathToObject "contained" in the statement's resource defintion?
 	 * Since the resource can contain wild card characters of '*' and '?' then
-	 * treat it as a regular expression to match the path given.
+	 * treat it as a regular expression to match the path given.   The expression is
+	 * compiled once when the resource is set, not on every access check.
 	 */
 	public boolean containsResource(String pathToObject) {
-		if (null == resource) return false;
+		if (null == resourcePattern) return false;
 	
-		if (pathToObject.matches( regexResource )) return true;
-		
-		return false;
+		return resourcePattern.matcher( pathToObject ).matches();
 	}
 	
 	public PolicyActions getNotAction() {
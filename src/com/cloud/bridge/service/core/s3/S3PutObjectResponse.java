@@ -1,46 +1,46 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.bridge.service.core.s3;
-
-import java.util.Calendar;
-
-/**
- * @author Kelven Yang
- */
-public class S3PutObjectResponse extends S3Response {
-	protected String ETag;
-	protected Calendar lastModified;
-	
-	public S3PutObjectResponse() {
-		super();
-	}
-
-	public String getETag() {
-		return ETag;
-	}
-
-	public void setETag(String eTag) {
-		this.ETag = eTag;
-	}
-
-	public Calendar getLastModified() {
-		return lastModified;
-	}
-
-	public void setLastModified(Calendar lastModified) {
-		this.lastModified = lastModified;
-	}
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service.core.s3;
+
+import java.util.Calendar;
+
+/**
+ * @author Kelven Yang
+ */
+public class S3PutObjectResponse extends S3Response {
+	protected String ETag;
+	protected Calendar lastModified;
+	
+	public S3PutObjectResponse() {
+		super();
+	}
+
+	public String getETag() {
+		return ETag;
+	}
+
+	public void setETag(String eTag) {
+		this.ETag = eTag;
+	}
+
+	public Calendar getLastModified() {
+		return lastModified;
+	}
+
+	public void setLastModified(Calendar lastModified) {
+		this.lastModified = lastModified;
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.service.core.s3;
+
+import java.util.Calendar;
+
+import com.cloud.bridge.service.S3ObjectWriter;
+
+/**
+ * An inline PUT whose object item has been allocated while its data is still arriving, see
+ * S3Engine.beginPutObject.
+ */
+public class S3PutObjectUpload {
+	private final String bucketName;
+	private final long itemId;
+	private final long contentLength;
+	private final String version;
+	private final Calendar lastModified;
+	private final S3ObjectWriter writer;
+
+	public S3PutObjectUpload(String bucketName, long itemId, long contentLength, String version, Calendar lastModified, S3ObjectWriter writer) {
+		this.bucketName = bucketName;
+		this.itemId = itemId;
+		this.contentLength = contentLength;
+		this.version = version;
+		this.lastModified = lastModified;
+		this.writer = writer;
+	}
+
+	public String getBucketName() {
+		return bucketName;
+	}
+
+	public long getItemId() {
+		return itemId;
+	}
+
+	public long getContentLength() {
+		return contentLength;
+	}
+
+	public String getVersion() {
+		return version;
+	}
+
+	public Calendar getLastModified() {
+		return lastModified;
+	}
+
+	public S3ObjectWriter getWriter() {
+		return writer;
+	}
+}
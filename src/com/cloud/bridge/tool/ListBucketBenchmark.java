@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.tool;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.log4j.Logger;
+import org.apache.log4j.xml.DOMConfigurator;
+import org.hibernate.Session;
+
+import com.cloud.bridge.model.SBucket;
+import com.cloud.bridge.model.SObject;
+import com.cloud.bridge.model.SObjectItem;
+import com.cloud.bridge.persist.PersistContext;
+import com.cloud.bridge.persist.dao.SBucketDao;
+import com.cloud.bridge.persist.dao.SObjectItemDao;
+import com.cloud.bridge.service.core.s3.S3ListBucketRollup;
+import com.cloud.bridge.util.CloudSessionFactory;
+import com.cloud.bridge.util.ConfigurationHelper;
+import com.cloud.bridge.util.DateHelper;
+import com.cloud.bridge.util.StringHelper;
+
+/**
+ * Times a delimiter listing of a deep "folder" hierarchy through the query ListBucket runs, 
+ * SObjectItemDao.listLatestInBucket, against a database of its own.   The first run fills a synthetic 
+ * bucket there with a tree of keys (SObject and SObjectItem rows only, no content is stored), later runs 
+ * reuse it.   The top of the tree and a folder a level down are listed by reading every key under the 
+ * prefix, as ListBucket used to, and with the skip-scan of S3ListBucketRollup, rows read, queries issued 
+ * and the time taken are reported for both.
+ * 
+ * The database is created if it does not exist and its schema is kept up to date by hibernate.hbm2ddl.auto, 
+ * the other settings come from hibernate.cfg.xml.   A bucket the benchmark did not create is never written.
+ * 
+ * Usage: ListBucketBenchmark [-url=<JDBC URL>] [-user=<user>] [-password=<password>] [-bucket=<name>] [-fanout=<folders per folder>] 
+ *        [-depth=<levels>] [-files=<keys per folder>] [-maxKeys=<keys>] [-rounds=<n>]
+ */
+public class ListBucketBenchmark {
+    protected final static Logger logger = Logger.getLogger(ListBucketBenchmark.class);
+    
+	public final static String DEFAULT_URL = "jdbc:mysql://localhost/cloudbridge_benchmark?createDatabaseIfNotExist=true&rewriteBatchedStatements=true";
+	public final static String DEFAULT_BUCKET = "listbucket-benchmark";
+	
+	// -> the owner of the synthetic bucket, it marks the bucket as one the benchmark may fill
+	private final static String OWNER = "ListBucketBenchmark";
+	private final static String DELIMITER = "/";
+	private final static int BATCH_SIZE = 500;
+	private final static int SCAN_PAGE_SIZE = 1000;
+	
+	private int keyCount = 0;
+	
+	public static void main(String[] args) {
+		File file = ConfigurationHelper.findConfigurationFile("log4j-cloud-bridge.xml");
+		if (null != file) DOMConfigurator.configure(file.getAbsolutePath());
+		
+		System.exit((new ListBucketBenchmark()).run(args));
+	}
+	
+	// -> a JDBC URL has '=' in its own parameters
+	private static Map<String, String> getNamedParameters(String[] args) {
+		Map<String, String> params = new HashMap<String, String>();
+		for(int i = 0; i < args.length; i++) {
+			if(args[i].length() > 0 && args[i].charAt(0) == '-') {
+				String[] tokens = args[i].substring(1).split("=", 2);
+				if(tokens.length == 2) {
+					params.put(tokens[0], tokens[1]);
+				}
+			}
+		}
+		return params;
+	}
+	
+	private static int getInt(Map<String, String> params, String name, int defaultValue) {
+		String value = params.get(name);
+		return (null == value ? defaultValue : Integer.parseInt(value));
+	}
+	
+	private int run(String[] args) {
+		Map<String, String> params = getNamedParameters(args);
+		int fanout, depth, files, maxKeys, rounds;
+		try {
+			fanout  = getInt(params, "fanout", 10);
+			depth   = getInt(params, "depth", 3);
+			files   = getInt(params, "files", 10);
+			maxKeys = getInt(params, "maxKeys", 1000);
+			rounds  = getInt(params, "rounds", 5);
+		} catch(NumberFormatException e) {
+			System.out.println("Usage: ListBucketBenchmark [-url=<JDBC URL>] [-user=<user>] [-password=<password>] [-bucket=<name>] [-fanout=<folders per folder>] " 
+				+ "[-depth=<levels>] [-files=<keys per folder>] [-maxKeys=<keys>] [-rounds=<n>]");
+			return 1;
+		}
+		
+		Properties overrides = new Properties();
+		overrides.setProperty("hibernate.connection.url", null == params.get("url") ? DEFAULT_URL : params.get("url"));
+		if (null != params.get("user")) overrides.setProperty("hibernate.connection.username", params.get("user"));
+		if (null != params.get("password")) overrides.setProperty("hibernate.connection.password", params.get("password"));
+		CloudSessionFactory.setOverrides(overrides);
+		
+		String bucketName = (null == params.get("bucket") ? DEFAULT_BUCKET : params.get("bucket"));
+		try {
+			Long bucketId = prepareBucket(bucketName, fanout, depth, files);
+			if (null == bucketId) return 1;
+			
+			String[] prefixes = { StringHelper.EMPTY_STRING, "d0000/" };
+			for(String prefix : prefixes) {
+				System.out.println("Listing prefix '" + prefix + "' with delimiter '" + DELIMITER + "', max-keys " + maxKeys);
+				
+				for(int round = 0; round < rounds; round++) {
+					long start = System.nanoTime();
+					Result scan = listByScan(bucketId, prefix, maxKeys);
+					long scanTime = System.nanoTime() - start;
+					
+					start = System.nanoTime();
+					S3ListBucketRollup<SObjectItem> rollup = listBySkipScan(bucketId, prefix, maxKeys);
+					long skipTime = System.nanoTime() - start;
+					
+					if (0 == round) {
+						if (!scan.commonPrefixes.equals(rollup.getCommonPrefixes()) || scan.keys.size() != rollup.getRows().size()) {
+							System.out.println("  skip-scan listing differs from the full scan");
+							return 2;
+						}
+						System.out.println("  " + rollup.getCommonPrefixes().size() + " common prefixes, " + rollup.getRows().size() + " keys");
+					}
+					
+					System.out.println("  round " + round + ": full scan " + scan.rowCount + " rows / " + scan.queryCount + " queries in " + (scanTime / 1000000) 
+						+ " ms, skip-scan " + rollup.getRowCount() + " rows / " + rollup.getQueryCount() + " queries in " + (skipTime / 1000000) + " ms");
+				}
+			}
+			
+		} catch(Throwable e) {
+			logger.error("List bucket benchmark failed " + e.getMessage(), e);
+			PersistContext.rollbackTransaction();
+			System.out.println("List bucket benchmark failed: " + e.getMessage());
+			return 1;
+		}
+		return 0;
+	}
+	
+	/**
+	 * @return the id of the synthetic bucket, null if the bucket exists but was not created by the benchmark
+	 */
+	private Long prepareBucket(String bucketName, int fanout, int depth, int files) {
+		SBucketDao bucketDao = new SBucketDao();
+		SBucket bucket = bucketDao.getByName(bucketName, false);
+		if (null != bucket) {
+			Long bucketId = bucket.getId();
+			boolean synthetic = OWNER.equals(bucket.getOwnerCanonicalId());
+			PersistContext.commitTransaction();
+			PersistContext.closeSession();
+			
+			if (!synthetic) {
+				System.out.println("Bucket " + bucketName + " was not created by the benchmark, give another one with -bucket");
+				return null;
+			}
+			System.out.println("Listing the existing synthetic bucket " + bucketName + ", drop it to build another tree");
+			return bucketId;
+		}
+		
+		long start = System.currentTimeMillis();
+		PersistContext.beginTransaction();
+		bucket = new SBucket();
+		bucket.setName(bucketName);
+		bucket.setOwnerCanonicalId(OWNER);
+		bucket.setCreateTime(DateHelper.currentGMTTime());
+		bucketDao.save(bucket);
+		PersistContext.commitTransaction();
+		Long bucketId = bucket.getId();
+		PersistContext.closeSession();
+		
+		populate(bucketId, StringHelper.EMPTY_STRING, fanout, depth, files);
+		PersistContext.commitTransaction();
+		PersistContext.closeSession();
+		
+		System.out.println("Synthetic bucket " + bucketName + " of " + keyCount + " keys (fanout " + fanout + ", depth " + depth + ", " 
+			+ files + " keys per folder) built in " + (System.currentTimeMillis() - start) + " ms");
+		return bucketId;
+	}
+	
+	/**
+	 * Keys are added in key order, one transaction per BATCH_SIZE keys.
+	 */
+	private void populate(Long bucketId, String folder, int fanout, int depth, int files) {
+		if (depth > 0) {
+			for(int i = 0; i < fanout; i++) 
+				populate(bucketId, folder + String.format("d%04d/", i), fanout, depth - 1, files);
+		}
+		
+		for(int i = 0; i < files; i++) {
+			if (0 == keyCount % BATCH_SIZE) {
+				PersistContext.commitTransaction();
+				PersistContext.closeSession();
+				PersistContext.beginTransaction();
+			}
+			
+			Session session = PersistContext.getSession();
+			SBucket bucket = (SBucket)session.load(SBucket.class, bucketId);
+			Date ts = DateHelper.currentGMTTime();
+			
+			SObject object = new SObject();
+			object.setBucket(bucket);
+			object.setNameKey(folder + String.format("f%04d.dat", i));
+			object.setNextSequence(2);
+			object.setCreateTime(ts);
+			object.setOwnerCanonicalId(OWNER);
+			session.save(object);
+			
+			SObjectItem item = new SObjectItem();
+			item.setTheObject(object);
+			item.setCreateTime(ts);
+			item.setLastAccessTime(ts);
+			item.setLastModifiedTime(ts);
+			session.save(item);
+			object.setLatestItemId(item.getId());
+			keyCount++;
+		}
+	}
+	
+	/**
+	 * What the listing cost before: every key under the prefix is read and rolled up in memory
+	 */
+	private Result listByScan(Long bucketId, String prefix, int maxKeys) {
+		SBucket bucket = new SBucketDao().get(bucketId);
+		SObjectItemDao itemDao = new SObjectItemDao();
+		Result result = new Result();
+		String marker = StringHelper.EMPTY_STRING;
+		
+		while(true) {
+			List<SObjectItem> page = itemDao.listLatestInBucket(bucket, prefix, marker, SCAN_PAGE_SIZE);
+			result.queryCount++;
+			
+			for(SObjectItem item : page) {
+				String key = item.getTheObject().getNameKey();
+				marker = key;
+				result.rowCount++;
+				
+				String commonPrefix = StringHelper.commonPrefix(key, prefix, DELIMITER);
+				if (null == commonPrefix) {
+					if (result.keys.size() + result.commonPrefixes.size() < maxKeys) result.keys.add(key);
+				} else if (!commonPrefix.equals(result.lastPrefix)) {
+					if (result.keys.size() + result.commonPrefixes.size() < maxKeys) result.commonPrefixes.add(commonPrefix);
+					result.lastPrefix = commonPrefix;
+				}
+			}
+			if (page.size() < SCAN_PAGE_SIZE) break;
+		}
+		
+		PersistContext.commitTransaction();
+		PersistContext.closeSession();
+		return result;
+	}
+	
+	/**
+	 * The listing as S3Engine.listBucketContents does it
+	 */
+	private S3ListBucketRollup<SObjectItem> listBySkipScan(Long bucketId, final String prefix, int maxKeys) {
+		final SBucket bucket = new SBucketDao().get(bucketId);
+		final SObjectItemDao itemDao = new SObjectItemDao();
+		S3ListBucketRollup<SObjectItem> rollup = new S3ListBucketRollup<SObjectItem>() {
+			protected List<SObjectItem> list(String after, int maxRows) {
+				return itemDao.listLatestInBucket(bucket, prefix, after, maxRows);
+			}
+			protected String keyOf(SObjectItem item) {
+				return item.getTheObject().getNameKey();
+			}
+		}.run(prefix, null, DELIMITER, maxKeys);
+		
+		PersistContext.commitTransaction();
+		PersistContext.closeSession();
+		return rollup;
+	}
+	
+	private static class Result {
+		List<String> keys = new ArrayList<String>();
+		List<String> commonPrefixes = new ArrayList<String>();
+		String lastPrefix;
+		int rowCount;
+		int queryCount;
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.tool;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.apache.log4j.xml.DOMConfigurator;
+import org.hibernate.LockOptions;
+
+import com.cloud.bridge.model.SBucket;
+import com.cloud.bridge.model.SHost;
+import com.cloud.bridge.model.SObjectItem;
+import com.cloud.bridge.persist.PersistContext;
+import com.cloud.bridge.persist.dao.SBucketDao;
+import com.cloud.bridge.persist.dao.SHostDao;
+import com.cloud.bridge.persist.dao.SObjectItemDao;
+import com.cloud.bridge.service.S3FileSystemBucketAdapter;
+import com.cloud.bridge.util.ConfigurationHelper;
+import com.cloud.bridge.util.StoragePathHelper;
+
+/**
+ * Moves the object files of a storage host between the flat and the sharded layout while the service keeps
+ * running.   The host's layout is switched first so new objects are stored in the target layout, then each 
+ * existing file is renamed and its SObjectItem updated, one batch per transaction.   Until an item's new path 
+ * is committed the bucket adapter finds the file at either location, so readers never see it disappear.
+ * 
+ * Usage: StorageLayoutMigrationTool -host=<SHost id> [-root=<mounted root>] [-layout=sharded|flat] [-batch=<items>]
+ */
+public class StorageLayoutMigrationTool {
+    protected final static Logger logger = Logger.getLogger(StorageLayoutMigrationTool.class);
+    
+    private final static int DEFAULT_BATCH_SIZE = 500;
+    
+    private final S3FileSystemBucketAdapter adapter = new S3FileSystemBucketAdapter();
+    private int movedCount = 0;
+    private int skippedCount = 0;
+	
+	public static void main(String[] args) {
+		File file = ConfigurationHelper.findConfigurationFile("log4j-cloud-bridge.xml");
+		if (null != file) DOMConfigurator.configure(file.getAbsolutePath());
+		
+		System.exit((new StorageLayoutMigrationTool()).run(args));
+	}
+	
+	private static Map<String, String> getNamedParameters(String[] args) {
+		Map<String, String> params = new HashMap<String, String>();
+		for(int i = 0; i < args.length; i++) {
+			if(args[i].length() > 0 && args[i].charAt(0) == '-') {
+				String[] tokens = args[i].substring(1).split("=");
+				if(tokens.length == 2) {
+					params.put(tokens[0], tokens[1]);
+				}
+			}
+		}
+		return params;
+	}
+	
+	private int run(String[] args) {
+		Map<String, String> params = getNamedParameters(args);
+		if (null == params.get("host")) {
+			System.out.println("Usage: StorageLayoutMigrationTool -host=<SHost id> [-root=<mounted root>] [-layout=sharded|flat] [-batch=<items>]");
+			return 1;
+		}
+		
+		boolean sharded = !"flat".equalsIgnoreCase(params.get("layout"));
+		int batchSize = DEFAULT_BATCH_SIZE;
+		try {
+			if (null != params.get("batch")) batchSize = Integer.parseInt(params.get("batch"));
+		} catch(NumberFormatException e) {
+			System.out.println("Invalid batch size " + params.get("batch"));
+			return 1;
+		}
+		
+		try {
+			SHostDao shostDao = new SHostDao();
+			SHost shost = shostDao.get(new Long(params.get("host")));
+			if (null == shost) {
+				System.out.println("Storage host " + params.get("host") + " does not exist");
+				return 1;
+			}
+			
+			String mountedRoot = params.get("root");
+			if (null == mountedRoot) {
+				if (SHost.STORAGE_HOST_TYPE_NFS == shost.getHostType()) {
+					System.out.println("Storage host " + shost.getHost() + " is not local, its mount path must be given with -root");
+					return 1;
+				}
+				mountedRoot = shost.getExportRoot();
+			}
+			
+			// -> from now on new objects are stored in the target layout
+			shost.setLayout(sharded ? SHost.STORAGE_LAYOUT_SHARDED : SHost.STORAGE_LAYOUT_FLAT);
+			shostDao.update(shost);
+			PersistContext.commitTransaction();
+			long shostId = shost.getId().longValue();
+			PersistContext.closeSession();
+			
+			SBucketDao bucketDao = new SBucketDao();
+			List<SBucket> buckets = bucketDao.listByHost(shostId);
+			List<String> bucketNames = new ArrayList<String>();
+			List<Long> bucketIds = new ArrayList<Long>();
+			for(SBucket bucket : buckets) {
+				bucketNames.add(bucket.getName());
+				bucketIds.add(bucket.getId());
+			}
+			PersistContext.commitTransaction();
+			PersistContext.closeSession();
+			
+			for(int i = 0; i < bucketIds.size(); i++) 
+				migrateBucket(mountedRoot, bucketIds.get(i).longValue(), bucketNames.get(i), sharded, batchSize);
+			
+		} catch(Throwable e) {
+			logger.error("Storage layout migration failed " + e.getMessage(), e);
+			PersistContext.rollbackTransaction();
+			System.out.println("Storage layout migration failed: " + e.getMessage());
+			return 1;
+		}
+		
+		System.out.println("Moved " + movedCount + " object files, skipped " + skippedCount);
+		return 0;
+	}
+	
+	private void migrateBucket(String mountedRoot, long bucketId, String bucketName, boolean sharded, int batchSize) {
+		String bucketDir = adapter.getBucketFolderDir(mountedRoot, bucketName);
+		long lastItemId = 0;
+		
+		while(true) {
+			SObjectItemDao itemDao = new SObjectItemDao();
+			List<SObjectItem> items = itemDao.listByBucket(bucketId, lastItemId, batchSize);
+			if (items.isEmpty()) {
+				PersistContext.commitTransaction();
+				PersistContext.closeSession();
+				break;
+			}
+			
+			List<File[]> moved = new ArrayList<File[]>();
+			for(SObjectItem item : items) {
+				lastItemId = item.getId().longValue();
+				String storedPath = item.getStoredPath();
+				if (null == storedPath || sharded == StoragePathHelper.isSharded(storedPath)) continue;
+				
+				String targetPath = StoragePathHelper.getAlternatePath(storedPath);
+				if (null == targetPath) {
+					skippedCount++;
+					continue;
+				}
+				
+				PersistContext.getSession().buildLockRequest(LockOptions.UPGRADE).lock(item);
+				File source = new File(bucketDir + File.separatorChar + storedPath);
+				File target = new File(bucketDir + File.separatorChar + targetPath);
+				if (source.exists()) {
+					File folder = target.getParentFile();
+					if (!folder.exists()) folder.mkdirs();
+					if (!source.renameTo(target)) {
+						logger.warn("Unable to move " + source.getPath() + " to " + target.getPath());
+						skippedCount++;
+						continue;
+					}
+					moved.add(new File[] { source, target });
+				} else if (!target.exists()) {
+					// -> the item has no content yet (e.g., an upload still in progress)
+					skippedCount++;
+					continue;
+				}
+				
+				item.setStoredPath(targetPath);
+				itemDao.update(item);
+				movedCount++;
+			}
+			PersistContext.commitTransaction();
+			PersistContext.closeSession();
+			
+			// -> an overwrite that started before the commit may have recreated the file at its old path,
+			//    its content is newer than what was moved
+			for(File[] files : moved) {
+				if (files[0].exists()) {
+					files[1].delete();
+					if (!files[0].renameTo(files[1]))
+						logger.warn("Unable to move rewritten " + files[0].getPath() + ", run the migration again");
+				}
+			}
+			
+			if (logger.isInfoEnabled())
+				logger.info("Bucket " + bucketName + ": migrated items up to id " + lastItemId);
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import javax.activation.DataSource;
+
+/**
+ * Serves object data held in memory, heap or direct.   Every stream reads its own view of the buffer
+ * so one cached buffer can be shared by any number of concurrent readers.
+ */
+public class ByteBufferDataSource implements DataSource {
+	private final ByteBuffer buffer;
+	private final String name;
+	
+	/**
+	 * @param buffer - the data between its position and limit is served, the buffer itself is never modified
+	 */
+	public ByteBufferDataSource(ByteBuffer buffer, String name) {
+		this.buffer = buffer.asReadOnlyBuffer();
+		this.name = name;
+	}
+	
+	public long getLength() {
+		return buffer.remaining();
+	}
+	
+	/**
+	 * @return the bytes from startPos up to, not including, endPos as a data source sharing this one's buffer
+	 */
+	public ByteBufferDataSource slice(long startPos, long endPos) {
+		if (startPos < 0 || startPos > endPos || endPos > buffer.remaining())
+			throw new IllegalArgumentException("Invalid buffer range " + startPos + "-" + endPos);
+		
+		ByteBuffer range = buffer.duplicate();
+		range.position(buffer.position() + (int)startPos);
+		range.limit(buffer.position() + (int)endPos);
+		return new ByteBufferDataSource(range, name);
+	}
+	
+	public long writeTo(OutputStream os) throws IOException {
+		ByteBuffer data = buffer.duplicate();
+		byte[] chunk = new byte[Math.min(data.remaining(), 65536)];
+		long written = 0;
+		while (data.hasRemaining()) {
+			int len = Math.min(chunk.length, data.remaining());
+			data.get(chunk, 0, len);
+			os.write(chunk, 0, len);
+			written += len;
+		}
+		return written;
+	}
+	
+	@Override
+	public String getContentType() {
+		return "application/octet-stream";
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return new ByteBufferInputStream(buffer.duplicate());
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public OutputStream getOutputStream() throws IOException {
+		assert(false);
+		return null;
+	}
+	
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+		
+		public ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+		
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+		
+		@Override
+		public int read() {
+			if (!buffer.hasRemaining()) return -1;
+			return buffer.get() & 0xff;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (0 == len) return 0;
+			if (!buffer.hasRemaining()) return -1;
+			
+			len = Math.min(len, buffer.remaining());
+			buffer.get(b, off, len);
+			return len;
+		}
+		
+		@Override
+		public long skip(long n) {
+			if (n <= 0) return 0;
+			int skipped = (int)Math.min(n, buffer.remaining());
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+	}
+}
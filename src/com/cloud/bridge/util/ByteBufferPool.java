@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A bounded pool of equally sized direct buffers.   Allocating direct buffers is expensive and
+ * their memory is only reclaimed on GC, so buffers are reused across requests.   When the pool is
+ * empty a new buffer is allocated, and when it is full a released buffer is simply dropped.
+ */
+public class ByteBufferPool {
+	private final int bufferSize;
+	private final BlockingQueue<ByteBuffer> buffers;
+	
+	public ByteBufferPool(int bufferSize, int maxPooled) {
+		if (bufferSize <= 0 || maxPooled <= 0)
+			throw new IllegalArgumentException("Invalid buffer pool size " + bufferSize + "x" + maxPooled);
+		
+		this.bufferSize = bufferSize;
+		this.buffers = new ArrayBlockingQueue<ByteBuffer>(maxPooled);
+	}
+	
+	public int getBufferSize() {
+		return bufferSize;
+	}
+	
+	public ByteBuffer acquire() {
+		ByteBuffer buffer = buffers.poll();
+		if (null == buffer) 
+			buffer = ByteBuffer.allocateDirect(bufferSize);
+		
+		buffer.clear();
+		return buffer;
+	}
+	
+	public void release(ByteBuffer buffer) {
+		if (null != buffer && buffer.isDirect() && buffer.capacity() == bufferSize) 
+			buffers.offer(buffer);
+	}
+}
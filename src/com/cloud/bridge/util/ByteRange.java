@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One byte range of an HTTP "Range: bytes=..." header (RFC 2616 section 14.35), with inclusive
+ * first and last positions.   As parsed a range may be open ended ("500-") or a suffix ("-500"),
+ * resolve() turns it into absolute positions for a given content length.
+ */
+public class ByteRange {
+	private final long first;
+	private final long last;
+	
+	private ByteRange(long first, long last) {
+		this.first = first;
+		this.last = last;
+	}
+	
+	/**
+	 * @return the ranges in the order given, null if the header is not a valid byte range set in which 
+	 *         case the header is to be ignored
+	 */
+	public static List<ByteRange> parse(String header) {
+		if (null == header) return null;
+		
+		header = header.trim();
+		if (!header.toLowerCase().startsWith("bytes=")) return null;
+		
+		List<ByteRange> ranges = new ArrayList<ByteRange>();
+		String[] specs = header.substring(6).split(",");
+		try {
+			for(int i = 0; i < specs.length; i++) {
+				String spec = specs[i].trim();
+				int dash = spec.indexOf('-');
+				if (dash < 0) return null;
+				
+				String firstPos = spec.substring(0, dash).trim();
+				String lastPos = spec.substring(dash + 1).trim();
+				if (0 == firstPos.length()) {
+					// -> suffix range, the last N bytes
+					if (0 == lastPos.length()) return null;
+					long suffixLength = Long.parseLong(lastPos);
+					if (suffixLength < 0) return null;
+					ranges.add(new ByteRange(-1, suffixLength));
+				} else {
+					long first = Long.parseLong(firstPos);
+					long last = (0 == lastPos.length() ? -1 : Long.parseLong(lastPos));
+					if (first < 0 || (0 <= last && last < first)) return null;
+					ranges.add(new ByteRange(first, last));
+				}
+			}
+		} catch(NumberFormatException e) {
+			return null;
+		}
+		
+		return (ranges.isEmpty() ? null : ranges);
+	}
+	
+	/**
+	 * @return the range with absolute positions, null if no byte of the content is in the range
+	 */
+	public ByteRange resolve(long contentLength) {
+		if (first < 0) {
+			if (0 == last || 0 == contentLength) return null;
+			return new ByteRange(Math.max(0, contentLength - last), contentLength - 1);
+		}
+		
+		if (first >= contentLength) return null;
+		if (last < 0 || last >= contentLength) return new ByteRange(first, contentLength - 1);
+		return this;
+	}
+	
+	public long getFirst() {
+		return first;
+	}
+	
+	public long getLast() {
+		return last;
+	}
+	
+	/**
+	 * @return the position one past the last byte of a resolved range 
+	 */
+	public long getEnd() {
+		return last + 1;
+	}
+	
+	public long getLength() {
+		return last - first + 1;
+	}
+	
+	/**
+	 * @return the Content-Range header value of a resolved range
+	 */
+	public String toContentRange(long contentLength) {
+		return "bytes " + first + "-" + last + "/" + contentLength;
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Copies a stream into a file while computing its digest.   The calling thread reads the stream
+ * into pooled direct buffers and writes them to the FileChannel, each written buffer is then 
+ * handed to a digest stage running on a separate thread.   Hashing buffer N therefore overlaps the
+ * read and disk write of buffer N+1, instead of the two being serialized on one core.
+ * 
+ * The number of buffers in flight between the two stages is bounded by the pipeline depth, so a
+ * slow digest stage throttles the writer rather than consuming unbounded memory.
+ */
+public class DigestWritePipeline {
+    protected final static Logger logger = Logger.getLogger(DigestWritePipeline.class);
+
+    // -> marks the end of the stream for the digest stage
+	private static final ByteBuffer END_OF_STREAM = ByteBuffer.allocate(0);
+	
+	private final ByteBufferPool pool;
+	private final int depth;
+	private final ExecutorService digestExecutor;
+	
+	public DigestWritePipeline(ByteBufferPool pool, int depth, ExecutorService digestExecutor) {
+		this.pool = pool;
+		this.depth = Math.max(1, depth);
+		this.digestExecutor = digestExecutor;
+	}
+	
+	/**
+	 * @param is - source of the data, read until end of stream
+	 * @param channel - destination file, written from its current position
+	 * @param digests - each is updated with every byte written, complete when this function returns
+	 * @return the number of bytes written
+	 */
+	public long write(InputStream is, FileChannel channel, MessageDigest... digests) throws IOException {
+		BlockingQueue<ByteBuffer> queue = new ArrayBlockingQueue<ByteBuffer>(depth);
+		Future<Object> digestStage = digestExecutor.submit(new DigestTask(queue, digests));
+		ReadableByteChannel source = Channels.newChannel(is);
+		long totalLength = 0;
+		
+		try {
+			while(true) {
+				ByteBuffer buffer = pool.acquire();
+				int len = fill(source, buffer);
+				if (len <= 0) {
+					pool.release(buffer);
+					break;
+				}
+				
+				buffer.flip();
+				while(buffer.hasRemaining()) 
+					channel.write(buffer);
+				totalLength += len;
+				
+				// -> the digest stage now owns the buffer and returns it to the pool
+				buffer.rewind();
+				enqueue(queue, buffer, digestStage);
+			}
+		} finally {
+			enqueue(queue, END_OF_STREAM, digestStage);
+		}
+		
+		try {
+			digestStage.get();
+		} catch (InterruptedException e) {
+			throw new InterruptedIOException("Interrupted while waiting for digest");
+		} catch (ExecutionException e) {
+			throw new IOException("Unable to compute digest: " + e.getCause());
+		}
+		return totalLength;
+	}
+	
+	private static int fill(ReadableByteChannel source, ByteBuffer buffer) throws IOException {
+		int total = 0;
+		while(buffer.hasRemaining()) {
+			int len = source.read(buffer);
+			if (len < 0) break;
+			total += len;
+		}
+		return total;
+	}
+	
+	private static void enqueue(BlockingQueue<ByteBuffer> queue, ByteBuffer buffer, Future<Object> digestStage) throws IOException {
+		try {
+			while(!queue.offer(buffer, 1, TimeUnit.SECONDS)) {
+				if (digestStage.isDone())
+					throw new IOException("Digest stage terminated unexpectedly");
+			}
+		} catch (InterruptedException e) {
+			digestStage.cancel(true);
+			throw new InterruptedIOException("Interrupted while queuing buffer for digest");
+		}
+	}
+	
+	private class DigestTask implements Callable<Object> {
+		private final BlockingQueue<ByteBuffer> queue;
+		private final MessageDigest[] digests;
+		
+		public DigestTask(BlockingQueue<ByteBuffer> queue, MessageDigest[] digests) {
+			this.queue = queue;
+			this.digests = digests;
+		}
+		
+		@Override
+		public Object call() throws Exception {
+			while(true) {
+				ByteBuffer buffer = queue.take();
+				if (buffer == END_OF_STREAM) 
+					return null;
+				
+				try {
+					for(int i = 0; i < digests.length; i++) {
+						buffer.rewind();
+						digests[i].update(buffer);
+					}
+				} finally {
+					pool.release(buffer);
+				}
+			}
+		}
+	}
+}
@@ -1,61 +1,148 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.bridge.util;
-
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-
-import javax.activation.DataSource;
-
-import org.apache.log4j.Logger;
-
-/**
- * @author Kelven Yang
- */
-public class FileRangeDataSource implements DataSource {
-    protected final static Logger logger = Logger.getLogger(FileRangeDataSource.class);
-    
-	private FileRangeInputStream is;
-	
-	public FileRangeDataSource(File file, long startPos, long endPos) throws IOException {
-		is = new FileRangeInputStream(file, startPos, endPos);
-	}
-
-	@Override
-	public String getContentType() {
-		assert(false);
-		return null;
-	}
-
-	@Override
-	public InputStream getInputStream() throws IOException {
-		return is;
-	}
-
-	@Override
-	public String getName() {
-		assert(false);
-		return null;
-	}
-
-	@Override
-	public OutputStream getOutputStream() throws IOException {
-		assert(false);
-		return null;
-	}
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.util;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+import javax.activation.DataSource;
+
+import org.apache.log4j.Logger;
+
+/**
+ * @author Kelven Yang
+ */
+public class FileRangeDataSource implements DataSource {
+    protected final static Logger logger = Logger.getLogger(FileRangeDataSource.class);
+    
+	private File file;
+	private long startPos;
+	private long endPos;
+	
+	public FileRangeDataSource(File file, long startPos, long endPos) throws IOException {
+		if(!file.exists())
+			throw new FileNotFoundException(file.getAbsolutePath());
+		
+		long fileLength = file.length();
+		if(startPos > fileLength)
+			startPos = fileLength;
+		
+		if(endPos > fileLength)
+			endPos = fileLength;
+		
+		if(startPos > endPos)
+			throw new IllegalArgumentException("Invalid file range " + startPos + "-" + endPos);
+
+		this.file = file;
+		this.startPos = startPos;
+		this.endPos = endPos;
+	}
+
+	public File getFile() {
+		return file;
+	}
+	
+	public long getStartPos() {
+		return startPos;
+	}
+	
+	/**
+	 * @return the position one past the last byte of the range 
+	 */
+	public long getEndPos() {
+		return endPos;
+	}
+	
+	public long getLength() {
+		return endPos - startPos;
+	}
+	
+	/**
+	 * Stream the range into the target with FileChannel.transferTo so that the kernel can move
+	 * the bytes without copying them through a heap buffer.
+	 * 
+	 * @param target - channel exposed by the servlet container (or any other writable channel)
+	 * @return the number of bytes written
+	 */
+	public long transferTo(WritableByteChannel target) throws IOException {
+		FileChannel channel = new RandomAccessFile(file, "r").getChannel();
+		try {
+			long pos = startPos;
+			while(pos < endPos) {
+				long transferred = channel.transferTo(pos, endPos - pos, target);
+				
+				// -> the file has been truncated underneath us
+				if(transferred <= 0)
+					break;
+				pos += transferred;
+			}
+			return pos - startPos;
+		} finally {
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Write the range into the stream, streams that are channels get the bytes with transferTo.
+	 * 
+	 * @return the number of bytes written
+	 */
+	public long writeTo(OutputStream os) throws IOException {
+		if (os instanceof WritableByteChannel)
+			return transferTo((WritableByteChannel)os);
+		
+		InputStream is = getInputStream();
+		try {
+			byte[] data = new byte[64 * 1024];
+			long total = 0;
+			int length = 0;
+			while((length = is.read(data)) > 0) {
+				os.write(data, 0, length);
+				total += length;
+			}
+			return total;
+		} finally {
+			is.close();
+		}
+	}
+	
+	@Override
+	public String getContentType() {
+		return "application/octet-stream";
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return new FileRangeInputStream(file, startPos, endPos);
+	}
+
+	@Override
+	public String getName() {
+		return file.getName();
+	}
+
+	@Override
+	public OutputStream getOutputStream() throws IOException {
+		assert(false);
+		return null;
+	}
+}
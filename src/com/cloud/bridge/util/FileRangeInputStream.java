@@ -1,96 +1,150 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.bridge.util;
-
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.RandomAccessFile;
-
-/**
- * @author Kelven Yang
- */
-public class FileRangeInputStream extends InputStream {
-	private RandomAccessFile randomAccessFile;
-	private long curPos;
-	private long endPos; 
-	private long fileLength;
-	
-	public FileRangeInputStream(File file, long startPos, long endPos) throws IOException {
-		fileLength = file.length();
-		
-		if(startPos > fileLength)
-			startPos = fileLength;
-		
-		if(endPos > fileLength)
-			endPos = fileLength;
-		
-		if(startPos > endPos)
-			throw new IllegalArgumentException("Invalid file range " + startPos + "-" + endPos);
-
-		this.curPos = startPos;
-		this.endPos = endPos;
-		randomAccessFile = new RandomAccessFile(file, "r");
-		randomAccessFile.seek(startPos);
-	}
-	
-	@Override
-	public int available() throws IOException {
-		return (int)(endPos - curPos);
-	}
-
-	@Override
-	public int read() throws IOException {
-		if(available() > 0) {
-			int value = randomAccessFile.read();
-			curPos++;
-			return value;
-		}
-		return -1;
-	}
-	
-	@Override
-	public int read(byte[] b) throws IOException {
-		return read(b, 0, b.length);
-	}
-	
-	@Override
-	public int read(byte[] b, int off, int len) throws IOException {
-		int bytesToRead = Math.min(len, available());
-		if(bytesToRead == 0)
-			return -1;
-		
-		int bytesRead = randomAccessFile.read(b, off, bytesToRead);
-		if(bytesRead < 0)
-			return -1;
-		
-		curPos += bytesRead;
-		return bytesRead;
-	}
-	
-	@Override
-	public long skip(long n) throws IOException {
-		long skipped = Math.min(n, available());
-		randomAccessFile.skipBytes((int)skipped);
-		curPos += skipped;
-		return skipped;
-	}
-	
-	@Override
-	public void close() throws IOException {
-		randomAccessFile.close();
-	}
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a range of a file with positional FileChannel reads.   No file pointer is shared, so several
+ * streams can read different ranges of one channel, and bulk reads go straight into the caller's array.
+ * Single byte reads are served from a small buffer instead of a read call per byte.
+ * 
+ * @author Kelven Yang
+ */
+public class FileRangeInputStream extends InputStream {
+	private static final int BUFFER_SIZE = 8192;
+	
+	private final FileChannel channel;
+	private final boolean ownsChannel;
+	private long curPos;
+	private long endPos; 
+	
+	// -> holds the bytes starting at curPos that were read ahead for read()
+	private ByteBuffer buffer;
+	
+	public FileRangeInputStream(File file, long startPos, long endPos) throws IOException {
+		this(new RandomAccessFile(file, "r").getChannel(), startPos, endPos, true);
+	}
+	
+	/**
+	 * @param channel - left open when this stream is closed
+	 */
+	public FileRangeInputStream(FileChannel channel, long startPos, long endPos) throws IOException {
+		this(channel, startPos, endPos, false);
+	}
+	
+	private FileRangeInputStream(FileChannel channel, long startPos, long endPos, boolean ownsChannel) throws IOException {
+		long fileLength = channel.size();
+		
+		if(startPos > fileLength)
+			startPos = fileLength;
+		
+		if(endPos > fileLength)
+			endPos = fileLength;
+		
+		if(startPos > endPos) {
+			if(ownsChannel) channel.close();
+			throw new IllegalArgumentException("Invalid file range " + startPos + "-" + endPos);
+		}
+
+		this.channel = channel;
+		this.ownsChannel = ownsChannel;
+		this.curPos = startPos;
+		this.endPos = endPos;
+	}
+	
+	@Override
+	public int available() throws IOException {
+		return (int)Math.min(endPos - curPos, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public int read() throws IOException {
+		if(buffer == null) {
+			buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			buffer.limit(0);
+		}
+		
+		if(!buffer.hasRemaining()) {
+			long remaining = endPos - curPos;
+			if(remaining <= 0)
+				return -1;
+			
+			buffer.clear();
+			buffer.limit((int)Math.min(BUFFER_SIZE, remaining));
+			int bytesRead = channel.read(buffer, curPos);
+			buffer.flip();
+			if(bytesRead <= 0)
+				return -1;
+		}
+		
+		curPos++;
+		return buffer.get() & 0xff;
+	}
+	
+	@Override
+	public int read(byte[] b) throws IOException {
+		return read(b, 0, b.length);
+	}
+	
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if(len == 0)
+			return 0;
+		
+		// -> bytes read ahead by read() come first
+		if(buffer != null && buffer.hasRemaining()) {
+			int bytesToCopy = Math.min(len, buffer.remaining());
+			buffer.get(b, off, bytesToCopy);
+			curPos += bytesToCopy;
+			return bytesToCopy;
+		}
+		
+		int bytesToRead = (int)Math.min(len, endPos - curPos);
+		if(bytesToRead <= 0)
+			return -1;
+		
+		int bytesRead = channel.read(ByteBuffer.wrap(b, off, bytesToRead), curPos);
+		if(bytesRead <= 0)
+			return -1;
+		
+		curPos += bytesRead;
+		return bytesRead;
+	}
+	
+	@Override
+	public long skip(long n) throws IOException {
+		if(n <= 0)
+			return 0;
+		
+		long skipped = Math.min(n, endPos - curPos);
+		curPos += skipped;
+		if(buffer != null)
+			buffer.limit(0);
+		return skipped;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		if(ownsChannel)
+			channel.close();
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Shares one read only mapping of an object file between all the requests reading it, so concurrent 
+ * GETs of a hot object are served out of the same page cache pages without each of them opening 
+ * and reading the file.   The total size of the mappings held by the cache is bounded, the least 
+ * recently used ones are dropped first.
+ * 
+ * A mapping is only unmapped once the cache has dropped it and no reader holds it any longer, touching 
+ * an unmapped buffer crashes the JVM.   Unmapping relies on the buffer's cleaner, which is not part of 
+ * the public API, when it is not available the mapping is left to the garbage collector.
+ */
+public class MappedFileCache {
+	protected final static Logger logger = Logger.getLogger(MappedFileCache.class);
+	
+	private final LinkedHashMap<String, MappedRegion> regions = new LinkedHashMap<String, MappedRegion>(64, 0.75f, true);
+	private final long maxBytes;
+	private final long minFileSize;
+	private final long maxFileSize;
+	private long mappedBytes = 0;
+	
+	/**
+	 * @param maxBytes - total size of the mappings kept by the cache
+	 * @param minFileSize - smaller files are cheaper to read than to map
+	 * @param maxFileSize - larger files are never mapped, a mapping can not exceed 2GB
+	 */
+	public MappedFileCache(long maxBytes, long minFileSize, long maxFileSize) {
+		this.maxBytes = maxBytes;
+		this.minFileSize = minFileSize;
+		this.maxFileSize = Math.min(maxFileSize, Integer.MAX_VALUE);
+	}
+	
+	public boolean isMappable(long fileSize) {
+		return minFileSize <= fileSize && fileSize <= maxFileSize && fileSize <= maxBytes;
+	}
+	
+	/**
+	 * Every region acquired has to be released once the caller is done reading it.
+	 * 
+	 * @return the mapping of the file's current contents, null if the file is not mapped
+	 */
+	public synchronized MappedRegion acquire(File file) throws IOException {
+		long length = file.length();
+		long lastModified = file.lastModified();
+		if (!isMappable(length)) return null;
+		
+		String path = file.getAbsolutePath();
+		MappedRegion region = regions.get(path);
+		if (null != region && !region.matches(length, lastModified)) {
+			regions.remove(path);
+			retire(region);
+			region = null;
+		}
+		
+		if (null == region) {
+			RandomAccessFile raf = new RandomAccessFile(file, "r");
+			try {
+				FileChannel channel = raf.getChannel();
+				region = new MappedRegion(path, length, lastModified, channel.map(FileChannel.MapMode.READ_ONLY, 0, length));
+			} finally {
+				raf.close();
+			}
+			regions.put(path, region);
+			mappedBytes += region.getLength();
+			evict();
+		}
+		
+		region.refs++;
+		return region;
+	}
+	
+	public synchronized void release(MappedRegion region) {
+		region.refs--;
+		if (region.evicted && 0 == region.refs) unmap(region.buffer);
+	}
+	
+	/**
+	 * Drops the mapping of a file about to be rewritten or deleted, some platforms refuse to do either 
+	 * while the file is mapped.
+	 */
+	public synchronized void invalidate(File file) {
+		MappedRegion region = regions.remove(file.getAbsolutePath());
+		if (null != region) retire(region);
+	}
+	
+	public synchronized int getRegionCount() {
+		return regions.size();
+	}
+	
+	public synchronized long getMappedBytes() {
+		return mappedBytes;
+	}
+	
+	/**
+	 * Must be called holding the cache lock
+	 */
+	private void evict() {
+		Iterator<MappedRegion> it = regions.values().iterator();
+		while(mappedBytes > maxBytes && it.hasNext()) {
+			MappedRegion region = it.next();
+			it.remove();
+			retire(region);
+		}
+	}
+	
+	/**
+	 * Must be called holding the cache lock, the region has already been removed from the map
+	 */
+	private void retire(MappedRegion region) {
+		mappedBytes -= region.getLength();
+		region.evicted = true;
+		if (0 == region.refs) unmap(region.buffer);
+	}
+	
+	/**
+	 * Best effort, the cleaner is reached through reflection since it is not part of the public API.
+	 */
+	private static void unmap(MappedByteBuffer buffer) {
+		try {
+			Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(buffer);
+			if (null != cleaner) cleaner.getClass().getMethod("clean").invoke(cleaner);
+			return;
+		} catch(Throwable e) {
+			// -> not a JVM with a public cleaner method
+		}
+		
+		// -> newer JVMs only expose the cleaner through Unsafe
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field field = unsafeClass.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(field.get(null), buffer);
+		} catch(Throwable e) {
+			if (logger.isDebugEnabled())
+				logger.debug("Unable to unmap buffer, left to the garbage collector: " + e.getMessage());
+		}
+	}
+	
+	public static class MappedRegion {
+		private final String path;
+		private final long length;
+		private final long lastModified;
+		private final MappedByteBuffer buffer;
+		
+		// -> guarded by the cache lock
+		private int refs = 0;
+		private boolean evicted = false;
+		
+		private MappedRegion(String path, long length, long lastModified, MappedByteBuffer buffer) {
+			this.path = path;
+			this.length = length;
+			this.lastModified = lastModified;
+			this.buffer = buffer;
+		}
+		
+		public String getPath() {
+			return path;
+		}
+		
+		public long getLength() {
+			return length;
+		}
+		
+		/**
+		 * @return an independent read only view of the whole mapping, only valid until the region is released
+		 */
+		public ByteBuffer getBuffer() {
+			return buffer.asReadOnlyBuffer();
+		}
+		
+		private boolean matches(long length, long lastModified) {
+			return this.length == length && this.lastModified == lastModified;
+		}
+	}
+}
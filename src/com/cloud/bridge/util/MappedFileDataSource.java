@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import com.cloud.bridge.util.MappedFileCache.MappedRegion;
+
+/**
+ * A file range read out of the mapping shared through a MappedFileCache.   Targets that are channels 
+ * still get the range with transferTo, which needs no mapping, and when the cache does not map the 
+ * file the range is read from the file as by FileRangeDataSource.
+ */
+public class MappedFileDataSource extends FileRangeDataSource {
+	private final MappedFileCache cache;
+	
+	public MappedFileDataSource(MappedFileCache cache, File file, long startPos, long endPos) throws IOException {
+		super(file, startPos, endPos);
+		this.cache = cache;
+	}
+	
+	@Override
+	public long writeTo(OutputStream os) throws IOException {
+		if (os instanceof WritableByteChannel)
+			return super.writeTo(os);
+		
+		MappedRegion region = cache.acquire(getFile());
+		if (null == region)
+			return super.writeTo(os);
+		
+		try {
+			ByteBuffer buffer = getRange(region);
+			long total = buffer.remaining();
+			byte[] data = new byte[(int)Math.min(64 * 1024, Math.max(1, total))];
+			while(buffer.hasRemaining()) {
+				int length = Math.min(data.length, buffer.remaining());
+				buffer.get(data, 0, length);
+				os.write(data, 0, length);
+			}
+			return total;
+		} finally {
+			cache.release(region);
+		}
+	}
+	
+	@Override
+	public InputStream getInputStream() throws IOException {
+		MappedRegion region = cache.acquire(getFile());
+		if (null == region)
+			return super.getInputStream();
+		
+		return new MappedRegionInputStream(cache, region, getRange(region));
+	}
+	
+	private ByteBuffer getRange(MappedRegion region) {
+		ByteBuffer buffer = region.getBuffer();
+		buffer.limit((int)Math.min(getEndPos(), region.getLength()));
+		buffer.position((int)Math.min(getStartPos(), buffer.limit()));
+		return buffer;
+	}
+	
+	/**
+	 * Holds the region until the stream is closed or read to its end, the buffer is never touched 
+	 * after the region has been released.
+	 */
+	private static class MappedRegionInputStream extends InputStream {
+		private final MappedFileCache cache;
+		private MappedRegion region;
+		private ByteBuffer buffer;
+		
+		public MappedRegionInputStream(MappedFileCache cache, MappedRegion region, ByteBuffer buffer) {
+			this.cache = cache;
+			this.region = region;
+			this.buffer = buffer;
+		}
+		
+		@Override
+		public int available() {
+			return (null == buffer ? 0 : buffer.remaining());
+		}
+		
+		@Override
+		public int read() {
+			if (null == buffer) return -1;
+			if (!buffer.hasRemaining()) {
+				close();
+				return -1;
+			}
+			return buffer.get() & 0xff;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (0 == len) return 0;
+			if (null == buffer) return -1;
+			if (!buffer.hasRemaining()) {
+				close();
+				return -1;
+			}
+			
+			len = Math.min(len, buffer.remaining());
+			buffer.get(b, off, len);
+			return len;
+		}
+		
+		@Override
+		public long skip(long n) {
+			if (null == buffer || n <= 0) return 0;
+			int skipped = (int)Math.min(n, buffer.remaining());
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+		
+		@Override
+		public synchronized void close() {
+			if (null != region) {
+				buffer = null;
+				cache.release(region);
+				region = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.util;
+
+/**
+ * Builds the XML document of the CloudStats admin action, one element per section holding one
+ * element per counter:
+ * 
+ *   <CloudStats><ObjectCache><Hits>10</Hits>...</ObjectCache>...</CloudStats>
+ */
+public class StatsWriter {
+	private final static String ROOT = "CloudStats";
+	
+	private final StringBuffer xml = new StringBuffer();
+	private String section;
+	
+	public StatsWriter() {
+		xml.append( "<?xml version=\"1.0\" encoding=\"utf-8\"?><" ).append( ROOT ).append( ">" );
+	}
+	
+	public StatsWriter beginSection(String name) {
+		endSection();
+		section = name;
+		xml.append( "<" ).append( name ).append( ">" );
+		return this;
+	}
+	
+	public StatsWriter add(String name, long value) {
+		xml.append( "<" ).append( name ).append( ">" ).append( value ).append( "</" ).append( name ).append( ">" );
+		return this;
+	}
+	
+	public StatsWriter endSection() {
+		if (null != section) xml.append( "</" ).append( section ).append( ">" );
+		section = null;
+		return this;
+	}
+	
+	public String toXml() {
+		endSection();
+		return xml.toString() + "</" + ROOT + ">";
+	}
+}
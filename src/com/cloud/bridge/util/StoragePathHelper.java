@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.util;
+
+/**
+ * Object files are named after their SObjectItem id.   With the flat layout every object of a bucket 
+ * lives directly in the bucket folder, with the sharded layout the file is placed two directory levels
+ * down, each level one of 256 sub-folders picked from the low bytes of the item id (e.g., "39/30/12345.jpg"). 
+ * Since ids are allocated sequentially consecutive uploads are spread evenly over all 65536 folders.
+ */
+public class StoragePathHelper {
+	public static final char SEPARATOR = '/';
+	
+	public static String getFlatPath(long itemId, String suffix) {
+		if (null == suffix) return String.valueOf(itemId);
+		return String.valueOf(itemId) + suffix;
+	}
+	
+	public static String getShardedPath(long itemId, String suffix) {
+		StringBuffer sb = new StringBuffer();
+		appendHexByte(sb, (int)(itemId & 0xff));
+		sb.append(SEPARATOR);
+		appendHexByte(sb, (int)((itemId >> 8) & 0xff));
+		sb.append(SEPARATOR);
+		sb.append(getFlatPath(itemId, suffix));
+		return sb.toString();
+	}
+	
+	public static boolean isSharded(String storedPath) {
+		return storedPath.indexOf(SEPARATOR) >= 0;
+	}
+	
+	/**
+	 * A file that is moved between the two layouts keeps its name, while an object is being migrated 
+	 * a reader may hold either path so the file is looked up at the other location as well.
+	 * 
+	 * @return the same file in the other layout, or null if the file is not named after an item id
+	 */
+	public static String getAlternatePath(String storedPath) {
+		String fileName = storedPath.substring(storedPath.lastIndexOf(SEPARATOR) + 1);
+		int dotPos = fileName.indexOf('.');
+		String idPart = (dotPos >= 0 ? fileName.substring(0, dotPos) : fileName);
+		String suffix = (dotPos >= 0 ? fileName.substring(dotPos) : null);
+		
+		long itemId;
+		try {
+			itemId = Long.parseLong(idPart);
+		} catch(NumberFormatException e) {
+			return null;
+		}
+		
+		if (isSharded(storedPath)) return fileName;
+		return getShardedPath(itemId, suffix);
+	}
+	
+	private static void appendHexByte(StringBuffer sb, int b) {
+		if (b < 0x10) sb.append('0');
+		sb.append(Integer.toHexString(b));
+	}
+}
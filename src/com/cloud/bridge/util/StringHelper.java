@@ -1,94 +1,145 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.bridge.util;
-
-import java.io.IOException;
-import java.io.InputStream;
-
-/**
- * @author Kelven
- */
-public class StringHelper {
-	public static final String EMPTY_STRING = "";
-
-	private static final char[] hexChars = { '0','1','2','3','4','5','6','7','8','9','A','B','C','D','E','F' }; 
-	
-	public static String toHexString(byte[] b) {
-		StringBuffer sb = new StringBuffer();
-		for (int i = 0; i < b.length; i++) {
-			sb.append(hexChars[ (int)(((int)b[i] >> 4) & 0x0f)]);
-			sb.append(hexChars[ (int)(((int)b[i]) & 0x0f)]);
-		}
-	    return sb.toString(); 
-	}
-	
-	public static String substringInBetween(String name, 
-		String prefix, String delimiter) {
-		
-		int startPos = 0;
-		if(prefix != null)
-			startPos = prefix.length() + 1;
-		
-		int endPos = name.indexOf(delimiter, startPos);
-		if(endPos > 0)
-			return name.substring(startPos, endPos);
-		
-		return null;
-	}
-	
-	public static String stringFromStream(InputStream is) throws IOException {
-		StringBuffer sb = new StringBuffer();
-	    byte[] b = new byte[4096];
-	    int n;
-	    while((n = is.read(b)) != -1) {
-	        sb.append(new String(b, 0, n));
-	    }
-	    return sb.toString();
-	}
-	
-	/**
-	 * Convert the string into a regex to allow easy matching.  In both S3 and EC2 regex strings
-	 * are used for matching.  We must remember to quote all special regex characters that appear 
-	 * in the string.
-	 */
-	public static String toRegex(String param) 
-	{
-		StringBuffer regex = new StringBuffer();
-		for( int i=0; i < param.length(); i++ ) 
-		{
-			char next = param.charAt( i );
-			     if ('*'  == next) regex.append( ".+"   );   // -> multi-character match wild card
-			else if ('?'  == next) regex.append( "."    );   // -> single-character match wild card
-			else if ('.'  == next) regex.append( "\\."  );   // all of these are special regex characters we are quoting
-			else if ('+'  == next) regex.append( "\\+"  );   
-			else if ('$'  == next) regex.append( "\\$"  );   
-			else if ('\\' == next) regex.append( "\\\\" );  
-			else if ('['  == next) regex.append( "\\["  );   
-			else if (']'  == next) regex.append( "\\]"  );   
-			else if ('{'  == next) regex.append( "\\{"  );   
-			else if ('}'  == next) regex.append( "\\}"  );   
-			else if ('('  == next) regex.append( "\\("  );   
-			else if (')'  == next) regex.append( "\\)"  );   
-			else if ('&'  == next) regex.append( "\\&"  );   
-			else if ('^'  == next) regex.append( "\\^"  );   
-			else if ('-'  == next) regex.append( "\\-"  );   
-			else if ('|'  == next) regex.append( "\\|"  );   
-			else regex.append( next );
-		}
-		
-		return regex.toString();
-	}
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.bridge.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @author Kelven
+ */
+public class StringHelper {
+	public static final String EMPTY_STRING = "";
+
+	private static final char[] hexChars = { '0','1','2','3','4','5','6','7','8','9','A','B','C','D','E','F' }; 
+	
+	public static String toHexString(byte[] b) {
+		StringBuffer sb = new StringBuffer();
+		for (int i = 0; i < b.length; i++) {
+			sb.append(hexChars[ (int)(((int)b[i] >> 4) & 0x0f)]);
+			sb.append(hexChars[ (int)(((int)b[i]) & 0x0f)]);
+		}
+	    return sb.toString(); 
+	}
+	
+	/**
+	 * @return null if the string is not an even length sequence of hex digits
+	 */
+	public static byte[] fromHexString(String hex) {
+		if (null == hex || 0 != (hex.length() % 2)) return null;
+		
+		byte[] b = new byte[hex.length() / 2];
+		for (int i = 0; i < b.length; i++) {
+			int high = Character.digit(hex.charAt(2*i), 16);
+			int low  = Character.digit(hex.charAt(2*i + 1), 16);
+			if (high < 0 || low < 0) return null;
+			b[i] = (byte)((high << 4) | low);
+		}
+		return b;
+	}
+	
+	public static String substringInBetween(String name, 
+		String prefix, String delimiter) {
+		
+		int startPos = 0;
+		if(prefix != null)
+			startPos = prefix.length() + 1;
+		
+		int endPos = name.indexOf(delimiter, startPos);
+		if(endPos > 0)
+			return name.substring(startPos, endPos);
+		
+		return null;
+	}
+	
+	/**
+	 * The S3 CommonPrefixes rule: a key that has the delimiter somewhere after the prefix is rolled up 
+	 * into everything up to and including that delimiter.
+	 * 
+	 * @return the common prefix the key is rolled up into, null if the key is listed by itself
+	 */
+	public static String commonPrefix(String key, String prefix, String delimiter) {
+		int startPos = (null == prefix ? 0 : prefix.length());
+		if (null == delimiter || delimiter.isEmpty() || key.length() < startPos) return null;
+		
+		int endPos = key.indexOf(delimiter, startPos);
+		if (endPos < 0) return null;
+		return key.substring(0, endPos + delimiter.length());
+	}
+	
+	public static String stringFromStream(InputStream is) throws IOException {
+		StringBuffer sb = new StringBuffer();
+	    byte[] b = new byte[4096];
+	    int n;
+	    while((n = is.read(b)) != -1) {
+	        sb.append(new String(b, 0, n));
+	    }
+	    return sb.toString();
+	}
+	
+	/**
+	 * Escape the characters that cannot appear as such in XML text or attribute values, e.g., an object
+	 * key echoed back in a response we build by hand.
+	 */
+	public static String escapeXml(String text) {
+		if (null == text) return null;
+		
+		StringBuffer escaped = new StringBuffer( text.length());
+		for( int i=0; i < text.length(); i++ ) {
+			char next = text.charAt( i );
+			     if ('&'  == next) escaped.append( "&amp;"  );
+			else if ('<'  == next) escaped.append( "&lt;"   );
+			else if ('>'  == next) escaped.append( "&gt;"   );
+			else if ('"'  == next) escaped.append( "&quot;" );
+			else if ('\'' == next) escaped.append( "&apos;" );
+			else escaped.append( next );
+		}
+		return escaped.toString();
+	}
+	
+	/**
+	 * Convert the string into a regex to allow easy matching.  In both S3 and EC2 regex strings
+	 * are used for matching.  We must remember to quote all special regex characters that appear 
+	 * in the string.
+	 */
+	public static String toRegex(String param) 
+	{
+		StringBuffer regex = new StringBuffer();
+		for( int i=0; i < param.length(); i++ ) 
+		{
+			char next = param.charAt( i );
+			     if ('*'  == next) regex.append( ".+"   );   // -> multi-character match wild card
+			else if ('?'  == next) regex.append( "."    );   // -> single-character match wild card
+			else if ('.'  == next) regex.append( "\\."  );   // all of these are special regex characters we are quoting
+			else if ('+'  == next) regex.append( "\\+"  );   
+			else if ('$'  == next) regex.append( "\\$"  );   
+			else if ('\\' == next) regex.append( "\\\\" );  
+			else if ('['  == next) regex.append( "\\["  );   
+			else if (']'  == next) regex.append( "\\]"  );   
+			else if ('{'  == next) regex.append( "\\{"  );   
+			else if ('}'  == next) regex.append( "\\}"  );   
+			else if ('('  == next) regex.append( "\\("  );   
+			else if (')'  == next) regex.append( "\\)"  );   
+			else if ('&'  == next) regex.append( "\\&"  );   
+			else if ('^'  == next) regex.append( "\\^"  );   
+			else if ('-'  == next) regex.append( "\\-"  );   
+			else if ('|'  == next) regex.append( "\\|"  );   
+			else regex.append( next );
+		}
+		
+		return regex.toString();
+	}
+}
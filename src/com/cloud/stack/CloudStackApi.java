@@ -62,26 +62,38 @@ import com.google.gson.reflect.TypeToken;
 public class CloudStackApi {
 	protected final static Logger logger = Logger.getLogger(CloudStackApi.class);
 	
-	private CloudStackClient _client;
+	private final CloudStackClient _client;
 	
-	private String apiKey;
-	private String secretKey;
+	// -> every call made through this object is signed with these, they never change
+	private final String apiKey;
+	private final String secretKey;
 	
 	/**
 	 * 
 	 */
-	public CloudStackApi(String cloudStackServiceHost, String port, Boolean bSslEnabled) {
+	public CloudStackApi(String cloudStackServiceHost, String port, Boolean bSslEnabled, String apiKey, String secretKey) {
+		this(newClient(cloudStackServiceHost, port, bSslEnabled), apiKey, secretKey);
+	}
+	
+	/**
+	 * The client, and its connection pool, may be shared by the api objects of any number of users.
+	 */
+	public CloudStackApi(CloudStackClient client, String apiKey, String secretKey) {
+		_client = client;
+		this.apiKey = apiKey;
+		this.secretKey = secretKey;
+	}
+	
+	public static CloudStackClient newClient(String cloudStackServiceHost, String port, Boolean bSslEnabled) {
 		if (port != null) {
 		    // initialize port to 8080, incase port is NULL
 		    int ourPort = 8080;
 		    if (port != null) 
 		        ourPort = Integer.parseInt(port);
-			_client = new CloudStackClient(cloudStackServiceHost, ourPort, bSslEnabled);
+			return new CloudStackClient(cloudStackServiceHost, ourPort, bSslEnabled);
 		} else {
-			_client = new CloudStackClient(cloudStackServiceHost);
+			return new CloudStackClient(cloudStackServiceHost);
 		}
-		apiKey = null;
-		secretKey = null;
 	}
 
 	/**
@@ -98,19 +110,6 @@ public class CloudStackApi {
 		return secretKey;
 	}
 
-	/**
-	 * @param apiKey the apiKey to set
-	 */
-	public void setApiKey(String apiKey) {
-		this.apiKey = apiKey;
-	}
-
-	/**
-	 * @param secretKey the secretKey to set
-	 */
-	public void setSecretKey(String secretKey) {
-		this.secretKey = secretKey;
-	}
 	
 	
 	// Virtual Machines
@@ -141,6 +140,32 @@ public class CloudStackApi {
 	public CloudStackUserVm deployVirtualMachine(String serviceOfferingId, String templateId, String zoneId, String account, String diskOfferingId, 
 			String displayName, String domainId, String group, String hostId, String hypervisor, String keyPair, String name, String networkId, 
 			String securityGroupIds, String securityGroupNames, Long size, String userData) throws Exception {
+		CloudStackCommand cmd = deployVirtualMachineCommand(serviceOfferingId, templateId, zoneId, account, diskOfferingId, displayName, domainId, 
+				group, hostId, hypervisor, keyPair, name, networkId, securityGroupIds, securityGroupNames, size, userData);
+		return _client.call(cmd, apiKey, secretKey, true, ApiConstants.DEPLOY_VIRTUAL_MACHINE_RESPONSE, 
+				ApiConstants.VIRTUAL_MACHINE, CloudStackUserVm.class);
+		
+	}
+	
+	/**
+	 * deploy a virtual machine, returning once CloudStack has accepted the deployment
+	 * 
+	 * @return the deployment job, its object id is the new virtual machine's id
+	 * @throws Exception
+	 * @see #deployVirtualMachine
+	 */
+	public CloudStackJob<CloudStackUserVm> deployVirtualMachineAsync(String serviceOfferingId, String templateId, String zoneId, String account, 
+			String diskOfferingId, String displayName, String domainId, String group, String hostId, String hypervisor, String keyPair, 
+			String name, String networkId, String securityGroupIds, String securityGroupNames, Long size, String userData) throws Exception {
+		CloudStackCommand cmd = deployVirtualMachineCommand(serviceOfferingId, templateId, zoneId, account, diskOfferingId, displayName, domainId, 
+				group, hostId, hypervisor, keyPair, name, networkId, securityGroupIds, securityGroupNames, size, userData);
+		return _client.submit(cmd, apiKey, secretKey, ApiConstants.DEPLOY_VIRTUAL_MACHINE_RESPONSE, 
+				ApiConstants.VIRTUAL_MACHINE, CloudStackUserVm.class);
+	}
+	
+	private CloudStackCommand deployVirtualMachineCommand(String serviceOfferingId, String templateId, String zoneId, String account, 
+			String diskOfferingId, String displayName, String domainId, String group, String hostId, String hypervisor, String keyPair, 
+			String name, String networkId, String securityGroupIds, String securityGroupNames, Long size, String userData) {
 		CloudStackCommand cmd = new CloudStackCommand(ApiConstants.DEPLOY_VIRTUAL_MACHINE);
 		if (cmd != null) {
 			// these are required
@@ -163,9 +188,7 @@ public class CloudStackApi {
 			if (size != null) cmd.setParam(ApiConstants.SIZE, size.toString());
 			if (userData != null) cmd.setParam(ApiConstants.USER_DATA, userData);
 		}
-		return _client.call(cmd, apiKey, secretKey, true, ApiConstants.DEPLOY_VIRTUAL_MACHINE_RESPONSE, 
-				ApiConstants.VIRTUAL_MACHINE, CloudStackUserVm.class);
-		
+		return cmd;
 	}
 	
 	/**
@@ -184,6 +207,20 @@ public class CloudStackApi {
 				CloudStackUserVm.class);
 	}
 	
+	/**
+	 * destroy's a virtual machine, returning once CloudStack has accepted the request
+	 * 
+	 * @param id
+	 * @return the destroy job
+	 * @throws Exception
+	 */
+	public CloudStackJob<CloudStackUserVm> destroyVirtualMachineAsync(String id) throws Exception {
+		CloudStackCommand cmd = new CloudStackCommand(ApiConstants.DESTROY_VIRTUAL_MACHINE);
+		cmd.setParam(ApiConstants.ID, id);
+		return _client.submit(cmd, apiKey, secretKey, ApiConstants.DESTROY_VIRTUAL_MACHINE_RESPONSE, ApiConstants.VIRTUAL_MACHINE, 
+				CloudStackUserVm.class);
+	}
+	
 	/**
 	 * reboot a virtual machine
 	 * 
@@ -214,6 +251,19 @@ public class CloudStackApi {
 		}
 		return _client.call(cmd, apiKey, secretKey, true, ApiConstants.START_VIRTUAL_MACHINE_RESPONSE, ApiConstants.VIRTUAL_MACHINE, CloudStackUserVm.class);
 	}
+	
+	/**
+	 * start a virtual machine, returning once CloudStack has accepted the request
+	 * 
+	 * @param id
+	 * @return the start job
+	 * @throws Exception
+	 */
+	public CloudStackJob<CloudStackUserVm> startVirtualMachineAsync(String id) throws Exception {
+		CloudStackCommand cmd = new CloudStackCommand(ApiConstants.START_VIRTUAL_MACHINE);
+		cmd.setParam(ApiConstants.ID, id);
+		return _client.submit(cmd, apiKey, secretKey, ApiConstants.START_VIRTUAL_MACHINE_RESPONSE, ApiConstants.VIRTUAL_MACHINE, CloudStackUserVm.class);
+	}
 
 	/**
 	 * stop a virtual machine
@@ -232,6 +282,21 @@ public class CloudStackApi {
 		return _client.call(cmd, apiKey, secretKey, true, ApiConstants.STOP_VIRTUAL_MACHINE_RESPONSE, ApiConstants.VIRTUAL_MACHINE, CloudStackUserVm.class);
 	}
 	
+	/**
+	 * stop a virtual machine, returning once CloudStack has accepted the request
+	 * 
+	 * @param id
+	 * @param forced
+	 * @return the stop job
+	 * @throws Exception
+	 */
+	public CloudStackJob<CloudStackUserVm> stopVirtualMachineAsync(String id, Boolean forced) throws Exception {
+		CloudStackCommand cmd = new CloudStackCommand(ApiConstants.STOP_VIRTUAL_MACHINE);
+		cmd.setParam(ApiConstants.ID, id);
+		if (forced != null) cmd.setParam(ApiConstants.FORCED, forced.toString());
+		return _client.submit(cmd, apiKey, secretKey, ApiConstants.STOP_VIRTUAL_MACHINE_RESPONSE, ApiConstants.VIRTUAL_MACHINE, CloudStackUserVm.class);
+	}
+	
 	/**
 	 * reset password for virtual machine
 	 * 
@@ -1,188 +1,261 @@
-/*
- * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *      http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.cloud.stack;
-
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.lang.reflect.Type;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URLConnection;
-import java.util.List;
-
-import org.apache.log4j.Logger;
-
-import com.cloud.bridge.util.JsonAccessor;
-import com.google.gson.Gson;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParser;
-
-/**
- * CloudStackClient implements a simple CloudStack client object, it can be used to execute CloudStack commands 
- * with JSON response
- * 
- * @author Kelven Yang
- */
-public class CloudStackClient {
-    protected final static Logger logger = Logger.getLogger(CloudStackClient.class);
-    
-	private String _serviceUrl;
-	
-	private long _pollIntervalMs = 2000;			// 1 second polling interval
-	private long _pollTimeoutMs = 600000;			// 10 minutes polling timeout
-
-	public CloudStackClient(String serviceRootUrl) {
-		assert(serviceRootUrl != null);
-		
-		if(!serviceRootUrl.endsWith("/"))
-			_serviceUrl = serviceRootUrl + "/api?";
-		else
-			_serviceUrl = serviceRootUrl + "api?";
-	}
-	
-	public CloudStackClient(String cloudStackServiceHost, int port, boolean bSslEnabled) {
-		StringBuffer sb = new StringBuffer();
-		if(!bSslEnabled) {
-			sb.append("http://" + cloudStackServiceHost);
-			if(port != 80)
-				sb.append(":").append(port);
-		} else {
-			sb.append("https://" + cloudStackServiceHost);
-			if(port != 443)
-				sb.append(":").append(port);
-		}
-		
-		//
-		// If the CloudStack root context path has been from /client to some other name
-		// use the first constructor instead
-		//
-		sb.append("/client/api");
-		sb.append("?");
-		_serviceUrl = sb.toString();
-	}
-	
-	public CloudStackClient setPollInterval(long intervalMs) {
-		_pollIntervalMs = intervalMs;
-		return this;
-	}
-	
-	public CloudStackClient setPollTimeout(long pollTimeoutMs) {
-		_pollTimeoutMs = pollTimeoutMs;
-		return this;
-	}
-	
-	public <T> T call(CloudStackCommand cmd, String apiKey, String secretKey, boolean followToAsyncResult, 
-		String responseName, String responseObjName, Class<T> responseClz)	throws Exception {
-		
-		assert(responseName != null);
-		
-		JsonAccessor json = execute(cmd, apiKey, secretKey);
-		if(followToAsyncResult && json.tryEval(responseName + ".jobid") != null) {
-			long startMs = System.currentTimeMillis();
-	        while(System.currentTimeMillis() -  startMs < _pollTimeoutMs) {
-				CloudStackCommand queryJobCmd = new CloudStackCommand("queryAsyncJobResult");
-	        	queryJobCmd.setParam("jobId", json.getAsString(responseName + ".jobid"));
-	        	
-	        	JsonAccessor queryAsyncJobResponse = execute(queryJobCmd, apiKey, secretKey);
-
-	    		if(queryAsyncJobResponse.tryEval("queryasyncjobresultresponse") != null) {
-	    			int jobStatus = queryAsyncJobResponse.getAsInt("queryasyncjobresultresponse.jobstatus");
-	    			switch(jobStatus) {
-	    			case 2:
-	    	    		throw new Exception(queryAsyncJobResponse.getAsString("queryasyncjobresultresponse.jobresult.errorcode") + " " + 
-    	    				queryAsyncJobResponse.getAsString("queryasyncjobresultresponse.jobresult.errortext"));
-	    	    		
-	    			case 0 :
-	            	    try { 
-	            	    	Thread.sleep( _pollIntervalMs ); 
-	            	    } catch( Exception e ) {}
-	            	    break;
-	            	    
-	    			case 1 :
-	    				if(responseObjName != null)
-	    					return (T)(new Gson()).fromJson(queryAsyncJobResponse.eval("queryasyncjobresultresponse.jobresult." + responseObjName), responseClz);
-	    				else
-	    					return (T)(new Gson()).fromJson(queryAsyncJobResponse.eval("queryasyncjobresultresponse.jobresult"), responseClz);
-	    				
-	    			default :
-	    				assert(false);
-	                    throw new Exception("Operation failed - invalid job status response");
-	    			}
-	    		} else {
-	                throw new Exception("Operation failed - invalid JSON response");
-	    		}
-	        }
-	        
-            throw new Exception("Operation failed - async-job query timed out");
-		} else {
-			if (responseObjName != null)
-				return (T)(new Gson()).fromJson(json.eval(responseName + "." + responseObjName), responseClz);
-			else
-				return (T)(new Gson()).fromJson(json.eval(responseName), responseClz);
-		}
-	}
-
-	// collectionType example :  new TypeToken<List<String>>() {}.getType();
-	public <T> List<T> listCall(CloudStackCommand cmd, String apiKey, String secretKey, 
-		String responseName, String responseObjName, Type collectionType) throws Exception {
-		
-		assert(responseName != null);
-		
-		JsonAccessor json = execute(cmd, apiKey, secretKey);
-		
-		
-
-		if(responseObjName != null)
-			try {
-				return (new Gson()).fromJson(json.eval(responseName + "." + responseObjName), collectionType);
-			} catch(Exception e) {
-				// this happens because responseObjName won't exist if there are no objects in the list.
-				logger.debug("Unable to find responseObjName:[" + responseObjName + "].  Returning null! Exception: " + e.getMessage());
-				return null;
-			}
-		return (new Gson()).fromJson(json.eval(responseName), collectionType);
-	}
-
-	public JsonAccessor execute(CloudStackCommand cmd, String apiKey, String secretKey) throws Exception {
-		JsonParser parser = new JsonParser();
-		URL url = new URL(_serviceUrl + cmd.signCommand(apiKey, secretKey));
-		
-		if(logger.isDebugEnabled())
-			logger.debug("Cloud API call + [" + url.toString() + "]");
-		
-        URLConnection connect = url.openConnection();
-        
-        int statusCode;
-        statusCode = ((HttpURLConnection)connect).getResponseCode();
-        if(statusCode >= 400) {
-        	logger.error("Cloud API call + [" + url.toString() + "] failed with status code: " + statusCode);
-        	throw new IOException("CloudStack API call HTTP response error, HTTP status code: " + statusCode);
-        }
-        
-        InputStream inputStream = connect.getInputStream(); 
-		JsonElement jsonElement = parser.parse(new InputStreamReader(inputStream));
-		if(jsonElement == null) {
-        	logger.error("Cloud API call + [" + url.toString() + "] failed: unable to parse expected JSON response");
-        	
-        	throw new IOException("CloudStack API call error : invalid JSON response");
-		}
-		
-		if(logger.isDebugEnabled())
-			logger.debug("Cloud API call + [" + url.toString() + "] returned: " + jsonElement.toString());
-		return new JsonAccessor(jsonElement);
-	}
-}
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.stack;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.httpclient.Header;
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
+import org.apache.commons.httpclient.methods.GetMethod;
+import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
+import org.apache.log4j.Logger;
+
+import com.cloud.bridge.persist.PersistContext;
+import com.cloud.bridge.util.JsonAccessor;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+/**
+ * CloudStackClient implements a simple CloudStack client object, it can be used to execute CloudStack commands 
+ * with JSON response
+ * 
+ * A client holds no credentials, each call is signed with the keys it is given, so one client and its pool 
+ * of keep-alive connections to the management server is shared by all users.
+ * 
+ * @author Kelven Yang
+ */
+public class CloudStackClient {
+    protected final static Logger logger = Logger.getLogger(CloudStackClient.class);
+    
+	private String _serviceUrl;
+	
+	private long _pollIntervalMs = 2000;			// 2 second interval before the first poll
+	private long _pollTimeoutMs = 600000;			// 10 minutes polling timeout
+	
+	// -> all clients share the one thread that polls outstanding async jobs
+	private final static CloudStackJobTracker _jobTracker = new CloudStackJobTracker();
+	
+	private final static int DEFAULT_MAX_CONNECTIONS = 20;
+	private final static int DEFAULT_CONNECT_TIMEOUT = 10000;
+	private final static int DEFAULT_READ_TIMEOUT = 120000;
+	
+	private final MultiThreadedHttpConnectionManager _connectionManager = new MultiThreadedHttpConnectionManager();
+	private final HttpClient _httpClient = new HttpClient(_connectionManager);
+	private volatile boolean _gzip = true;
+	
+	{
+		HttpConnectionManagerParams params = _connectionManager.getParams();
+		params.setDefaultMaxConnectionsPerHost(DEFAULT_MAX_CONNECTIONS);
+		params.setMaxTotalConnections(DEFAULT_MAX_CONNECTIONS);
+		params.setConnectionTimeout(DEFAULT_CONNECT_TIMEOUT);
+		params.setSoTimeout(DEFAULT_READ_TIMEOUT);
+		params.setStaleCheckingEnabled(true);
+	}
+
+	public CloudStackClient(String serviceRootUrl) {
+		assert(serviceRootUrl != null);
+		
+		if(!serviceRootUrl.endsWith("/"))
+			_serviceUrl = serviceRootUrl + "/api?";
+		else
+			_serviceUrl = serviceRootUrl + "api?";
+	}
+	
+	public CloudStackClient(String cloudStackServiceHost, int port, boolean bSslEnabled) {
+		StringBuffer sb = new StringBuffer();
+		if(!bSslEnabled) {
+			sb.append("http://" + cloudStackServiceHost);
+			if(port != 80)
+				sb.append(":").append(port);
+		} else {
+			sb.append("https://" + cloudStackServiceHost);
+			if(port != 443)
+				sb.append(":").append(port);
+		}
+		
+		//
+		// If the CloudStack root context path has been from /client to some other name
+		// use the first constructor instead
+		//
+		sb.append("/client/api");
+		sb.append("?");
+		_serviceUrl = sb.toString();
+	}
+	
+	public CloudStackClient setPollInterval(long intervalMs) {
+		_pollIntervalMs = intervalMs;
+		return this;
+	}
+	
+	public CloudStackClient setPollTimeout(long pollTimeoutMs) {
+		_pollTimeoutMs = pollTimeoutMs;
+		return this;
+	}
+	
+	/**
+	 * All calls go to the one management server, so this also bounds the whole pool.
+	 */
+	public CloudStackClient setMaxConnections(int maxConnections) {
+		HttpConnectionManagerParams params = _connectionManager.getParams();
+		params.setDefaultMaxConnectionsPerHost(maxConnections);
+		params.setMaxTotalConnections(maxConnections);
+		return this;
+	}
+	
+	public CloudStackClient setConnectTimeout(int connectTimeoutMs) {
+		_connectionManager.getParams().setConnectionTimeout(connectTimeoutMs);
+		return this;
+	}
+	
+	public CloudStackClient setReadTimeout(int readTimeoutMs) {
+		_connectionManager.getParams().setSoTimeout(readTimeoutMs);
+		return this;
+	}
+	
+	public CloudStackClient setGzip(boolean gzip) {
+		_gzip = gzip;
+		return this;
+	}
+	
+	public static CloudStackJobTracker getJobTracker() {
+		return _jobTracker;
+	}
+	
+	public <T> T call(CloudStackCommand cmd, String apiKey, String secretKey, boolean followToAsyncResult, 
+		String responseName, String responseObjName, Class<T> responseClz)	throws Exception {
+		
+		assert(responseName != null);
+		
+		if(followToAsyncResult) {
+			try {
+				return submit(cmd, apiKey, secretKey, responseName, responseObjName, responseClz).get();
+			} catch(ExecutionException e) {
+				if(e.getCause() instanceof Exception)
+					throw (Exception)e.getCause();
+				throw e;
+			}
+		}
+		
+		JsonAccessor json = execute(cmd, apiKey, secretKey);
+		if (responseObjName != null)
+			return (T)(new Gson()).fromJson(json.eval(responseName + "." + responseObjName), responseClz);
+		else
+			return (T)(new Gson()).fromJson(json.eval(responseName), responseClz);
+	}
+	
+	/**
+	 * Executes the command and returns as soon as CloudStack has accepted it, an asynchronous 
+	 * command's result is then followed by the shared job tracker.
+	 */
+	public <T> CloudStackJob<T> submit(CloudStackCommand cmd, String apiKey, String secretKey, 
+		String responseName, String responseObjName, Class<T> responseClz) throws Exception {
+		
+		assert(responseName != null);
+		
+		JsonAccessor json = execute(cmd, apiKey, secretKey);
+		if(json.tryEval(responseName + ".jobid") != null) {
+			String objectId = (json.tryEval(responseName + ".id") != null ? json.getAsString(responseName + ".id") : null);
+			CloudStackJob<T> job = new CloudStackJob<T>(json.getAsString(responseName + ".jobid"), objectId);
+			_jobTracker.track(this, job, apiKey, secretKey, responseObjName, responseClz, _pollIntervalMs, _pollTimeoutMs);
+			return job;
+		}
+		
+		CloudStackJob<T> job = new CloudStackJob<T>(null, null);
+		if (responseObjName != null)
+			job.complete((new Gson()).fromJson(json.eval(responseName + "." + responseObjName), responseClz));
+		else
+			job.complete((new Gson()).fromJson(json.eval(responseName), responseClz));
+		return job;
+	}
+	
+	<T> T jobResult(JsonAccessor queryAsyncJobResponse, String responseObjName, Class<T> responseClz) {
+		if(responseObjName != null)
+			return (T)(new Gson()).fromJson(queryAsyncJobResponse.eval("queryasyncjobresultresponse.jobresult." + responseObjName), responseClz);
+		else
+			return (T)(new Gson()).fromJson(queryAsyncJobResponse.eval("queryasyncjobresultresponse.jobresult"), responseClz);
+	}
+
+	// collectionType example :  new TypeToken<List<String>>() {}.getType();
+	public <T> List<T> listCall(CloudStackCommand cmd, String apiKey, String secretKey, 
+		String responseName, String responseObjName, Type collectionType) throws Exception {
+		
+		assert(responseName != null);
+		
+		JsonAccessor json = execute(cmd, apiKey, secretKey);
+		
+		
+
+		if(responseObjName != null)
+			try {
+				return (new Gson()).fromJson(json.eval(responseName + "." + responseObjName), collectionType);
+			} catch(Exception e) {
+				// this happens because responseObjName won't exist if there are no objects in the list.
+				logger.debug("Unable to find responseObjName:[" + responseObjName + "].  Returning null! Exception: " + e.getMessage());
+				return null;
+			}
+		return (new Gson()).fromJson(json.eval(responseName), collectionType);
+	}
+
+	public JsonAccessor execute(CloudStackCommand cmd, String apiKey, String secretKey) throws Exception {
+		JsonParser parser = new JsonParser();
+		String url = _serviceUrl + cmd.signCommand(apiKey, secretKey);
+		
+		if(logger.isDebugEnabled())
+			logger.debug("Cloud API call + [" + url + "]");
+		
+        PersistContext.checkNoConnectionHeld("calling the cloud API");
+        GetMethod method = new GetMethod(url);
+        if(_gzip)
+        	method.setRequestHeader("Accept-Encoding", "gzip");
+        
+        try {
+	        int statusCode = _httpClient.executeMethod(method);
+	        if(statusCode >= 400) {
+	        	logger.error("Cloud API call + [" + url + "] failed with status code: " + statusCode);
+	        	throw new CloudStackException(statusCode, "CloudStack API call HTTP response error, HTTP status code: " + statusCode);
+	        }
+	        
+	        InputStream inputStream = method.getResponseBodyAsStream();
+	        if(inputStream == null)
+	        	throw new IOException("CloudStack API call error : empty response");
+	        Header encoding = method.getResponseHeader("Content-Encoding");
+	        if(encoding != null && encoding.getValue().toLowerCase().indexOf("gzip") != -1)
+	        	inputStream = new GZIPInputStream(inputStream);
+	        
+			JsonElement jsonElement = parser.parse(new InputStreamReader(inputStream, "UTF-8"));
+			if(jsonElement == null) {
+	        	logger.error("Cloud API call + [" + url + "] failed: unable to parse expected JSON response");
+	        	
+	        	throw new IOException("CloudStack API call error : invalid JSON response");
+			}
+			
+			if(logger.isDebugEnabled())
+				logger.debug("Cloud API call + [" + url + "] returned: " + jsonElement.toString());
+			return new JsonAccessor(jsonElement);
+        } finally {
+        	// -> hands the connection back to the pool for the next call
+        	method.releaseConnection();
+        }
+	}
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.stack;
+
+import java.io.IOException;
+
+/**
+ * CloudStackException is a failed CloudStack command, either refused right away or failed as an 
+ * asynchronous job, along with CloudStack's error code (e.g., 431 for an invalid parameter, 530 for 
+ * an internal error), or the HTTP status code when there is none.
+ */
+public class CloudStackException extends IOException {
+	private static final long serialVersionUID = -3419245287313915937L;
+	
+	private final int errorCode;
+	
+	public CloudStackException(int errorCode, String message) {
+		super(message);
+		this.errorCode = errorCode;
+	}
+	
+	public int getErrorCode() {
+		return errorCode;
+	}
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.stack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.log4j.Logger;
+
+/**
+ * CloudStackJob is the pending result of an asynchronous CloudStack command.   It is completed 
+ * by the CloudStackJobTracker once queryAsyncJobResult reports the job as done, or right away 
+ * when the command answered synchronously.
+ * 
+ * A deferred job stands for a command that is only submitted later on, e.g., once earlier jobs of 
+ * the same account are done, and follows the submitted job from then on.
+ * 
+ * Cancelling a job only stops tracking it, the CloudStack job itself keeps running.
+ */
+public class CloudStackJob<T> implements Future<T> {
+    protected final static Logger logger = Logger.getLogger(CloudStackJob.class);
+    
+	private volatile String jobId;
+	private volatile String objectId;
+	private final CountDownLatch done = new CountDownLatch(1);
+	private final List<Runnable> listeners = new ArrayList<Runnable>();
+	
+	private volatile boolean cancelled = false;
+	private volatile boolean deferred = false;
+	private T result;
+	private Exception failure;
+	
+	public CloudStackJob(String jobId, String objectId) {
+		this.jobId = jobId;
+		this.objectId = objectId;
+	}
+	
+	/**
+	 * @return a job for a command that could not be submitted at all
+	 */
+	public static <T> CloudStackJob<T> failed(Exception error) {
+		CloudStackJob<T> job = new CloudStackJob<T>(null, null);
+		job.fail(error);
+		return job;
+	}
+	
+	/**
+	 * @return a job for a command that answered synchronously
+	 */
+	public static <T> CloudStackJob<T> completed(T value) {
+		CloudStackJob<T> job = new CloudStackJob<T>(null, null);
+		job.complete(value);
+		return job;
+	}
+	
+	/**
+	 * @return a job for a command not submitted yet, see startSubmission() and follow()
+	 */
+	public static <T> CloudStackJob<T> deferred() {
+		CloudStackJob<T> job = new CloudStackJob<T>(null, null);
+		job.deferred = true;
+		return job;
+	}
+	
+	/**
+	 * @return true while the job is deferred and its command has not been submitted 
+	 */
+	public boolean isDeferred() {
+		return deferred;
+	}
+	
+	/**
+	 * Called before the command of a deferred job is submitted.
+	 * 
+	 * @return false if the job has been cancelled meanwhile, the command must then not be submitted
+	 */
+	public boolean startSubmission() {
+		synchronized(this) {
+			if (isDone()) return false;
+			deferred = false;
+			return true;
+		}
+	}
+	
+	/**
+	 * Cancels the job only if its command has not been submitted yet.
+	 * 
+	 * @return true if the command will never be submitted
+	 */
+	public boolean cancelIfDeferred() {
+		synchronized(this) {
+			if (!deferred || isDone()) return false;
+			cancelled = true;
+			done.countDown();
+		}
+		fireListeners();
+		return true;
+	}
+	
+	/**
+	 * Completes this, formerly deferred, job as the job its command was submitted as completes.
+	 */
+	public void follow(final CloudStackJob<T> submitted) {
+		jobId = submitted.getJobId();
+		objectId = submitted.getObjectId();
+		submitted.whenDone(new Runnable() {
+			public void run() {
+				try {
+					complete(submitted.get());
+				} catch(ExecutionException e) {
+					fail(e.getCause() instanceof Exception ? (Exception)e.getCause() : e);
+				} catch(Exception e) {
+					fail(e);
+				}
+			}
+		});
+	}
+	
+	/**
+	 * @return the CloudStack job id, null if the command completed synchronously
+	 */
+	public String getJobId() {
+		return jobId;
+	}
+	
+	/**
+	 * @return the id of the object being created, as returned when the job was accepted, if any
+	 */
+	public String getObjectId() {
+		return objectId;
+	}
+	
+	void complete(T value) {
+		synchronized(this) {
+			if (isDone()) return;
+			result = value;
+			done.countDown();
+		}
+		fireListeners();
+	}
+	
+	void fail(Exception error) {
+		synchronized(this) {
+			if (isDone()) return;
+			failure = error;
+			done.countDown();
+		}
+		fireListeners();
+	}
+	
+	/**
+	 * The listener is run on the thread that completes the job, or right away if the job is 
+	 * already done.   It must not block.
+	 */
+	public void whenDone(Runnable listener) {
+		synchronized(this) {
+			if (!isDone()) {
+				listeners.add(listener);
+				return;
+			}
+		}
+		runListener(listener);
+	}
+	
+	private void fireListeners() {
+		List<Runnable> toRun;
+		synchronized(this) {
+			toRun = new ArrayList<Runnable>(listeners);
+			listeners.clear();
+		}
+		for (Runnable listener : toRun) runListener(listener);
+	}
+	
+	private void runListener(Runnable listener) {
+		try {
+			listener.run();
+		} catch(Throwable e) {
+			logger.warn("CloudStack job " + jobId + " listener failed", e);
+		}
+	}
+	
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		synchronized(this) {
+			if (isDone()) return false;
+			cancelled = true;
+			done.countDown();
+		}
+		fireListeners();
+		return true;
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	@Override
+	public boolean isDone() {
+		return 0 == done.getCount();
+	}
+
+	@Override
+	public T get() throws InterruptedException, ExecutionException {
+		done.await();
+		return report();
+	}
+
+	@Override
+	public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		if (!done.await(timeout, unit))
+			throw new TimeoutException("CloudStack job " + jobId + " is still running");
+		return report();
+	}
+	
+	private synchronized T report() throws ExecutionException {
+		if (cancelled) throw new CancellationException("CloudStack job " + jobId + " is no longer tracked");
+		if (null != failure) throw new ExecutionException(failure);
+		return result;
+	}
+}
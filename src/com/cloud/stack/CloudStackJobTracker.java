@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2011 Citrix Systems, Inc.  All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cloud.stack;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.cloud.bridge.util.Converter;
+import com.cloud.bridge.util.DaemonThreadFactory;
+import com.cloud.bridge.util.JsonAccessor;
+
+/**
+ * CloudStackJobTracker polls all outstanding asynchronous CloudStack jobs and completes their 
+ * CloudStackJob futures, so no request thread has to sleep in a poll loop.   One scheduler thread 
+ * only times the polls, the polls themselves, and the listeners of the jobs they complete, run on a 
+ * small pool of poll threads so that a slow management server or listener does not hold up the 
+ * polls of other jobs.
+ * 
+ * Each job is first polled after its client's poll interval, every further poll of a job that is 
+ * still running waits half again as long, up to the maximum poll interval.   A job still running at 
+ * its client's poll timeout is failed.   CloudStack has no call to query several jobs at once, so 
+ * each poll is one queryAsyncJobResult.
+ */
+public class CloudStackJobTracker {
+    protected final static Logger logger = Logger.getLogger(CloudStackJobTracker.class);
+    
+	private final static long DEFAULT_MAX_POLL_INTERVAL = 10000;
+	public final static int DEFAULT_POLL_THREADS = 4;
+	
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("CloudStack-JobTimer"));
+	private final ExecutorService pollers;
+	private volatile long maxPollIntervalMs = DEFAULT_MAX_POLL_INTERVAL;
+	
+	private final AtomicInteger outstanding = new AtomicInteger();
+	private final AtomicLong polls = new AtomicLong();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	
+	public CloudStackJobTracker() {
+		this(DEFAULT_POLL_THREADS);
+	}
+	
+	public CloudStackJobTracker(int pollThreads) {
+		pollers = Executors.newFixedThreadPool(Math.max(pollThreads, 1), new DaemonThreadFactory("CloudStack-JobPoll"));
+	}
+	
+	public CloudStackJobTracker setMaxPollInterval(long intervalMs) {
+		maxPollIntervalMs = intervalMs;
+		return this;
+	}
+	
+	public <T> void track(CloudStackClient client, CloudStackJob<T> job, String apiKey, String secretKey, 
+		String responseObjName, Class<T> responseClz, long pollIntervalMs, long pollTimeoutMs) {
+		
+		outstanding.incrementAndGet();
+		TrackedJob<T> tracked = new TrackedJob<T>(client, job, apiKey, secretKey, responseObjName, responseClz, 
+			pollIntervalMs, System.currentTimeMillis() + pollTimeoutMs);
+		schedule(tracked, pollIntervalMs);
+	}
+	
+	/**
+	 * The scheduler thread only hands the poll over to a poll thread once it is due.
+	 */
+	private void schedule(final Runnable poll, long delayMs) {
+		scheduler.schedule(new Runnable() {
+			public void run() {
+				pollers.execute(poll);
+			}
+		}, delayMs, TimeUnit.MILLISECONDS);
+	}
+	
+	public int getOutstanding() {
+		return outstanding.get();
+	}
+	
+	public long getPolls() {
+		return polls.get();
+	}
+	
+	public long getCompleted() {
+		return completed.get();
+	}
+	
+	public long getFailed() {
+		return failed.get();
+	}
+	
+	private class TrackedJob<T> implements Runnable {
+		private final CloudStackClient client;
+		private final CloudStackJob<T> job;
+		private final String apiKey;
+		private final String secretKey;
+		private final String responseObjName;
+		private final Class<T> responseClz;
+		private final long deadline;
+		private long intervalMs;
+		
+		TrackedJob(CloudStackClient client, CloudStackJob<T> job, String apiKey, String secretKey, 
+			String responseObjName, Class<T> responseClz, long intervalMs, long deadline) {
+			this.client = client;
+			this.job = job;
+			this.apiKey = apiKey;
+			this.secretKey = secretKey;
+			this.responseObjName = responseObjName;
+			this.responseClz = responseClz;
+			this.intervalMs = intervalMs;
+			this.deadline = deadline;
+		}
+		
+		public void run() {
+			// -> a cancelled job is no longer polled
+			if (job.isDone()) {
+				outstanding.decrementAndGet();
+				return;
+			}
+			
+			try {
+				polls.incrementAndGet();
+				CloudStackCommand queryJobCmd = new CloudStackCommand("queryAsyncJobResult");
+	        	queryJobCmd.setParam("jobId", job.getJobId());
+	        	JsonAccessor queryAsyncJobResponse = client.execute(queryJobCmd, apiKey, secretKey);
+	        	
+	    		if(queryAsyncJobResponse.tryEval("queryasyncjobresultresponse") == null)
+	                throw new Exception("Operation failed - invalid JSON response");
+	    		
+    			int jobStatus = queryAsyncJobResponse.getAsInt("queryasyncjobresultresponse.jobstatus");
+    			switch(jobStatus) {
+    			case 0 :
+    				if (System.currentTimeMillis() >= deadline)
+    		            throw new Exception("Operation failed - async-job query timed out");
+    				
+    				intervalMs = Math.min(intervalMs + intervalMs / 2, Math.max(maxPollIntervalMs, 1));
+    				schedule(this, Math.max(1, Math.min(intervalMs, deadline - System.currentTimeMillis())));
+    				return;
+    				
+    			case 1 :
+    				T result = client.jobResult(queryAsyncJobResponse, responseObjName, responseClz);
+    				outstanding.decrementAndGet();
+    				completed.incrementAndGet();
+    				job.complete(result);
+    				return;
+    				
+    			case 2 :
+    				String errorCode = queryAsyncJobResponse.getAsString("queryasyncjobresultresponse.jobresult.errorcode");
+    	    		throw new CloudStackException(Converter.toInt(errorCode, 0), errorCode + " " + 
+	    				queryAsyncJobResponse.getAsString("queryasyncjobresultresponse.jobresult.errortext"));
+    	    		
+    			default :
+                    throw new Exception("Operation failed - invalid job status response");
+    			}
+			} catch(Exception e) {
+				logger.debug("CloudStack job " + job.getJobId() + " failed: " + e.getMessage());
+				outstanding.decrementAndGet();
+				failed.incrementAndGet();
+				job.fail(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.cloud.gate.persist;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import junit.framework.Assert;
+
+import com.cloud.bridge.model.SAcl;
+import com.cloud.bridge.persist.AclGrantCache;
+import com.cloud.bridge.persist.PersistContext;
+import com.cloud.gate.testcase.BaseTestCase;
+
+public class AclGrantCacheTestCase extends BaseTestCase {
+	private AclGrantCache cache;
+
+	protected void setUp() {
+		super.setUp();
+		cache = AclGrantCache.getInstance();
+		cache.configure(new Properties());
+	}
+
+	protected void tearDown() {
+		// -> drop whatever invalidation a failed test left queued on the thread
+		PersistContext.commitTransaction();
+	}
+
+	public void testInvalidateDropsGrantsRightAway() {
+		cache.put("SBucket", 1, grants("owner", SAcl.PERMISSION_FULL), cache.getGeneration());
+		Assert.assertEquals(Integer.valueOf(SAcl.PERMISSION_FULL), cache.get("SBucket", 1).get("owner"));
+
+		cache.invalidate("SBucket", 1);
+		Assert.assertNull(cache.get("SBucket", 1));
+	}
+
+	public void testLoadOverlappingInvalidationIsNotCached() {
+		long generation = cache.getGeneration();
+		cache.invalidate("SBucket", 2);
+		cache.put("SBucket", 2, grants("owner", SAcl.PERMISSION_READ), generation);
+
+		Assert.assertNull(cache.get("SBucket", 2));
+	}
+
+	public void testGrantsLoadedBeforeTheTransactionEndsAreDroppedAgain() {
+		cache.invalidate("SObjectItem", 3);
+
+		// -> another thread reads the old grants before the writing transaction has ended
+		cache.put("SObjectItem", 3, grants("reader", SAcl.PERMISSION_READ), cache.getGeneration());
+		Assert.assertNotNull(cache.get("SObjectItem", 3));
+
+		PersistContext.commitTransaction();
+		Assert.assertNull(cache.get("SObjectItem", 3));
+	}
+
+	public void testInvalidationOfOneTargetKeepsTheOthers() {
+		cache.put("SBucket", 4, grants("owner", SAcl.PERMISSION_FULL), cache.getGeneration());
+		cache.put("SBucket", 5, grants("owner", SAcl.PERMISSION_FULL), cache.getGeneration());
+
+		cache.invalidate("SBucket", 4);
+		PersistContext.commitTransaction();
+		Assert.assertNull(cache.get("SBucket", 4));
+		Assert.assertNotNull(cache.get("SBucket", 5));
+	}
+
+	private static Map<String, Integer> grants(String grantee, int permission) {
+		Map<String, Integer> grants = new HashMap<String, Integer>();
+		grants.put(grantee, permission);
+		return grants;
+	}
+}
@@ -0,0 +1,137 @@
+package com.cloud.gate.persist;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+
+import com.cloud.bridge.persist.LeaseNamedLockService;
+import com.cloud.bridge.persist.NamedLock;
+import com.cloud.bridge.persist.dao.NamedLeaseDao;
+import com.cloud.gate.testcase.BaseTestCase;
+
+public class LeaseNamedLockServiceTestCase extends BaseTestCase {
+
+	/**
+	 * The named_lease table in memory, with the grant, fence and release rules of NamedLeaseDao's SQL.
+	 */
+	private static class LeaseTable {
+		private final Map<String, Object[]> rows = new HashMap<String, Object[]>();
+		private final AtomicInteger grantAttempts = new AtomicInteger();
+
+		synchronized long tryAcquire(String name, String owner, int ttlSeconds) {
+			grantAttempts.incrementAndGet();
+			long now = System.currentTimeMillis();
+			Object[] row = rows.get(name);
+			if (null == row) {
+				rows.put(name, new Object[] { owner, new Long(1), new Long(now + ttlSeconds * 1000L) });
+				return 1;
+			}
+			if (((Long)row[2]).longValue() < now) {
+				row[0] = owner;
+				row[1] = new Long(((Long)row[1]).longValue() + 1);
+				row[2] = new Long(now + ttlSeconds * 1000L);
+			}
+			return owner.equals(row[0]) ? ((Long)row[1]).longValue() : 0;
+		}
+
+		synchronized boolean fence(String name, String owner, long token, int ttlSeconds) {
+			long now = System.currentTimeMillis();
+			Object[] row = rows.get(name);
+			if (null == row || !owner.equals(row[0]) || token != ((Long)row[1]).longValue() || ((Long)row[2]).longValue() < now)
+				return false;
+			row[2] = new Long(now + ttlSeconds * 1000L);
+			return true;
+		}
+
+		synchronized void release(String name, String owner, long token) {
+			Object[] row = rows.get(name);
+			if (null != row && owner.equals(row[0]) && token == ((Long)row[1]).longValue())
+				row[2] = new Long(System.currentTimeMillis() - 1000);
+		}
+	}
+
+	private static LeaseNamedLockService newLockService(final LeaseTable table, int ttlSeconds) {
+		return new LeaseNamedLockService(ttlSeconds) {
+			protected NamedLeaseDao newLeaseDao() {
+				return new NamedLeaseDao() {
+					public long tryAcquire(String name, String owner, int ttl) {
+						return table.tryAcquire(name, owner, ttl);
+					}
+					public boolean fence(String name, String owner, long token, int ttl) {
+						return table.fence(name, owner, token, ttl);
+					}
+					public void release(String name, String owner, long token) {
+						table.release(name, owner, token);
+					}
+				};
+			}
+		};
+	}
+
+	public void testWaiterIsGrantedReleasedLease() throws Exception {
+		LeaseTable table = new LeaseTable();
+		final LeaseNamedLockService locks = newLockService(table, 30);
+		NamedLock first = locks.acquire("bucket.creation.test", 1);
+		Assert.assertNotNull(first);
+
+		final NamedLock[] second = new NamedLock[1];
+		Thread waiter = new Thread() {
+			public void run() {
+				second[0] = locks.acquire("bucket.creation.test", 5);
+			}
+		};
+		waiter.start();
+		Thread.sleep(300);
+
+		// -> the waiter only polls the database, other names of this instance are not held up meanwhile
+		Assert.assertTrue(waiter.isAlive());
+		NamedLock other = locks.acquire("bucket.creation.other", 0);
+		Assert.assertNotNull(other);
+		locks.release(other);
+
+		// -> the waiter backs off, it does not poll every few milliseconds
+		Assert.assertTrue(table.grantAttempts.get() < 20);
+
+		locks.release(first);
+		waiter.join(5000);
+		Assert.assertNotNull(second[0]);
+		Assert.assertTrue(second[0].getToken() > first.getToken());
+		Assert.assertEquals(1, locks.getContendedCount());
+		locks.release(second[0]);
+	}
+
+	public void testWaiterTimesOut() throws Exception {
+		LeaseNamedLockService locks = newLockService(new LeaseTable(), 30);
+		NamedLock first = locks.acquire("bucket.creation.test", 1);
+
+		long start = System.currentTimeMillis();
+		Assert.assertNull(locks.acquire("bucket.creation.test", 1));
+		Assert.assertTrue(System.currentTimeMillis() - start >= 1000);
+		Assert.assertEquals(1, locks.getTimeoutCount());
+
+		// -> the lease is still held by the first owner
+		Assert.assertTrue(locks.isHeld(first));
+		locks.release(first);
+	}
+
+	public void testExpiredLeaseIsFencedOff() throws Exception {
+		LeaseNamedLockService locks = newLockService(new LeaseTable(), 1);
+		NamedLock stale = locks.acquire("bucket.creation.test", 1);
+		Thread.sleep(1100);
+
+		// -> the lease expired and was granted again, the old holder must not commit its work
+		NamedLock current = locks.acquire("bucket.creation.test", 1);
+		Assert.assertNotNull(current);
+		Assert.assertTrue(current.getToken() > stale.getToken());
+		Assert.assertFalse(locks.isHeld(stale));
+		Assert.assertTrue(locks.isHeld(current));
+
+		// -> releasing the old grant leaves the current one alone
+		locks.release(stale);
+		Assert.assertTrue(locks.isHeld(current));
+		locks.release(current);
+		Assert.assertFalse(locks.isHeld(current));
+	}
+}
@@ -0,0 +1,76 @@
+package com.cloud.gate.persist;
+
+import junit.framework.Assert;
+
+import org.hibernate.cache.access.AccessType;
+import org.hibernate.cache.access.EntityRegionAccessStrategy;
+import org.hibernate.cache.access.SoftLock;
+import org.hibernate.cache.impl.CacheDataDescriptionImpl;
+
+import com.cloud.bridge.persist.LruCache;
+import com.cloud.bridge.persist.LruRegion;
+import com.cloud.gate.testcase.BaseTestCase;
+
+public class LruCacheTestCase extends BaseTestCase {
+
+	public void testLeastRecentlyUsedIsEvicted() {
+		LruCache cache = new LruCache("test", 2, 0);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.get("a");
+		cache.put("c", "3");
+
+		Assert.assertEquals("1", cache.get("a"));
+		Assert.assertNull(cache.get("b"));
+		Assert.assertEquals("3", cache.get("c"));
+	}
+
+	public void testSoftLockIsNeverEvicted() {
+		LruCache cache = new LruCache("test", 2, 0);
+		EntityRegionAccessStrategy access = readWrite(cache);
+		long txTimestamp = access.getRegion().nextTimestamp();
+		SoftLock lock = access.lockItem("locked", null);
+		access.putFromLoad("b", "2", txTimestamp, null);
+		access.putFromLoad("c", "3", txTimestamp, null);
+		access.putFromLoad("d", "4", txTimestamp, null);
+		Assert.assertEquals(2, cache.getElementCountInMemory());
+
+		// -> a load that started before the update can not put the old state back
+		Assert.assertFalse(access.putFromLoad("locked", "old", txTimestamp, null));
+		Assert.assertTrue(access.afterUpdate("locked", "new", null, null, lock));
+		Assert.assertEquals("new", access.get("locked", access.getRegion().nextTimestamp()));
+	}
+
+	public void testSoftLockOutlivesTtl() throws Exception {
+		LruCache cache = new LruCache("test", 10, 50);
+		EntityRegionAccessStrategy access = readWrite(cache);
+		long txTimestamp = access.getRegion().nextTimestamp();
+		access.lockItem("locked", null);
+		access.putFromLoad("b", "2", txTimestamp, null);
+		Thread.sleep(100);
+
+		Assert.assertFalse(access.putFromLoad("locked", "old", txTimestamp, null));
+		Assert.assertNotNull(cache.get("locked"));
+		Assert.assertNull(cache.get("b"));
+	}
+
+	public void testConcurrentUpdatesLeaveNothingCached() {
+		LruCache cache = new LruCache("test", 10, 0);
+		EntityRegionAccessStrategy access = readWrite(cache);
+		long txTimestamp = access.getRegion().nextTimestamp();
+		SoftLock first = access.lockItem("a", null);
+		SoftLock second = access.lockItem("a", null);
+
+		Assert.assertFalse(access.afterUpdate("a", "1", null, null, first));
+		access.unlockItem("a", second);
+		Assert.assertNull(access.get("a", access.getRegion().nextTimestamp()));
+
+		// -> only a load that started after both transactions ended may cache the entry again
+		Assert.assertFalse(access.putFromLoad("a", "0", txTimestamp, null));
+		Assert.assertTrue(access.putFromLoad("a", "2", access.getRegion().nextTimestamp(), null));
+	}
+
+	private static EntityRegionAccessStrategy readWrite(LruCache cache) {
+		return new LruRegion.Entity(cache, new CacheDataDescriptionImpl(true, false, null)).buildAccessStrategy(AccessType.READ_WRITE);
+	}
+}
@@ -0,0 +1,86 @@
+package com.cloud.gate.service;
+
+import java.io.ByteArrayInputStream;
+import java.security.MessageDigest;
+
+import junit.framework.Assert;
+
+import org.apache.commons.codec.binary.Base64;
+
+import com.cloud.bridge.service.controller.s3.S3BucketAction;
+import com.cloud.bridge.service.core.s3.S3DeleteObjectRequest;
+import com.cloud.bridge.service.core.s3.S3DeleteObjectsRequest;
+import com.cloud.bridge.service.exception.InvalidRequestContentException;
+import com.cloud.gate.testcase.BaseTestCase;
+
+public class DeleteObjectsTestCase extends BaseTestCase {
+
+	public void testKeysVersionsAndQuietAreParsed() throws Exception {
+		S3DeleteObjectsRequest request = parse("<Delete xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">"
+			+ "<Quiet>true</Quiet>"
+			+ "<Object><Key>a/b.txt</Key></Object>"
+			+ "<Object><Key> spaced key </Key><VersionId>3</VersionId></Object>"
+			+ "</Delete>");
+
+		Assert.assertEquals("bucket", request.getBucketName());
+		Assert.assertTrue(request.isQuiet());
+
+		S3DeleteObjectRequest[] objects = request.getObjects();
+		Assert.assertEquals(2, objects.length);
+		Assert.assertEquals("bucket", objects[0].getBucketName());
+		Assert.assertEquals("a/b.txt", objects[0].getKey());
+		Assert.assertNull(objects[0].getVersion());
+
+		// -> a key is taken as it is, white space included
+		Assert.assertEquals(" spaced key ", objects[1].getKey());
+		Assert.assertEquals("3", objects[1].getVersion());
+	}
+
+	public void testQuietDefaultsToVerbose() throws Exception {
+		S3DeleteObjectsRequest request = parse("<Delete><Object><Key>a</Key></Object></Delete>");
+		Assert.assertFalse(request.isQuiet());
+		Assert.assertEquals(1, request.getObjects().length);
+	}
+
+	public void testObjectWithoutKeyIsRejected() throws Exception {
+		try {
+			parse("<Delete><Object><Key>a</Key></Object><Object><VersionId>1</VersionId></Object></Delete>");
+			Assert.fail("an Object without a Key must be rejected");
+		} catch(InvalidRequestContentException e) {
+		}
+	}
+
+	public void testEmptyAndOversizedRequestsAreRejected() throws Exception {
+		try {
+			parse("<Delete><Quiet>false</Quiet></Delete>");
+			Assert.fail("a request without objects must be rejected");
+		} catch(InvalidRequestContentException e) {
+		}
+
+		StringBuffer xml = new StringBuffer("<Delete>");
+		for (int i=0; i <= S3DeleteObjectsRequest.MAX_KEYS; i++)
+			xml.append("<Object><Key>key-" + i + "</Key></Object>");
+		xml.append("</Delete>");
+		try {
+			parse(xml.toString());
+			Assert.fail("a request over " + S3DeleteObjectsRequest.MAX_KEYS + " keys must be rejected");
+		} catch(InvalidRequestContentException e) {
+		}
+	}
+
+	public void testContentMd5MustMatchTheBody() throws Exception {
+		byte[] body = "<Delete><Object><Key>a</Key></Object></Delete>".getBytes("UTF-8");
+		String md5 = new String(Base64.encodeBase64(MessageDigest.getInstance("MD5").digest(body)), "US-ASCII");
+
+		Assert.assertTrue(S3BucketAction.isDigestOf(md5, body));
+		Assert.assertTrue(S3BucketAction.isDigestOf(" " + md5 + " ", body));
+
+		byte[] altered = "<Delete><Object><Key>b</Key></Object></Delete>".getBytes("UTF-8");
+		Assert.assertFalse(S3BucketAction.isDigestOf(md5, altered));
+		Assert.assertFalse(S3BucketAction.isDigestOf("not a digest", body));
+	}
+
+	private static S3DeleteObjectsRequest parse(String xml) throws Exception {
+		return S3BucketAction.toDeleteObjectsRequest("bucket", new ByteArrayInputStream(xml.getBytes("UTF-8")));
+	}
+}
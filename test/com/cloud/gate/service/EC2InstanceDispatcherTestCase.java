@@ -0,0 +1,183 @@
+package com.cloud.gate.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+
+import com.cloud.bridge.service.UserContext;
+import com.cloud.bridge.service.core.ec2.EC2InstanceDispatcher;
+import com.cloud.gate.testcase.BaseTestCase;
+import com.cloud.stack.CloudStackJob;
+
+public class EC2InstanceDispatcherTestCase extends BaseTestCase {
+	private ExecutorService executor;
+	private UserContext caller;
+
+	protected void setUp() {
+		super.setUp();
+		executor = Executors.newFixedThreadPool(4);
+		caller = new UserContext();
+		caller.initContext("apiKey", "secretKey", "canonicalUserId", "test", null);
+	}
+
+	protected void tearDown() {
+		executor.shutdownNow();
+	}
+
+	public void testOperationsOverLimitAreQueued() throws Exception {
+		EC2InstanceDispatcher dispatcher = new EC2InstanceDispatcher(executor, 2);
+		List<CloudStackJob<String>> cloudJobs = new ArrayList<CloudStackJob<String>>();
+		List<CloudStackJob<String>> jobs = dispatcher.submitAll(caller, newOperations(5, cloudJobs, null));
+
+		// -> submitAll returns right away, only two jobs are in flight
+		Assert.assertEquals(5, jobs.size());
+		waitFor(cloudJobs, 2);
+		Assert.assertEquals(2, cloudJobs.size());
+		Assert.assertTrue(jobs.get(2).isDeferred());
+		Assert.assertNull(jobs.get(2).getObjectId());
+
+		// -> each job done lets one queued operation through
+		cloudJobs.get(0).follow(CloudStackJob.completed("vm-0"));
+		waitFor(cloudJobs, 3);
+		Thread.sleep(100);
+		Assert.assertEquals(3, cloudJobs.size());
+
+		for (int i=1; i < 5; i++) {
+			waitFor(cloudJobs, i + 1);
+			cloudJobs.get(i).follow(CloudStackJob.completed("vm-" + i));
+		}
+		// -> the first operations run concurrently, so which job each follows is not known
+		Set<String> results = new HashSet<String>();
+		for (int i=0; i < 5; i++) results.add(jobs.get(i).get());
+		for (int i=0; i < 5; i++) Assert.assertTrue(results.contains("vm-" + i));
+	}
+
+	public void testRefusedOperationGivesBackItsPermit() throws Exception {
+		EC2InstanceDispatcher dispatcher = new EC2InstanceDispatcher(executor, 1);
+		List<CloudStackJob<String>> cloudJobs = new ArrayList<CloudStackJob<String>>();
+		List<CloudStackJob<String>> jobs = dispatcher.submitAll(caller, newOperations(2, cloudJobs, new int[] { 0 }));
+
+		Assert.assertNotNull(EC2InstanceDispatcher.failureOf(jobs.get(0)));
+		waitFor(cloudJobs, 1);
+		cloudJobs.get(0).follow(CloudStackJob.completed("vm-1"));
+		Assert.assertNull(EC2InstanceDispatcher.failureOf(jobs.get(1)));
+	}
+
+	public void testCancelledQueuedOperationIsNeverSubmitted() throws Exception {
+		EC2InstanceDispatcher dispatcher = new EC2InstanceDispatcher(executor, 1);
+		List<CloudStackJob<String>> cloudJobs = new ArrayList<CloudStackJob<String>>();
+		List<CloudStackJob<String>> jobs = dispatcher.submitAll(caller, newOperations(3, cloudJobs, null));
+
+		waitFor(cloudJobs, 1);
+		Assert.assertTrue(jobs.get(1).cancelIfDeferred());
+		Assert.assertFalse(jobs.get(0).cancelIfDeferred());
+
+		cloudJobs.get(0).follow(CloudStackJob.completed("vm-0"));
+		waitFor(cloudJobs, 2);
+		cloudJobs.get(1).follow(CloudStackJob.completed("vm-2"));
+		Assert.assertEquals("vm-2", jobs.get(2).get());
+		Assert.assertEquals(2, cloudJobs.size());
+	}
+
+	public void testSubmitWithinLimitLeavesNothingQueued() throws Exception {
+		EC2InstanceDispatcher dispatcher = new EC2InstanceDispatcher(executor, 3);
+		List<CloudStackJob<String>> cloudJobs = new ArrayList<CloudStackJob<String>>();
+		List<CloudStackJob<String>> first = dispatcher.submitWithinLimit(caller, newOperations(2, cloudJobs, null), 1);
+		Assert.assertEquals(2, first.size());
+
+		// -> one permit is left, so only one of five is submitted and each returned job has been submitted
+		List<CloudStackJob<String>> second = dispatcher.submitWithinLimit(caller, newOperations(5, cloudJobs, null), 1);
+		Assert.assertEquals(1, second.size());
+		Assert.assertNotNull(second.get(0).getJobId());
+		Assert.assertEquals(3, cloudJobs.size());
+
+		// -> no permit is left for the minimum, nothing is submitted
+		Assert.assertTrue(dispatcher.submitWithinLimit(caller, newOperations(2, cloudJobs, null), 1).isEmpty());
+
+		first.get(0).follow(CloudStackJob.completed("vm-0"));
+		Assert.assertEquals("vm-0", first.get(0).get());
+		Assert.assertEquals(3, cloudJobs.size());
+		Assert.assertEquals(1, dispatcher.submitWithinLimit(caller, newOperations(2, cloudJobs, null), 1).size());
+	}
+
+	public void testShortOfMinCountRollsBackOnceAllAreDone() {
+		List<CloudStackJob<String>> deployments = newJobs(3);
+		final AtomicInteger rollBacks = new AtomicInteger();
+		EC2InstanceDispatcher.whenAllDone(deployments, 2, new Runnable() {
+			public void run() {
+				rollBacks.incrementAndGet();
+			}
+		});
+
+		deployments.get(0).follow(CloudStackJob.<String>failed(new Exception("533 insufficient capacity")));
+		deployments.get(1).follow(CloudStackJob.<String>failed(new Exception("533 insufficient capacity")));
+		Assert.assertEquals(0, rollBacks.get());
+
+		deployments.get(2).follow(CloudStackJob.completed("vm-2"));
+		Assert.assertEquals(1, rollBacks.get());
+	}
+
+	public void testMinCountMetIsNotRolledBack() {
+		List<CloudStackJob<String>> deployments = newJobs(3);
+		final AtomicInteger rollBacks = new AtomicInteger();
+		EC2InstanceDispatcher.whenAllDone(deployments, 2, new Runnable() {
+			public void run() {
+				rollBacks.incrementAndGet();
+			}
+		});
+
+		deployments.get(0).follow(CloudStackJob.completed("vm-0"));
+		deployments.get(1).follow(CloudStackJob.<String>failed(new Exception("530 internal error")));
+		deployments.get(2).follow(CloudStackJob.completed("vm-2"));
+		Assert.assertEquals(0, rollBacks.get());
+	}
+
+	/**
+	 * Each operation "submits" a job the test completes by having it follow a finished job, the operations whose index is in refused throw.
+	 */
+	private List<Callable<CloudStackJob<String>>> newOperations(int count, final List<CloudStackJob<String>> cloudJobs, int[] refused) {
+		List<Callable<CloudStackJob<String>>> operations = new ArrayList<Callable<CloudStackJob<String>>>();
+		for (int i=0; i < count; i++) {
+			boolean refuse = false;
+			for (int j=0; null != refused && j < refused.length; j++)
+				if (refused[j] == i) refuse = true;
+
+			final boolean fRefuse = refuse;
+			operations.add(new Callable<CloudStackJob<String>>() {
+				public CloudStackJob<String> call() throws Exception {
+					if (fRefuse) throw new Exception("431 refused");
+					CloudStackJob<String> job;
+					synchronized(cloudJobs) {
+						job = new CloudStackJob<String>("job-" + cloudJobs.size(), null);
+						cloudJobs.add(job);
+						cloudJobs.notifyAll();
+					}
+					return job;
+				}
+			});
+		}
+		return operations;
+	}
+
+	private static List<CloudStackJob<String>> newJobs(int count) {
+		List<CloudStackJob<String>> jobs = new ArrayList<CloudStackJob<String>>();
+		for (int i=0; i < count; i++) jobs.add(new CloudStackJob<String>("job-" + i, "vm-" + i));
+		return jobs;
+	}
+
+	private static void waitFor(List<CloudStackJob<String>> cloudJobs, int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		synchronized(cloudJobs) {
+			while (cloudJobs.size() < count && System.currentTimeMillis() < deadline)
+				cloudJobs.wait(100);
+		}
+		Assert.assertTrue(cloudJobs.size() >= count);
+	}
+}
@@ -0,0 +1,127 @@
+package com.cloud.gate.service;
+
+import java.util.Properties;
+
+import junit.framework.Assert;
+
+import com.cloud.bridge.persist.dao.BucketPolicyDao;
+import com.cloud.bridge.service.core.s3.S3BucketPolicy;
+import com.cloud.bridge.service.core.s3.S3BucketPolicyCache;
+import com.cloud.bridge.util.Tuple;
+import com.cloud.gate.testcase.BaseTestCase;
+
+public class S3BucketPolicyCacheTestCase extends BaseTestCase {
+
+	/**
+	 * Stands in for the bucket_policies table, one bucket whose policy the test replaces.
+	 */
+	private static class PolicyTable extends BucketPolicyDao {
+		private String policy;
+		private Long version;
+		private int versionReads;
+		private int policyReads;
+
+		void write(String policy) {
+			this.policy = policy;
+			this.version = Long.valueOf(null == version ? 1 : version.longValue() + 1);
+		}
+
+		void delete() {
+			policy = null;
+			version = null;
+		}
+
+		@Override
+		public Tuple<String, Long> getPolicyAndVersion(String bucketName) {
+			policyReads++;
+			return (null == policy ? null : new Tuple<String, Long>(policy, version));
+		}
+
+		@Override
+		public Long getPolicyVersion(String bucketName) {
+			versionReads++;
+			return version;
+		}
+	}
+
+	private static class TestCache extends S3BucketPolicyCache {
+		private final PolicyTable table;
+
+		TestCache(PolicyTable table, int checkSeconds) {
+			this.table = table;
+			Properties properties = new Properties();
+			properties.setProperty("bucket.policy.cache.check", String.valueOf(checkSeconds));
+			configure(properties);
+		}
+
+		@Override
+		protected BucketPolicyDao newPolicyDao() {
+			return table;
+		}
+	}
+
+	public void testPolicyIsReadOnceWithinTheCheckInterval() throws Exception {
+		PolicyTable table = new PolicyTable();
+		table.write(policy("first"));
+		TestCache cache = new TestCache(table, 60);
+
+		Assert.assertEquals("first", cache.get("bucket").getId());
+		Assert.assertEquals("first", cache.get("bucket").getId());
+		Assert.assertEquals(1, table.policyReads);
+		Assert.assertEquals(0, table.versionReads);
+		Assert.assertEquals(1, cache.getHits());
+	}
+
+	public void testUnchangedVersionKeepsTheCachedPolicy() throws Exception {
+		PolicyTable table = new PolicyTable();
+		table.write(policy("first"));
+		TestCache cache = new TestCache(table, 0);
+
+		S3BucketPolicy loaded = cache.get("bucket");
+		Assert.assertSame(loaded, cache.get("bucket"));
+		Assert.assertEquals(1, table.policyReads);
+		Assert.assertEquals(1, table.versionReads);
+	}
+
+	public void testPolicyReplacedElsewhereIsReloaded() throws Exception {
+		PolicyTable table = new PolicyTable();
+		table.write(policy("first"));
+		TestCache cache = new TestCache(table, 0);
+		Assert.assertEquals("first", cache.get("bucket").getId());
+
+		// -> another bridge instance writes the policy, only the version tells this one
+		table.write(policy("second"));
+		Assert.assertEquals("second", cache.get("bucket").getId());
+		Assert.assertEquals(2, cache.getLoads());
+	}
+
+	public void testPolicyDeletedElsewhereIsDropped() throws Exception {
+		PolicyTable table = new PolicyTable();
+		table.write(policy("first"));
+		TestCache cache = new TestCache(table, 0);
+		Assert.assertNotNull(cache.get("bucket"));
+
+		table.delete();
+		Assert.assertNull(cache.get("bucket"));
+
+		// -> the absence of a policy is cached as well
+		Assert.assertNull(cache.get("bucket"));
+		Assert.assertEquals(2, table.policyReads);
+	}
+
+	public void testRemoveForcesALoad() throws Exception {
+		PolicyTable table = new PolicyTable();
+		table.write(policy("first"));
+		TestCache cache = new TestCache(table, 60);
+		cache.get("bucket");
+
+		cache.remove("bucket");
+		cache.get("bucket");
+		Assert.assertEquals(2, table.policyReads);
+	}
+
+	private static String policy(String id) {
+		return "{ \"Id\" : \"" + id + "\", \"Statement\" : [ { \"Sid\" : \"read\", \"Effect\" : \"Allow\", "
+			+ "\"Principal\" : { \"AWS\" : [ \"*\" ] }, \"Action\" : \"s3:GetObject\", \"Resource\" : \"arn:aws:s3:::bucket/*\" } ] }";
+	}
+}
@@ -0,0 +1,127 @@
+package com.cloud.gate.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import com.cloud.bridge.util.JsonAccessor;
+import com.cloud.gate.testcase.BaseTestCase;
+import com.cloud.stack.CloudStackClient;
+import com.cloud.stack.CloudStackCommand;
+import com.cloud.stack.CloudStackException;
+import com.cloud.stack.CloudStackJob;
+import com.cloud.stack.CloudStackJobTracker;
+import com.cloud.stack.models.CloudStackUserVm;
+import com.google.gson.JsonParser;
+
+public class CloudStackJobTrackerTestCase extends BaseTestCase {
+
+	/**
+	 * Answers queryAsyncJobResult as still running for the given number of polls, then with the given
+	 * final answer, and records when each poll was made.
+	 */
+	private static class ScriptedClient extends CloudStackClient {
+		private final int runningPolls;
+		private final String finalAnswer;
+		private final List<Long> pollTimes = new ArrayList<Long>();
+		private volatile String pollThread;
+
+		ScriptedClient(int runningPolls, String finalAnswer) {
+			super("localhost", 8080, false);
+			this.runningPolls = runningPolls;
+			this.finalAnswer = finalAnswer;
+		}
+
+		@Override
+		public JsonAccessor execute(CloudStackCommand cmd, String apiKey, String secretKey) {
+			int poll;
+			synchronized(pollTimes) {
+				pollTimes.add(System.currentTimeMillis());
+				poll = pollTimes.size();
+			}
+			pollThread = Thread.currentThread().getName();
+			String answer = (poll <= runningPolls ? "{ \"queryasyncjobresultresponse\" : { \"jobstatus\" : 0 } }" : finalAnswer);
+			return new JsonAccessor(new JsonParser().parse(answer));
+		}
+
+		List<Long> getPollTimes() {
+			synchronized(pollTimes) {
+				return new ArrayList<Long>(pollTimes);
+			}
+		}
+	}
+
+	public void testPollsBackOffUntilDone() throws Exception {
+		ScriptedClient client = new ScriptedClient(4, "{ \"queryasyncjobresultresponse\" : { \"jobstatus\" : 1, "
+			+ "\"jobresult\" : { \"virtualmachine\" : { \"id\" : \"42\", \"state\" : \"Running\" } } } }");
+		CloudStackJobTracker tracker = new CloudStackJobTracker(2).setMaxPollInterval(200);
+		CloudStackJob<CloudStackUserVm> job = new CloudStackJob<CloudStackUserVm>("1", "42");
+
+		final String[] listenerThread = new String[1];
+		final CountDownLatch listened = new CountDownLatch(1);
+		job.whenDone(new Runnable() {
+			public void run() {
+				listenerThread[0] = Thread.currentThread().getName();
+				listened.countDown();
+			}
+		});
+		tracker.track(client, job, "apiKey", "secretKey", "virtualmachine", CloudStackUserVm.class, 40, 10000);
+
+		CloudStackUserVm vm = job.get(5, TimeUnit.SECONDS);
+		Assert.assertEquals("42", vm.getId());
+		Assert.assertEquals("Running", vm.getState());
+		Assert.assertEquals(5, client.getPollTimes().size());
+		Assert.assertEquals(0, tracker.getOutstanding());
+		Assert.assertEquals(1, tracker.getCompleted());
+
+		// -> each interval is half again as long as the one before, up to the maximum interval
+		List<Long> times = client.getPollTimes();
+		Assert.assertTrue(times.get(2) - times.get(1) >= 55);
+		Assert.assertTrue(times.get(3) - times.get(2) >= 85);
+		Assert.assertTrue(times.get(4) - times.get(3) >= 130);
+		Assert.assertTrue(times.get(4) - times.get(3) < 1000);
+
+		// -> neither the poll nor the listener runs on the scheduler thread
+		Assert.assertTrue(listened.await(5, TimeUnit.SECONDS));
+		Assert.assertTrue(client.pollThread.startsWith("CloudStack-JobPoll"));
+		Assert.assertTrue(listenerThread[0].startsWith("CloudStack-JobPoll"));
+	}
+
+	public void testJobStillRunningAtTimeoutFails() throws Exception {
+		ScriptedClient client = new ScriptedClient(Integer.MAX_VALUE, null);
+		CloudStackJobTracker tracker = new CloudStackJobTracker(2).setMaxPollInterval(50);
+		CloudStackJob<CloudStackUserVm> job = new CloudStackJob<CloudStackUserVm>("2", null);
+
+		long start = System.currentTimeMillis();
+		tracker.track(client, job, "apiKey", "secretKey", "virtualmachine", CloudStackUserVm.class, 20, 300);
+		try {
+			job.get(5, TimeUnit.SECONDS);
+			Assert.fail("a job still running at its timeout must fail");
+		} catch(ExecutionException e) {
+			Assert.assertTrue(e.getCause().getMessage().indexOf("timed out") != -1);
+		}
+		Assert.assertTrue(System.currentTimeMillis() - start >= 300);
+		Assert.assertEquals(0, tracker.getOutstanding());
+		Assert.assertEquals(1, tracker.getFailed());
+	}
+
+	public void testFailedJobCarriesErrorCode() throws Exception {
+		ScriptedClient client = new ScriptedClient(1, "{ \"queryasyncjobresultresponse\" : { \"jobstatus\" : 2, "
+			+ "\"jobresult\" : { \"errorcode\" : 431, \"errortext\" : \"VM is not in the right state\" } } }");
+		CloudStackJobTracker tracker = new CloudStackJobTracker(1);
+		CloudStackJob<CloudStackUserVm> job = new CloudStackJob<CloudStackUserVm>("3", "43");
+
+		tracker.track(client, job, "apiKey", "secretKey", "virtualmachine", CloudStackUserVm.class, 10, 10000);
+		try {
+			job.get(5, TimeUnit.SECONDS);
+			Assert.fail("a failed job must fail its future");
+		} catch(ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof CloudStackException);
+			Assert.assertEquals(431, ((CloudStackException)e.getCause()).getErrorCode());
+		}
+	}
+}